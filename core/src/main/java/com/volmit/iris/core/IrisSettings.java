@@ -23,6 +23,7 @@ import com.volmit.iris.Iris;
 import com.volmit.iris.util.io.IO;
 import com.volmit.iris.util.json.JSONException;
 import com.volmit.iris.util.json.JSONObject;
+import com.volmit.iris.util.mantle.MantleDurability;
 import com.volmit.iris.util.plugin.VolmitSender;
 import com.volmit.iris.util.scheduling.ChronoLatch;
 import lombok.AllArgsConstructor;
@@ -141,7 +142,15 @@ public class IrisSettings {
     public static class IrisSettingsPerformance {
         public boolean trimMantleInStudio = false; 
         public int mantleKeepAlive = 30;
+        public int mantleWriteBehindLimit = 64;
+        public int mantleMemoryBudget = 0;
+        public int mantlePrefetchLimit = 8;
+        public int mantlePrefetchRegions = 2;
+        public int mantlePrefetchSeconds = 10;
+        public MantleDurability mantleDurability = MantleDurability.GROUP;
+        public int mantleGroupCommitMs = 1000;
         public int cacheSize = 4_096;
+        public int chunkContextBorder = 1;
         public int resourceLoaderCacheSize = 1_024;
         public int objectLoaderCacheSize = 4_096;
         public int scriptLoaderCacheSize = 512;
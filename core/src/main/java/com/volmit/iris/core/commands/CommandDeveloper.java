@@ -40,6 +40,7 @@ import com.volmit.iris.util.nbt.mca.MCAFile;
 import com.volmit.iris.util.nbt.mca.MCAUtil;
 import com.volmit.iris.util.parallel.MultiBurst;
 import com.volmit.iris.util.plugin.VolmitSender;
+import com.volmit.iris.util.stream.StreamGraph;
 import net.jpountz.lz4.LZ4BlockInputStream;
 import net.jpountz.lz4.LZ4BlockOutputStream;
 import net.jpountz.lz4.LZ4FrameInputStream;
@@ -69,11 +70,11 @@ public class CommandDeveloper implements DecreeExecutor {
         List<World> IrisWorlds = new ArrayList<>();
         int TotalLoadedChunks = 0;
         int TotalQueuedTectonicPlates = 0;
-        int TotalNotQueuedTectonicPlates = 0;
         int TotalTectonicPlates = 0;
-
-        long lowestUnloadDuration = 0;
-        long highestUnloadDuration = 0;
+        long TotalMemoryUsage = 0;
+        long TotalPrefetchHits = 0;
+        long TotalPrefetchMisses = 0;
+        long TotalPrefetchWasted = 0;
 
         for (World world : Bukkit.getWorlds()) {
             try {
@@ -87,15 +88,12 @@ public class CommandDeveloper implements DecreeExecutor {
 
         for (World world : IrisWorlds) {
             Engine engine = IrisToolbelt.access(world).getEngine();
-            TotalQueuedTectonicPlates += (int) engine.getMantle().getToUnload();
-            TotalNotQueuedTectonicPlates += (int) engine.getMantle().getNotQueuedLoadedRegions();
+            TotalQueuedTectonicPlates += engine.getMantle().getUnloadingRegionCount();
             TotalTectonicPlates += engine.getMantle().getLoadedRegionCount();
-            if (highestUnloadDuration <= (long) engine.getMantle().getTectonicDuration()) {
-                highestUnloadDuration = (long) engine.getMantle().getTectonicDuration();
-            }
-            if (lowestUnloadDuration >= (long) engine.getMantle().getTectonicDuration()) {
-                lowestUnloadDuration = (long) engine.getMantle().getTectonicDuration();
-            }
+            TotalMemoryUsage += engine.getMantle().getMemoryUsage();
+            TotalPrefetchHits += engine.getMantle().getMantle().getPrefetchHits();
+            TotalPrefetchMisses += engine.getMantle().getMantle().getPrefetchMisses();
+            TotalPrefetchWasted += engine.getMantle().getMantle().getPrefetchWasted();
             for (Chunk chunk : world.getLoadedChunks()) {
                 if (chunk.isLoaded()) {
                     TotalLoadedChunks++;
@@ -105,12 +103,10 @@ public class CommandDeveloper implements DecreeExecutor {
         Iris.info("-------------------------");
         Iris.info(C.DARK_PURPLE + "Engine Status");
         Iris.info(C.DARK_PURPLE + "Total Loaded Chunks: " + C.LIGHT_PURPLE + TotalLoadedChunks);
-        Iris.info(C.DARK_PURPLE + "Tectonic Limit: " + C.LIGHT_PURPLE + IrisEngineSVC.getTectonicLimit());
-        Iris.info(C.DARK_PURPLE + "Tectonic Total Plates: " + C.LIGHT_PURPLE + TotalTectonicPlates);
-        Iris.info(C.DARK_PURPLE + "Tectonic Active Plates: " + C.LIGHT_PURPLE + TotalNotQueuedTectonicPlates);
-        Iris.info(C.DARK_PURPLE + "Tectonic ToUnload: " + C.LIGHT_PURPLE + TotalQueuedTectonicPlates);
-        Iris.info(C.DARK_PURPLE + "Lowest Tectonic Unload Duration: " + C.LIGHT_PURPLE + Form.duration(lowestUnloadDuration));
-        Iris.info(C.DARK_PURPLE + "Highest Tectonic Unload Duration: " + C.LIGHT_PURPLE + Form.duration(highestUnloadDuration));
+        Iris.info(C.DARK_PURPLE + "Tectonic Loaded Plates: " + C.LIGHT_PURPLE + TotalTectonicPlates);
+        Iris.info(C.DARK_PURPLE + "Tectonic Queued Writes: " + C.LIGHT_PURPLE + TotalQueuedTectonicPlates);
+        Iris.info(C.DARK_PURPLE + "Tectonic Memory: " + C.LIGHT_PURPLE + Form.memSize(TotalMemoryUsage, 1) + C.DARK_PURPLE + " / " + C.LIGHT_PURPLE + Form.memSize(IrisEngineSVC.getMantleBudget(), 1));
+        Iris.info(C.DARK_PURPLE + "Tectonic Prefetch Hits: " + C.LIGHT_PURPLE + TotalPrefetchHits + C.DARK_PURPLE + " Misses: " + C.LIGHT_PURPLE + TotalPrefetchMisses + C.DARK_PURPLE + " Wasted: " + C.LIGHT_PURPLE + TotalPrefetchWasted);
         Iris.info(C.DARK_PURPLE + "Cache Size: " + C.LIGHT_PURPLE + Form.f(IrisData.cacheSize()));
         Iris.info("-------------------------");
     }
@@ -156,6 +152,22 @@ public class CommandDeveloper implements DecreeExecutor {
         sender().sendMessage(C.GREEN + "Done upgrading! You can now update your server version to " + version.getVersion());
     }
 
+    @Decree(description = "Dump the optimized stream graph of an Iris world")
+    public void streamGraph(
+            @Param(description = "The world to dump", aliases = {"world"})
+            World world
+    ) throws IOException {
+        if (!IrisToolbelt.isIrisWorld(world)) {
+            sender().sendMessage(C.RED + "This is not an Iris world.");
+            return;
+        }
+
+        StreamGraph graph = IrisToolbelt.access(world).getEngine().getComplex().dumpGraph();
+        File file = new File(Iris.instance.getDataFolder("dump"), "stream-graph-" + world.getName() + ".txt");
+        IO.writeAll(file, String.join("\n", graph.getLines()));
+        sender().sendMessage(C.GREEN + "Dumped " + graph.getNodeCount() + " stream nodes (" + graph.getShared() + " shared references) to " + file.getPath());
+    }
+
     @Decree(description = "test")
     public void mca (
             @Param(description = "String") String world) {
@@ -76,6 +76,7 @@ public class CommandIris implements DecreeExecutor {
     private CommandFind find;
     private CommandSupport support;
     private CommandDeveloper developer;
+    private CommandMantle mantle;
     public static boolean worldCreation = false;
     String WorldEngine;
     String worldNameToCheck = "YourWorldName";
@@ -0,0 +1,91 @@
+/*
+ * Iris is a World Generator for Minecraft Bukkit Servers
+ * Copyright (c) 2022 Arcane Arts (Volmit Software)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package com.volmit.iris.core.commands;
+
+import com.volmit.iris.Iris;
+import com.volmit.iris.core.IrisSettings;
+import com.volmit.iris.util.decree.DecreeExecutor;
+import com.volmit.iris.util.decree.annotations.Decree;
+import com.volmit.iris.util.decree.annotations.Param;
+import com.volmit.iris.util.format.C;
+import com.volmit.iris.util.mantle.MantleCompactor;
+import com.volmit.iris.util.mantle.MantleFootprint;
+import org.bukkit.Bukkit;
+
+import java.io.File;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+@Decree(name = "mantle", description = "Manage the mantle of your Iris worlds")
+public class CommandMantle implements DecreeExecutor {
+    @Decree(description = "Compact the mantle of an unloaded world, dropping cleaned & empty data")
+    public void compact(
+            @Param(description = "The name of the world folder")
+            String world
+    ) {
+        if (Bukkit.getWorld(world) != null) {
+            sender().sendMessage(C.RED + "The world " + world + " is loaded! Unload it before compacting its mantle.");
+            return;
+        }
+
+        File folder = new File(new File(Bukkit.getWorldContainer(), world), "mantle");
+        if (!folder.isDirectory()) {
+            sender().sendMessage(C.RED + "The world " + world + " has no mantle.");
+            return;
+        }
+
+        sender().sendMessage(C.GREEN + "Compacting the mantle of " + world + "...");
+        ExecutorService executor = Executors.newFixedThreadPool(IrisSettings.getThreadCount(IrisSettings.get().getConcurrency().getParallelism()));
+        try {
+            MantleCompactor.Result result = MantleCompactor.compact(folder, executor, Iris::info);
+            sender().sendMessage((result.failed() > 0 ? C.YELLOW : C.GREEN) + result.toString());
+        } catch (Throwable e) {
+            sender().sendMessage(C.RED + "Failed to compact the mantle. See console.");
+            Iris.reportError(e);
+            e.printStackTrace();
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    @Decree(description = "Measure the heap used by the loaded tectonic plates of a world's mantle")
+    public void footprint(
+            @Param(description = "The name of the world folder")
+            String world,
+            @Param(description = "The height of the world in blocks", defaultValue = "384")
+            int height,
+            @Param(description = "The maximum amount of plates to load", defaultValue = "64")
+            int plates
+    ) {
+        File folder = new File(new File(Bukkit.getWorldContainer(), world), "mantle");
+        if (!folder.isDirectory()) {
+            sender().sendMessage(C.RED + "The world " + world + " has no mantle.");
+            return;
+        }
+
+        sender().sendMessage(C.GREEN + "Measuring the mantle of " + world + "...");
+        try {
+            sender().sendMessage(C.GREEN + MantleFootprint.measure(folder, height, plates, Iris::info).toString());
+        } catch (Throwable e) {
+            sender().sendMessage(C.RED + "Failed to measure the mantle. See console.");
+            Iris.reportError(e);
+            e.printStackTrace();
+        }
+    }
+}
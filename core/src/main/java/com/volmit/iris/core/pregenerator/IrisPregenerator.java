@@ -19,6 +19,7 @@
 package com.volmit.iris.core.pregenerator;
 
 import com.volmit.iris.Iris;
+import com.volmit.iris.core.IrisSettings;
 import com.volmit.iris.core.pack.IrisPack;
 import com.volmit.iris.core.tools.IrisPackBenchmarking;
 import com.volmit.iris.util.collection.KList;
@@ -140,7 +141,12 @@ public class IrisPregenerator {
         ticker.start();
         checkRegions();
         task.iterateRegions((x, z) -> visitRegion(x, z, true));
-        task.iterateRegions((x, z) -> visitRegion(x, z, false));
+        KList<Position2> order = new KList<>();
+        task.iterateRegions((x, z) -> order.add(new Position2(x, z)));
+        for (int i = 0; i < order.size(); i++) {
+            prefetchRegions(order, i + 1);
+            visitRegion(order.get(i).getX(), order.get(i).getZ(), false);
+        }
         shutdown();
         if (!IrisPackBenchmarking.benchmarkInProgress) {
             Iris.info(C.IRIS + "Pregen stopped.");
@@ -165,7 +171,7 @@ public class IrisPregenerator {
         listener.onClose();
         Mantle mantle = getMantle();
         if (mantle != null) {
-            mantle.trim(0, 0);
+            mantle.unloadIdle(0);
         }
     }
 
@@ -216,6 +222,21 @@ public class IrisPregenerator {
         }
     }
 
+    private void prefetchRegions(KList<Position2> order, int from) {
+        Mantle mantle = getMantle();
+        if (mantle == null || shutdown.get()) {
+            return;
+        }
+
+        int lookahead = IrisSettings.get().getPerformance().getMantlePrefetchRegions();
+        for (int i = from; i < order.size() && i < from + lookahead; i++) {
+            Position2 pos = order.get(i);
+            if (!generatedRegions.contains(pos)) {
+                mantle.prefetch(pos.getX(), pos.getZ());
+            }
+        }
+    }
+
     private void checkRegion(int x, int z) {
         if (generatedRegions.contains(new Position2(x, z))) {
             return;
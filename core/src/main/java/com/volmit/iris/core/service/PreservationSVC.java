@@ -56,6 +56,9 @@ public class PreservationSVC implements IrisService {
         long m = caches.stream().filter(i -> !i.isClosed()).mapToLong(MeteredCache::getMaxSize).sum();
         double p = 0;
         double mf = 0;
+        long hits = 0;
+        long misses = 0;
+        long evictions = 0;
 
         for (MeteredCache i : caches) {
             if (i.isClosed()) {
@@ -64,11 +67,15 @@ public class PreservationSVC implements IrisService {
 
             mf++;
             p += i.getUsage();
+            hits += i.getHits();
+            misses += i.getMisses();
+            evictions += i.getEvictions();
         }
 
         mf = mf == 0 ? 1 : mf;
 
         Iris.info("Cached " + Form.f(s) + " / " + Form.f(m) + " (" + Form.pc(p / mf) + ") from " + caches.size() + " Caches");
+        Iris.info("Hits " + Form.f(hits) + ", Misses " + Form.f(misses) + " (" + Form.pc(hits + misses == 0 ? 0 : (double) hits / (double) (hits + misses)) + " Hit Rate), Evictions " + Form.f(evictions));
     }
 
     public void dereference() {
@@ -22,6 +22,7 @@ import com.volmit.iris.Iris;
 import com.volmit.iris.core.IrisSettings;
 import com.volmit.iris.core.loader.IrisData;
 import com.volmit.iris.engine.data.cache.Cache;
+import com.volmit.iris.engine.data.cache.QuartBiomeCache;
 import com.volmit.iris.engine.framework.Engine;
 import com.volmit.iris.engine.object.*;
 import com.volmit.iris.util.collection.KList;
@@ -33,7 +34,9 @@ import com.volmit.iris.util.interpolation.IrisInterpolation.NoiseKey;
 import com.volmit.iris.util.math.M;
 import com.volmit.iris.util.math.RNG;
 import com.volmit.iris.util.noise.CNG;
+import com.volmit.iris.util.stream.DoubleStream;
 import com.volmit.iris.util.stream.ProceduralStream;
+import com.volmit.iris.util.stream.StreamGraph;
 import com.volmit.iris.util.stream.interpolation.Interpolated;
 import lombok.Data;
 import lombok.EqualsAndHashCode;
@@ -43,6 +46,7 @@ import org.bukkit.block.Biome;
 import org.bukkit.block.data.BlockData;
 
 import java.util.UUID;
+import java.util.function.Function;
 
 @Data
 @EqualsAndHashCode(exclude = "data")
@@ -54,8 +58,10 @@ public class IrisComplex implements DataProvider {
     private IrisData data;
     private KMap<IrisInterpolator, KSet<IrisGenerator>> generators;
     private ProceduralStream<IrisRegion> regionStream;
-    private ProceduralStream<Double> regionStyleStream;
-    private ProceduralStream<Double> regionIdentityStream;
+    private ProceduralStream<IrisRegion> regionContextStream;
+    private KMap<InferredType, KMap<String, ProceduralStream<IrisBiome>>> regionBiomeStreams;
+    private DoubleStream regionStyleStream;
+    private DoubleStream regionIdentityStream;
     private ProceduralStream<UUID> regionIDStream;
     private ProceduralStream<InferredType> bridgeStream;
     private ProceduralStream<IrisBiome> landBiomeStream;
@@ -66,12 +72,16 @@ public class IrisComplex implements DataProvider {
     private ProceduralStream<UUID> baseBiomeIDStream;
     private ProceduralStream<IrisBiome> trueBiomeStream;
     private ProceduralStream<Biome> trueBiomeDerivativeStream;
-    private ProceduralStream<Double> heightStream;
+    private ProceduralStream<IrisBiome> trueBiomeContextStream;
+    private ProceduralStream<IrisBiome> caveBiomeContextStream;
+    private QuartBiomeCache biomeCache;
+    private DoubleStream heightStream;
+    private DoubleStream heightContextStream;
     private ProceduralStream<Integer> roundedHeighteightStream;
-    private ProceduralStream<Double> maxHeightStream;
-    private ProceduralStream<Double> overlayStream;
-    private ProceduralStream<Double> heightFluidStream;
-    private ProceduralStream<Double> slopeStream;
+    private DoubleStream maxHeightStream;
+    private DoubleStream overlayStream;
+    private DoubleStream heightFluidStream;
+    private DoubleStream slopeStream;
     private ProceduralStream<Integer> topSurfaceStream;
     private ProceduralStream<IrisDecorator> terrainSurfaceDecoration;
     private ProceduralStream<IrisDecorator> terrainCeilingDecoration;
@@ -112,7 +122,7 @@ public class IrisComplex implements DataProvider {
                 .getAllBiomes(this).forEach((b) -> b
                         .getGenerators()
                         .forEach((c) -> registerGenerator(c.getCachedGenerator(this)))));
-        overlayStream = ProceduralStream.ofDouble((x, z) -> 0.0D).waste("Overlay Stream");
+        overlayStream = DoubleStream.of((x, z) -> 0.0D).waste("Overlay Stream");
         engine.getDimension().getOverlayNoise().forEach(i -> overlayStream = overlayStream.add((x, z) -> i.get(rng, getData(), x, z)));
         rockStream = engine.getDimension().getRockPalette().getLayerGenerator(rng.nextParallelRNG(45), data).stream()
                 .select(engine.getDimension().getRockPalette().getBlockData(data)).waste("Rock Stream");
@@ -129,42 +139,41 @@ public class IrisComplex implements DataProvider {
                 .cache2D("regionStream", engine, cacheSize).waste("Region Stream");
         regionIDStream = regionIdentityStream.convertCached((i) -> new UUID(Double.doubleToLongBits(i),
                 String.valueOf(i * 38445).hashCode() * 3245556666L)).waste("Region ID Stream");
-        caveBiomeStream = regionStream.contextInjecting((c, x, z) -> IrisContext.getOr(engine).getChunkContext().getRegion().get(x, z))
-                .convert((r)
-                        -> engine.getDimension().getCaveBiomeStyle().create(rng.nextParallelRNG(InferredType.CAVE.ordinal()), getData()).stream()
-                        .zoom(engine.getDimension().getBiomeZoom())
-                        .zoom(r.getCaveBiomeZoom())
-                        .selectRarity(data.getBiomeLoader().loadAll(r.getCaveBiomes()))
-                        .onNull(emptyBiome)
-                ).convertAware2D(ProceduralStream::get).cache2D("caveBiomeStream", engine, cacheSize).waste("Cave Biome Stream");
+        regionContextStream = regionStream.contextInjecting((c, x, z) -> IrisContext.getOr(engine).getChunkContext().getRegion().get(x, z))
+                .waste("Region Context Stream");
+        regionBiomeStreams = new KMap<>();
+        KList<IrisRegion> regions = focusRegion != null ? new KList<>(focusRegion)
+                : data.getRegionLoader().loadAll(engine.getDimension().getRegions());
+        caveBiomeStream = regionBiomeStream(InferredType.CAVE, regions, (r)
+                -> engine.getDimension().getCaveBiomeStyle().create(rng.nextParallelRNG(InferredType.CAVE.ordinal()), getData()).stream()
+                .zoom(engine.getDimension().getBiomeZoom())
+                .zoom(r.getCaveBiomeZoom())
+                .selectRarity(data.getBiomeLoader().loadAll(r.getCaveBiomes()))
+                .onNull(emptyBiome)
+        ).cache2D("caveBiomeStream", engine, cacheSize).waste("Cave Biome Stream");
         inferredStreams.put(InferredType.CAVE, caveBiomeStream);
-        landBiomeStream = regionStream.contextInjecting((c, x, z) -> IrisContext.getOr(engine).getChunkContext().getRegion().get(x, z))
-                .convert((r)
-                        -> engine.getDimension().getLandBiomeStyle().create(rng.nextParallelRNG(InferredType.LAND.ordinal()), getData()).stream()
-                        .zoom(engine.getDimension().getBiomeZoom())
-                        .zoom(engine.getDimension().getLandZoom())
-                        .zoom(r.getLandBiomeZoom())
-                        .selectRarity(data.getBiomeLoader().loadAll(r.getLandBiomes(), (t) -> t.setInferredType(InferredType.LAND)))
-                ).convertAware2D(ProceduralStream::get)
-                .cache2D("landBiomeStream", engine, cacheSize).waste("Land Biome Stream");
+        landBiomeStream = regionBiomeStream(InferredType.LAND, regions, (r)
+                -> engine.getDimension().getLandBiomeStyle().create(rng.nextParallelRNG(InferredType.LAND.ordinal()), getData()).stream()
+                .zoom(engine.getDimension().getBiomeZoom())
+                .zoom(engine.getDimension().getLandZoom())
+                .zoom(r.getLandBiomeZoom())
+                .selectRarity(data.getBiomeLoader().loadAll(r.getLandBiomes(), (t) -> t.setInferredType(InferredType.LAND)))
+        ).cache2D("landBiomeStream", engine, cacheSize).waste("Land Biome Stream");
         inferredStreams.put(InferredType.LAND, landBiomeStream);
-        seaBiomeStream = regionStream.contextInjecting((c, x, z) -> IrisContext.getOr(engine).getChunkContext().getRegion().get(x, z))
-                .convert((r)
-                        -> engine.getDimension().getSeaBiomeStyle().create(rng.nextParallelRNG(InferredType.SEA.ordinal()), getData()).stream()
-                        .zoom(engine.getDimension().getBiomeZoom())
-                        .zoom(engine.getDimension().getSeaZoom())
-                        .zoom(r.getSeaBiomeZoom())
-                        .selectRarity(data.getBiomeLoader().loadAll(r.getSeaBiomes(), (t) -> t.setInferredType(InferredType.SEA)))
-                ).convertAware2D(ProceduralStream::get)
-                .cache2D("seaBiomeStream", engine, cacheSize).waste("Sea Biome Stream");
+        seaBiomeStream = regionBiomeStream(InferredType.SEA, regions, (r)
+                -> engine.getDimension().getSeaBiomeStyle().create(rng.nextParallelRNG(InferredType.SEA.ordinal()), getData()).stream()
+                .zoom(engine.getDimension().getBiomeZoom())
+                .zoom(engine.getDimension().getSeaZoom())
+                .zoom(r.getSeaBiomeZoom())
+                .selectRarity(data.getBiomeLoader().loadAll(r.getSeaBiomes(), (t) -> t.setInferredType(InferredType.SEA)))
+        ).cache2D("seaBiomeStream", engine, cacheSize).waste("Sea Biome Stream");
         inferredStreams.put(InferredType.SEA, seaBiomeStream);
-        shoreBiomeStream = regionStream.contextInjecting((c, x, z) -> IrisContext.getOr(engine).getChunkContext().getRegion().get(x, z))
-                .convert((r)
-                        -> engine.getDimension().getShoreBiomeStyle().create(rng.nextParallelRNG(InferredType.SHORE.ordinal()), getData()).stream()
-                        .zoom(engine.getDimension().getBiomeZoom())
-                        .zoom(r.getShoreBiomeZoom())
-                        .selectRarity(data.getBiomeLoader().loadAll(r.getShoreBiomes(), (t) -> t.setInferredType(InferredType.SHORE)))
-                ).convertAware2D(ProceduralStream::get).cache2D("shoreBiomeStream", engine, cacheSize).waste("Shore Biome Stream");
+        shoreBiomeStream = regionBiomeStream(InferredType.SHORE, regions, (r)
+                -> engine.getDimension().getShoreBiomeStyle().create(rng.nextParallelRNG(InferredType.SHORE.ordinal()), getData()).stream()
+                .zoom(engine.getDimension().getBiomeZoom())
+                .zoom(r.getShoreBiomeZoom())
+                .selectRarity(data.getBiomeLoader().loadAll(r.getShoreBiomes(), (t) -> t.setInferredType(InferredType.SHORE)))
+        ).cache2D("shoreBiomeStream", engine, cacheSize).waste("Shore Biome Stream");
         inferredStreams.put(InferredType.SHORE, shoreBiomeStream);
         bridgeStream = focusBiome != null ? ProceduralStream.of((x, z) -> focusBiome.getInferredType(),
                 Interpolated.of(a -> 0D, a -> focusBiome.getInferredType())) :
@@ -177,41 +186,48 @@ public class IrisComplex implements DataProvider {
                 bridgeStream.convertAware2D((t, x, z) -> inferredStreams.get(t).get(x, z))
                         .convertAware2D(this::implode)
                         .cache2D("baseBiomeStream", engine, cacheSize).waste("Base Biome Stream");
-        heightStream = ProceduralStream.of((x, z) -> {
+        heightStream = DoubleStream.of((x, z) -> {
             IrisBiome b = focusBiome != null ? focusBiome : baseBiomeStream.get(x, z);
             return getHeight(engine, b, x, z, engine.getSeedManager().getHeight());
-        }, Interpolated.DOUBLE).cache2D("heightStream", engine, cacheSize).waste("Height Stream");
-        roundedHeighteightStream = heightStream.contextInjecting((c, x, z) -> IrisContext.getOr(engine).getChunkContext().getHeight().get(x, z))
+        }).cache2D("heightStream", engine, cacheSize).waste("Height Stream");
+        heightContextStream = heightStream.contextInjecting((c, x, z) -> IrisContext.getOr(engine).getChunkContext().getHeight().get(x, z))
+                .waste("Height Context Stream");
+        roundedHeighteightStream = heightContextStream
                 .round().waste("Rounded Height Stream");
-        slopeStream = heightStream.contextInjecting((c, x, z) -> IrisContext.getOr(engine).getChunkContext().getHeight().get(x, z))
+        slopeStream = heightContextStream
                 .slope(3).cache2D("slopeStream", engine, cacheSize).waste("Slope Stream");
         trueBiomeStream = focusBiome != null ? ProceduralStream.of((x, y) -> focusBiome, Interpolated.of(a -> 0D,
                         b -> focusBiome))
                 .cache2D("trueBiomeStream-focus", engine, cacheSize) : heightStream
                 .convertAware2D((h, x, z) ->
                         fixBiomeType(h, baseBiomeStream.get(x, z),
-                                regionStream.contextInjecting((c, xx, zz) -> IrisContext.getOr(engine).getChunkContext().getRegion().get(xx, zz)).get(x, z), x, z, fluidHeight))
+                                regionContextStream.get(x, z), x, z, fluidHeight))
                 .cache2D("trueBiomeStream", engine, cacheSize).waste("True Biome Stream");
-        trueBiomeDerivativeStream = trueBiomeStream.contextInjecting((c, x, z) -> IrisContext.getOr(engine).getChunkContext().getBiome().get(x, z))
+        trueBiomeContextStream = trueBiomeStream.contextInjecting((c, x, z) -> IrisContext.getOr(engine).getChunkContext().getBiome().get(x, z))
+                .waste("True Biome Context Stream");
+        trueBiomeDerivativeStream = trueBiomeContextStream
                 .convert(IrisBiome::getDerivative).cache2D("trueBiomeDerivativeStream", engine, cacheSize).waste("True Biome Derivative Stream");
-        heightFluidStream = heightStream.contextInjecting((c, x, z) -> IrisContext.getOr(engine).getChunkContext().getHeight().get(x, z))
+        biomeCache = new QuartBiomeCache(engine, trueBiomeStream, 1024);
+        heightFluidStream = heightContextStream
                 .max(fluidHeight).cache2D("heightFluidStream", engine, cacheSize).waste("Height Fluid Stream");
-        maxHeightStream = ProceduralStream.ofDouble((x, z) -> height).waste("Max Height Stream");
-        terrainSurfaceDecoration = trueBiomeStream.contextInjecting((c, x, z) -> IrisContext.getOr(engine).getChunkContext().getBiome().get(x, z))
+        maxHeightStream = DoubleStream.of((x, z) -> height).waste("Max Height Stream");
+        terrainSurfaceDecoration = trueBiomeContextStream
                 .convertAware2D((b, xx, zz) -> decorateFor(b, xx, zz, IrisDecorationPart.NONE)).cache2D("terrainSurfaceDecoration", engine, cacheSize).waste("Surface Decoration Stream");
-        terrainCeilingDecoration = trueBiomeStream.contextInjecting((c, x, z) -> IrisContext.getOr(engine).getChunkContext().getBiome().get(x, z))
+        terrainCeilingDecoration = trueBiomeContextStream
                 .convertAware2D((b, xx, zz) -> decorateFor(b, xx, zz, IrisDecorationPart.CEILING)).cache2D("terrainCeilingDecoration", engine, cacheSize).waste("Ceiling Decoration Stream");
-        terrainCaveSurfaceDecoration = caveBiomeStream.contextInjecting((c, x, z) -> IrisContext.getOr(engine).getChunkContext().getCave().get(x, z))
+        caveBiomeContextStream = caveBiomeStream.contextInjecting((c, x, z) -> IrisContext.getOr(engine).getChunkContext().getCave().get(x, z))
+                .waste("Cave Biome Context Stream");
+        terrainCaveSurfaceDecoration = caveBiomeContextStream
                 .convertAware2D((b, xx, zz) -> decorateFor(b, xx, zz, IrisDecorationPart.NONE)).cache2D("terrainCaveSurfaceDecoration", engine, cacheSize).waste("Cave Surface Stream");
-        terrainCaveCeilingDecoration = caveBiomeStream.contextInjecting((c, x, z) -> IrisContext.getOr(engine).getChunkContext().getCave().get(x, z))
+        terrainCaveCeilingDecoration = caveBiomeContextStream
                 .convertAware2D((b, xx, zz) -> decorateFor(b, xx, zz, IrisDecorationPart.CEILING)).cache2D("terrainCaveCeilingDecoration", engine, cacheSize).waste("Cave Ceiling Stream");
-        shoreSurfaceDecoration = trueBiomeStream.contextInjecting((c, x, z) -> IrisContext.getOr(engine).getChunkContext().getBiome().get(x, z))
+        shoreSurfaceDecoration = trueBiomeContextStream
                 .convertAware2D((b, xx, zz) -> decorateFor(b, xx, zz, IrisDecorationPart.SHORE_LINE)).cache2D("shoreSurfaceDecoration", engine, cacheSize).waste("Shore Surface Stream");
-        seaSurfaceDecoration = trueBiomeStream.contextInjecting((c, x, z) -> IrisContext.getOr(engine).getChunkContext().getBiome().get(x, z))
+        seaSurfaceDecoration = trueBiomeContextStream
                 .convertAware2D((b, xx, zz) -> decorateFor(b, xx, zz, IrisDecorationPart.SEA_SURFACE)).cache2D("seaSurfaceDecoration", engine, cacheSize).waste("Sea Surface Stream");
-        seaFloorDecoration = trueBiomeStream.contextInjecting((c, x, z) -> IrisContext.getOr(engine).getChunkContext().getBiome().get(x, z))
+        seaFloorDecoration = trueBiomeContextStream
                 .convertAware2D((b, xx, zz) -> decorateFor(b, xx, zz, IrisDecorationPart.SEA_FLOOR)).cache2D("seaFloorDecoration", engine, cacheSize).waste("Sea Floor Stream");
-        baseBiomeIDStream = trueBiomeStream.contextInjecting((c, x, z) -> IrisContext.getOr(engine).getChunkContext().getBiome().get(x, z))
+        baseBiomeIDStream = trueBiomeContextStream
                 .convertAware2D((b, x, z) -> {
                     UUID d = regionIDStream.get(x, z);
                     return new UUID(b.getLoadKey().hashCode() * 818223L,
@@ -221,6 +237,52 @@ public class IrisComplex implements DataProvider {
         //@done
     }
 
+    /**
+     * Builds a region's biome stream once per region instead of once per sample, and shares the region context
+     * lookup between all inferred types.
+     */
+    private ProceduralStream<IrisBiome> regionBiomeStream(InferredType type, KList<IrisRegion> regions, Function<IrisRegion, ProceduralStream<IrisBiome>> factory) {
+        KMap<String, ProceduralStream<IrisBiome>> streams = new KMap<>();
+        regions.forEach((r) -> streams.put(r.getLoadKey(), factory.apply(r)));
+        regionBiomeStreams.put(type, streams);
+        return regionContextStream.convertAware2D((r, x, z) -> streams.computeIfAbsent(r.getLoadKey(), (k) -> factory.apply(r)).get(x, z));
+    }
+
+    public StreamGraph dumpGraph() {
+        StreamGraph g = new StreamGraph();
+        g.add("Region", regionStream);
+        g.add("Region Context", regionContextStream);
+        g.add("Bridge", bridgeStream);
+        g.add("Cave Biome", caveBiomeStream);
+        g.add("Land Biome", landBiomeStream);
+        g.add("Sea Biome", seaBiomeStream);
+        g.add("Shore Biome", shoreBiomeStream);
+        regionBiomeStreams.forEach((type, streams) -> streams.forEach((region, stream) -> g.add(type.name() + " Biome in " + region, stream)));
+        g.add("Base Biome", baseBiomeStream);
+        g.add("Height", heightStream);
+        g.add("Height Context", heightContextStream);
+        g.add("Rounded Height", roundedHeighteightStream);
+        g.add("Slope", slopeStream);
+        g.add("Height Fluid", heightFluidStream);
+        g.add("Max Height", maxHeightStream);
+        g.add("Overlay", overlayStream);
+        g.add("True Biome", trueBiomeStream);
+        g.add("True Biome Derivative", trueBiomeDerivativeStream);
+        g.add("Surface Decoration", terrainSurfaceDecoration);
+        g.add("Ceiling Decoration", terrainCeilingDecoration);
+        g.add("Cave Surface Decoration", terrainCaveSurfaceDecoration);
+        g.add("Cave Ceiling Decoration", terrainCaveCeilingDecoration);
+        g.add("Shore Surface Decoration", shoreSurfaceDecoration);
+        g.add("Sea Surface Decoration", seaSurfaceDecoration);
+        g.add("Sea Floor Decoration", seaFloorDecoration);
+        g.add("Base Biome ID", baseBiomeIDStream);
+        g.add("Region Style", regionStyleStream);
+        g.add("Region ID", regionIDStream);
+        g.add("Rock", rockStream);
+        g.add("Fluid", fluidStream);
+        return g;
+    }
+
     public ProceduralStream<IrisBiome> getBiomeStream(InferredType type) {
         switch (type) {
             case CAVE:
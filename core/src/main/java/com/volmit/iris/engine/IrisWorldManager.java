@@ -58,6 +58,7 @@ import org.bukkit.inventory.ItemStack;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.UUID;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ExecutionException;
 import java.util.concurrent.Future;
@@ -77,6 +78,9 @@ public class IrisWorldManager extends EngineAssignedWorldManager {
     private final ChronoLatch cln;
     private final ChronoLatch chunkUpdater;
     private final ChronoLatch chunkDiscovery;
+    private final ChronoLatch platePrefetch;
+    private KMap<UUID, Location> lastPositions = new KMap<>();
+    private long lastPrefetch = 0;
     private double energy = 25;
     private int entityCount = 0;
     private long charge = 0;
@@ -94,6 +98,7 @@ public class IrisWorldManager extends EngineAssignedWorldManager {
         looper = null;
         chunkUpdater = null;
         chunkDiscovery = null;
+        platePrefetch = null;
         id = -1;
     }
 
@@ -101,6 +106,7 @@ public class IrisWorldManager extends EngineAssignedWorldManager {
         super(engine);
         chunkUpdater = new ChronoLatch(3000);
         chunkDiscovery = new ChronoLatch(5000);
+        platePrefetch = new ChronoLatch(1000);
         cln = new ChronoLatch(60000);
         cl = new ChronoLatch(3000);
         ecl = new ChronoLatch(250);
@@ -118,6 +124,10 @@ public class IrisWorldManager extends EngineAssignedWorldManager {
                     getEngine().getWorld().tryGetRealWorld();
                 }
 
+                if (getEngine().getWorld().hasRealWorld() && platePrefetch.flip()) {
+                    prefetchPlates();
+                }
+
                 if (!IrisSettings.get().getWorld().isMarkerEntitySpawningSystem() && !IrisSettings.get().getWorld().isAnbientEntitySpawningSystem()) {
                     return 3000;
                 }
@@ -181,6 +191,55 @@ public class IrisWorldManager extends EngineAssignedWorldManager {
         looper.start();
     }
 
+    /**
+     * Estimate where each player is heading from the distance moved since the last call
+     * and prefetch the tectonic plates along that path up to the view distance ahead
+     */
+    private void prefetchPlates() {
+        int seconds = IrisSettings.get().getPerformance().getMantlePrefetchSeconds();
+        if (seconds <= 0 || !getDimension().isUseMantle()) {
+            return;
+        }
+
+        long now = M.ms();
+        double elapsed = (now - lastPrefetch) / 1000D;
+        lastPrefetch = now;
+        World world = getEngine().getWorld().realWorld();
+        double ahead = world.getViewDistance() * 16D;
+        Mantle mantle = getMantle();
+        KMap<UUID, Location> positions = new KMap<>();
+
+        for (Player i : world.getPlayers()) {
+            Location l = i.getLocation();
+            Location last = lastPositions.get(i.getUniqueId());
+            positions.put(i.getUniqueId(), l);
+
+            if (last == null || elapsed <= 0 || elapsed > 10) {
+                continue;
+            }
+
+            double vx = (l.getX() - last.getX()) / elapsed;
+            double vz = (l.getZ() - last.getZ()) / elapsed;
+            double speed = Math.sqrt(vx * vx + vz * vz);
+
+            if (speed < 1) {
+                continue;
+            }
+
+            double distance = speed * seconds + ahead;
+            int steps = (int) Math.ceil(distance / 256D);
+
+            for (int j = 1; j <= steps; j++) {
+                double d = Math.min(j * 256D, distance);
+                int bx = (int) Math.floor(l.getX() + vx / speed * d);
+                int bz = (int) Math.floor(l.getZ() + vz / speed * d);
+                mantle.prefetch(bx >> 9, bz >> 9);
+            }
+        }
+
+        lastPositions = positions;
+    }
+
     private void discoverChunks() {
         var mantle = getEngine().getMantle().getMantle();
         for (Player i : getEngine().getWorld().realWorld().getPlayers()) {
@@ -588,7 +647,7 @@ public class IrisWorldManager extends EngineAssignedWorldManager {
     public Map<IrisPosition, KSet<IrisSpawner>> getSpawnersFromMarkers(Chunk c) {
         Map<IrisPosition, KSet<IrisSpawner>> p = new KMap<>();
         Set<IrisPosition> b = new KSet<>();
-        getMantle().iterateChunk(c.getX(), c.getZ(), MatterMarker.class, (x, y, z, t) -> {
+        getMantle().getChunk(c.getX(), c.getZ()).snapshot(MatterMarker.class).iterate(MatterMarker.class, (x, y, z, t) -> {
             if (t.getTag().equals("cave_floor") || t.getTag().equals("cave_ceiling")) {
                 return;
             }
@@ -18,28 +18,23 @@
 
 package com.volmit.iris.engine.actuator;
 
-import com.volmit.iris.core.nms.INMS;
+import com.volmit.iris.engine.data.cache.QuartBiomeCache;
 import com.volmit.iris.engine.framework.Engine;
 import com.volmit.iris.engine.framework.EngineAssignedActuator;
-import com.volmit.iris.engine.object.IrisBiome;
-import com.volmit.iris.engine.object.IrisBiomeCustom;
 import com.volmit.iris.util.context.ChunkContext;
 import com.volmit.iris.util.documentation.BlockCoordinates;
 import com.volmit.iris.util.hunk.Hunk;
-import com.volmit.iris.util.math.RNG;
 import com.volmit.iris.util.matter.MatterBiomeInject;
-import com.volmit.iris.util.matter.slices.BiomeInjectMatter;
+import com.volmit.iris.util.matter.MatterSlice;
 import com.volmit.iris.util.scheduling.ChronoLatch;
 import com.volmit.iris.util.scheduling.PrecisionStopwatch;
 import org.bukkit.block.Biome;
 
 public class IrisBiomeActuator extends EngineAssignedActuator<Biome> {
-    private final RNG rng;
     private final ChronoLatch cl = new ChronoLatch(5000);
 
     public IrisBiomeActuator(Engine engine) {
         super(engine, "Biome");
-        rng = new RNG(engine.getSeedManager().getBiome());
     }
 
     @BlockCoordinates
@@ -47,23 +42,16 @@ public class IrisBiomeActuator extends EngineAssignedActuator<Biome> {
     public void onActuate(int x, int z, Hunk<Biome> h, boolean multicore, ChunkContext context) {
         try {
             PrecisionStopwatch p = PrecisionStopwatch.start();
+            QuartBiomeCache.Grid grid = getComplex().getBiomeCache().get(x >> 4, z >> 4);
+            MatterSlice<MatterBiomeInject> slice = getEngine().getMantle().getMantle().getChunk(x >> 4, z >> 4)
+                    .getOrCreate(0).slice(MatterBiomeInject.class);
+
             for (int xf = 0; xf < h.getWidth(); xf++) {
-                IrisBiome ib;
                 for (int zf = 0; zf < h.getDepth(); zf++) {
-                    ib = context.getBiome().get(xf, zf);
-                    MatterBiomeInject matter;
-
-                    if (ib.isCustom()) {
-                        IrisBiomeCustom custom = ib.getCustomBiome(rng, x, 0, z);
-                        matter = BiomeInjectMatter.get(INMS.get().getBiomeBaseIdForKey(getDimension().getLoadKey() + ":" + custom.getId()));
-                    } else {
-                        Biome v = ib.getSkyBiome(rng, x, 0, z);
-                        matter = BiomeInjectMatter.get(v);
-                    }
-
-                    getEngine().getMantle().getMantle().set(x + xf, 0, z + zf, matter);
+                    slice.set(xf, 0, zf, grid.get(xf >> 2, 0, zf >> 2));
                 }
             }
+
             getEngine().getMetrics().getBiome().put(p.getMilliseconds());
         } catch (Throwable e) {
             e.printStackTrace();
@@ -24,8 +24,10 @@ import com.volmit.iris.engine.object.IrisBiome;
 import com.volmit.iris.engine.object.IrisRegion;
 import com.volmit.iris.util.collection.KList;
 import com.volmit.iris.util.context.ChunkContext;
+import com.volmit.iris.util.data.BlockStates;
 import com.volmit.iris.util.documentation.BlockCoordinates;
 import com.volmit.iris.util.hunk.Hunk;
+import com.volmit.iris.util.hunk.storage.BlockStateHunk;
 import com.volmit.iris.util.math.RNG;
 import com.volmit.iris.util.scheduling.PrecisionStopwatch;
 import lombok.Getter;
@@ -74,9 +76,10 @@ public class IrisTerrainNormalActuator extends EngineAssignedActuator<BlockData>
      */
     @BlockCoordinates
     public void terrainSliver(int x, int z, int xf, Hunk<BlockData> h, ChunkContext context) {
-        int zf, realX, realZ, hf, he;
+        int zf, realX, realZ, hf, he, rock;
         IrisBiome biome;
         IrisRegion region;
+        BlockStateHunk states = h instanceof BlockStateHunk s ? s : null;
 
         for (zf = 0; zf < h.getDepth(); zf++) {
             realX = xf + x;
@@ -93,6 +96,7 @@ public class IrisTerrainNormalActuator extends EngineAssignedActuator<BlockData>
             KList<BlockData> blocks = null;
             KList<BlockData> fblocks = null;
             int depth, fdepth;
+            rock = 0;
             for (int i = hf; i >= 0; i--) {
                 if (i >= h.getHeight()) {
                     continue;
@@ -144,6 +148,9 @@ public class IrisTerrainNormalActuator extends EngineAssignedActuator<BlockData>
 
                     if (ore != null) {
                         h.set(xf, i, zf, ore);
+                    } else if (states != null) {
+                        rock = rock == 0 ? BlockStates.id(context.getRock().get(xf, zf)) : rock;
+                        states.setState(xf, i, zf, rock);
                     } else {
                         h.set(xf, i, zf, context.getRock().get(xf, zf));
                     }
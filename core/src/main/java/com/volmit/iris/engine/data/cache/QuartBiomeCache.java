@@ -0,0 +1,155 @@
+/*
+ * Iris is a World Generator for Minecraft Bukkit Servers
+ * Copyright (c) 2022 Arcane Arts (Volmit Software)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package com.volmit.iris.engine.data.cache;
+
+import com.volmit.iris.Iris;
+import com.volmit.iris.core.nms.INMS;
+import com.volmit.iris.core.service.PreservationSVC;
+import com.volmit.iris.engine.framework.Engine;
+import com.volmit.iris.engine.framework.MeteredCache;
+import com.volmit.iris.engine.object.IrisBiome;
+import com.volmit.iris.util.collection.KMap;
+import com.volmit.iris.util.data.KCache;
+import com.volmit.iris.util.documentation.ChunkCoordinates;
+import com.volmit.iris.util.math.RNG;
+import com.volmit.iris.util.matter.MatterBiomeInject;
+import com.volmit.iris.util.matter.slices.BiomeInjectMatter;
+import com.volmit.iris.util.stream.ProceduralStream;
+import lombok.Getter;
+import org.bukkit.block.Biome;
+
+/**
+ * Caches the biomes of chunks at quart resolution (4x4x4 blocks), the resolution minecraft stores biomes at.
+ * Each chunk grid is resolved once from the true biome stream and shared by the biome actuator and the nms biome source.
+ */
+public class QuartBiomeCache implements MeteredCache {
+    private final Engine engine;
+    private final ProceduralStream<IrisBiome> biomeStream;
+    private final RNG rng;
+    private final int height;
+    private final KCache<Long, Grid> grids;
+    private final KMap<String, MatterBiomeInject> custom = new KMap<>();
+    private final KMap<Biome, MatterBiomeInject> vanilla = new KMap<>();
+
+    public QuartBiomeCache(Engine engine, ProceduralStream<IrisBiome> biomeStream, int size) {
+        this.engine = engine;
+        this.biomeStream = biomeStream;
+        this.rng = new RNG(engine.getSeedManager().getBiome());
+        this.height = Math.max(1, (engine.getHeight() + 3) >> 2);
+        this.grids = new KCache<>((k) -> compute(Cache.keyX(k), Cache.keyZ(k)), size);
+        Iris.service(PreservationSVC.class).registerCache(this);
+    }
+
+    /**
+     * Get the biome grid of a chunk
+     *
+     * @param x the chunk x
+     * @param z the chunk z
+     * @return the grid
+     */
+    @ChunkCoordinates
+    public Grid get(int x, int z) {
+        return grids.get(Cache.key(x, z));
+    }
+
+    /**
+     * Get the biome at a quart position
+     *
+     * @param x the quart x (block x >> 2)
+     * @param y the quart y above the bottom of the world
+     * @param z the quart z (block z >> 2)
+     * @return the biome
+     */
+    public MatterBiomeInject get(int x, int y, int z) {
+        return get(x >> 2, z >> 2).get(x & 3, y, z & 3);
+    }
+
+    private Grid compute(int cx, int cz) {
+        MatterBiomeInject[] biomes = new MatterBiomeInject[16 * height];
+
+        for (int x = 0; x < 4; x++) {
+            for (int z = 0; z < 4; z++) {
+                int bx = (cx << 4) + (x << 2);
+                int bz = (cz << 4) + (z << 2);
+                IrisBiome biome = biomeStream.get(bx, bz);
+
+                for (int y = 0; y < height; y++) {
+                    biomes[(y << 4) | (z << 2) | x] = resolve(biome, bx, y << 2, bz);
+                }
+            }
+        }
+
+        return new Grid(biomes, height);
+    }
+
+    private MatterBiomeInject resolve(IrisBiome biome, int x, int y, int z) {
+        if (biome.isCustom()) {
+            return custom.computeIfAbsent(biome.getCustomBiome(rng, x, y, z).getId(),
+                    (id) -> BiomeInjectMatter.get(INMS.get().getBiomeBaseIdForKey(engine.getDimension().getLoadKey() + ":" + id)));
+        }
+
+        return vanilla.computeIfAbsent(biome.getSkyBiome(rng, x, y, z), BiomeInjectMatter::get);
+    }
+
+    @Override
+    public long getSize() {
+        return grids.getSize();
+    }
+
+    @Override
+    public KCache<?, ?> getRawCache() {
+        return grids;
+    }
+
+    @Override
+    public long getMaxSize() {
+        return grids.getMaxSize();
+    }
+
+    @Override
+    public boolean isClosed() {
+        return engine.isClosed();
+    }
+
+    /**
+     * The quart biomes of a single chunk, indexed (y << 4) | (z << 2) | x
+     */
+    public static class Grid {
+        private final MatterBiomeInject[] biomes;
+        @Getter
+        private final int height;
+
+        private Grid(MatterBiomeInject[] biomes, int height) {
+            this.biomes = biomes;
+            this.height = height;
+        }
+
+        /**
+         * Get a biome of this grid. Heights outside of the world are clamped
+         *
+         * @param x the quart x (0-3)
+         * @param y the quart y above the bottom of the world
+         * @param z the quart z (0-3)
+         * @return the biome
+         */
+        public MatterBiomeInject get(int x, int y, int z) {
+            return biomes[(Math.max(0, Math.min(height - 1, y)) << 4) | (z << 2) | x];
+        }
+    }
+}
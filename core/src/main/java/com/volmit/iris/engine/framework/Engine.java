@@ -48,6 +48,7 @@ import com.volmit.iris.util.documentation.ChunkCoordinates;
 import com.volmit.iris.util.format.C;
 import com.volmit.iris.util.function.Function2;
 import com.volmit.iris.util.hunk.Hunk;
+import com.volmit.iris.util.mantle.MantleChunkSnapshot;
 import com.volmit.iris.util.mantle.MantleFlag;
 import com.volmit.iris.util.math.BlockPosition;
 import com.volmit.iris.util.math.M;
@@ -290,17 +291,18 @@ public interface Engine extends DataProvider, Fallible, LootProvider, BlockUpdat
         var chunk = mantle.getChunk(c);
         if (chunk.isFlagged(MantleFlag.ETCHED)) return;
         chunk.flag(MantleFlag.ETCHED, true);
+        MantleChunkSnapshot snapshot = chunk.snapshot(TileWrapper.class, Identifier.class, MatterCavern.class, MatterUpdate.class);
 
         Semaphore semaphore = new Semaphore(3);
         chunk.raiseFlag(MantleFlag.TILE, run(semaphore, () -> J.s(() -> {
-            mantle.iterateChunk(c.getX(), c.getZ(), TileWrapper.class, (x, y, z, v) -> {
+            snapshot.iterate(TileWrapper.class, (x, y, z, v) -> {
                 int betterY = y + getWorld().minHeight();
                 if (!TileData.setTileState(c.getBlock(x, betterY, z), v.getData()))
                     Iris.warn("Failed to set tile entity data at [%d %d %d | %s] for tile %s!", x, betterY, z, c.getBlock(x, betterY, z).getBlockData().getMaterial().getKey(), v.getData().getMaterial().name());
             });
         })));
         chunk.raiseFlag(MantleFlag.CUSTOM, run(semaphore, () -> J.s(() -> {
-            mantle.iterateChunk(c.getX(), c.getZ(), Identifier.class, (x, y, z, v) -> {
+            snapshot.iterate(Identifier.class, (x, y, z, v) -> {
                 Iris.service(ExternalDataSVC.class).processUpdate(this, c.getBlock(x & 15, y + getWorld().minHeight(), z & 15), v);
             });
         })));
@@ -309,7 +311,7 @@ public interface Engine extends DataProvider, Fallible, LootProvider, BlockUpdat
             PrecisionStopwatch p = PrecisionStopwatch.start();
             KMap<Long, Integer> updates = new KMap<>();
             RNG r = new RNG(Cache.key(c.getX(), c.getZ()));
-            mantle.iterateChunk(c.getX(), c.getZ(), MatterCavern.class, (x, yf, z, v) -> {
+            snapshot.iterate(MatterCavern.class, (x, yf, z, v) -> {
                 int y = yf + getWorld().minHeight();
                 if (!B.isFluid(c.getBlock(x & 15, y, z & 15).getBlockData())) {
                     return;
@@ -339,7 +341,7 @@ public interface Engine extends DataProvider, Fallible, LootProvider, BlockUpdat
             });
 
             updates.forEach((k, v) -> update(Cache.keyX(k), v, Cache.keyZ(k), c, r));
-            mantle.iterateChunk(c.getX(), c.getZ(), MatterUpdate.class, (x, yf, z, v) -> {
+            snapshot.iterate(MatterUpdate.class, (x, yf, z, v) -> {
                 int y = yf + getWorld().minHeight();
                 if (v != null && v.isUpdate()) {
                     int vx = x & 15;
@@ -571,7 +573,7 @@ public interface Engine extends DataProvider, Fallible, LootProvider, BlockUpdat
 
     @Deprecated
     default void clean() {
-        burst().lazy(() -> getMantle().trim(10));
+        burst().lazy(() -> getMantle().trim());
     }
 
     @BlockCoordinates
@@ -32,4 +32,22 @@ public interface MeteredCache {
     }
 
     boolean isClosed();
+
+    default long getHits() {
+        return 0;
+    }
+
+    default long getMisses() {
+        return 0;
+    }
+
+    default long getEvictions() {
+        return 0;
+    }
+
+    default double getHitRate() {
+        long h = getHits();
+        long t = h + getMisses();
+        return t == 0 ? 0 : (double) h / (double) t;
+    }
 }
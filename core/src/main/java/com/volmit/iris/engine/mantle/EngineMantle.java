@@ -149,10 +149,6 @@ public interface EngineMantle extends IObjectPlacer {
         return getEngine().getDimension().isDebugSmartBore();
     }
 
-    default void trim(long dur, int limit) {
-        getMantle().trim(dur, limit);
-    }
-
     default IrisData getData() {
         return getEngine().getData();
     }
@@ -181,11 +177,8 @@ public interface EngineMantle extends IObjectPlacer {
 
     }
 
-    default void trim(int limit) {
-        getMantle().trim(TimeUnit.SECONDS.toMillis(IrisSettings.get().getPerformance().getMantleKeepAlive()), limit);
-    }
-    default int unloadTectonicPlate(int tectonicLimit){
-        return getMantle().unloadTectonicPlate(tectonicLimit);
+    default int trim() {
+        return getMantle().unloadIdle(TimeUnit.SECONDS.toMillis(IrisSettings.get().getPerformance().getMantleKeepAlive()));
     }
 
     default MultiBurst burst() {
@@ -264,8 +257,9 @@ public interface EngineMantle extends IObjectPlacer {
     default int getLoadedRegionCount() {
         return getMantle().getLoadedRegionCount();
     }
-    default long getLastUseMapMemoryUsage(){
-        return getMantle().LastUseMapMemoryUsage();
+
+    default long getMemoryUsage() {
+        return getMantle().getMemoryUsage();
     }
 
     MantleJigsawComponent getJigsawComponent();
@@ -299,13 +293,7 @@ public interface EngineMantle extends IObjectPlacer {
         }
     }
 
-    default long getToUnload(){
-        return getMantle().getToUnload().size();
-    }
-    default long getNotQueuedLoadedRegions(){
-        return getMantle().getLoadedRegions().size() - getMantle().getToUnload().size();
-    }
-    default double getTectonicDuration(){
-        return getMantle().getAdjustedIdleDuration().get();
+    default int getUnloadingRegionCount() {
+        return getMantle().getUnloadingRegionCount();
     }
 }
\ No newline at end of file
@@ -35,6 +35,7 @@ import com.volmit.iris.util.mantle.Mantle;
 import com.volmit.iris.util.mantle.MantleChunk;
 import com.volmit.iris.util.math.RNG;
 import com.volmit.iris.util.matter.Matter;
+import com.volmit.iris.util.matter.MatterSlice;
 import lombok.Data;
 import org.bukkit.block.data.BlockData;
 import org.bukkit.util.Vector;
@@ -42,6 +43,7 @@ import org.bukkit.util.Vector;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Set;
+import java.util.function.Consumer;
 
 @Data
 public class MantleWriter implements IObjectPlacer, AutoCloseable {
@@ -124,7 +126,11 @@ public class MantleWriter implements IObjectPlacer, AutoCloseable {
     }
 
     public <T> void setDataWarped(int x, int y, int z, T t, RNG rng, IrisData data, IrisGeneratorStyle style) {
-        setData((int) Math.round(style.warp(rng, data, x, x, y, -z)),
+        setDataWarped(cursor(), x, y, z, t, rng, data, style);
+    }
+
+    private <T> void setDataWarped(Cursor cursor, int x, int y, int z, T t, RNG rng, IrisData data, IrisGeneratorStyle style) {
+        cursor.set((int) Math.round(style.warp(rng, data, x, x, y, -z)),
                 (int) Math.round(style.warp(rng, data, y, z, -x, y)),
                 (int) Math.round(style.warp(rng, data, z, -y, z, x)), t);
     }
@@ -134,27 +140,154 @@ public class MantleWriter implements IObjectPlacer, AutoCloseable {
             return;
         }
 
-        int cx = x >> 4;
-        int cz = z >> 4;
-
         if (y < 0 || y >= mantle.getWorldHeight()) {
             return;
         }
 
-        if (cx >= this.x - radius && cx <= this.x + radius
-                && cz >= this.z - radius && cz <= this.z + radius) {
-            MantleChunk chunk = cachedChunks.get(Cache.key(cx, cz));
-
-            if (chunk == null) {
-                Iris.error("Mantle Writer Accessed " + cx + "," + cz + " and came up null (and yet within bounds!)");
-                return;
-            }
+        MantleChunk chunk = getCachedChunk(x >> 4, z >> 4);
 
+        if (chunk != null) {
             Matter matter = chunk.getOrCreate(y >> 4);
             matter.slice(matter.getClass(t)).set(x & 15, y & 15, z & 15, t);
         }
     }
 
+    /**
+     * Create a cursor for a run of writes. The cursor remembers the last chunk, section
+     * and slice it wrote into so neighbouring voxels skip those lookups.
+     *
+     * @return a new cursor
+     */
+    public Cursor cursor() {
+        return new Cursor();
+    }
+
+    /**
+     * Write into a single section of a chunk held by this writer
+     *
+     * @param cx       the chunk x
+     * @param cz       the chunk z
+     * @param sectionY the section index (y >> 4)
+     * @param type     the slice type to write into
+     * @param writer   the writer receiving the slice (section relative coordinates)
+     * @param <T>      the type of data
+     */
+    public <T> void writeSection(int cx, int cz, int sectionY, Class<T> type, Consumer<MatterSlice<T>> writer) {
+        if (sectionY < 0 || sectionY >= mantle.getWorldHeight() >> 4) {
+            return;
+        }
+
+        MantleChunk chunk = getCachedChunk(cx, cz);
+
+        if (chunk == null) {
+            return;
+        }
+
+        MatterSlice<T> slice = chunk.getOrCreate(sectionY).slice(type);
+
+        if (slice != null) {
+            writer.accept(slice);
+        }
+    }
+
+    /**
+     * Fill a box (inclusive) clipped to the chunks held by this writer. Every section
+     * touched by the box is resolved once.
+     *
+     * @param x1   the min x
+     * @param y1   the min y
+     * @param z1   the min z
+     * @param x2   the max x
+     * @param y2   the max y
+     * @param z2   the max z
+     * @param data the data to set
+     * @param <T>  the type of data to apply to the mantle
+     */
+    public <T> void fillBox(int x1, int y1, int z1, int x2, int y2, int z2, T data) {
+        if (data == null) {
+            return;
+        }
+
+        x1 = Math.max(x1, (this.x - radius) << 4);
+        z1 = Math.max(z1, (this.z - radius) << 4);
+        x2 = Math.min(x2, ((this.x + radius) << 4) + 15);
+        z2 = Math.min(z2, ((this.z + radius) << 4) + 15);
+        y1 = Math.max(y1, 0);
+        y2 = Math.min(y2, mantle.getWorldHeight() - 1);
+
+        if (x1 > x2 || y1 > y2 || z1 > z2) {
+            return;
+        }
+
+        Class<?> type = null;
+        for (int cx = x1 >> 4; cx <= x2 >> 4; cx++) {
+            int minX = Math.max(x1, cx << 4) & 15;
+            int maxX = Math.min(x2, (cx << 4) + 15) & 15;
+
+            for (int cz = z1 >> 4; cz <= z2 >> 4; cz++) {
+                int minZ = Math.max(z1, cz << 4) & 15;
+                int maxZ = Math.min(z2, (cz << 4) + 15) & 15;
+                MantleChunk chunk = getCachedChunk(cx, cz);
+
+                if (chunk == null) {
+                    continue;
+                }
+
+                for (int s = y1 >> 4; s <= y2 >> 4; s++) {
+                    int minY = Math.max(y1, s << 4) & 15;
+                    int maxY = Math.min(y2, (s << 4) + 15) & 15;
+                    Matter matter = chunk.getOrCreate(s);
+
+                    if (type == null) {
+                        type = matter.getClass(data);
+                    }
+
+                    MatterSlice<T> slice = matter.slice(type);
+                    if (slice == null) {
+                        return;
+                    }
+
+                    for (int i = minX; i <= maxX; i++) {
+                        for (int j = minY; j <= maxY; j++) {
+                            for (int k = minZ; k <= maxZ; k++) {
+                                slice.set(i, j, k, data);
+                            }
+                        }
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Fill a block column (inclusive), resolving each section once
+     *
+     * @param x    the block x
+     * @param z    the block z
+     * @param y1   the min y
+     * @param y2   the max y
+     * @param data the data to set
+     * @param <T>  the type of data to apply to the mantle
+     */
+    public <T> void fillColumn(int x, int z, int y1, int y2, T data) {
+        fillBox(x, y1, z, x, y2, z, data);
+    }
+
+    private MantleChunk getCachedChunk(int cx, int cz) {
+        if (cx < this.x - radius || cx > this.x + radius
+                || cz < this.z - radius || cz > this.z + radius) {
+            return null;
+        }
+
+        MantleChunk chunk = cachedChunks.get(Cache.key(cx, cz));
+
+        if (chunk == null) {
+            Iris.error("Mantle Writer Accessed " + cx + "," + cz + " and came up null (and yet within bounds!)");
+        }
+
+        return chunk;
+    }
+
     @Override
     public int getHighest(int x, int z, IrisData data) {
         return engineMantle.getHighest(x, z, data);
@@ -264,6 +397,7 @@ public class MantleWriter implements IObjectPlacer, AutoCloseable {
         final int ceilRadiusX = (int) Math.ceil(rx);
         final int ceilRadiusY = (int) Math.ceil(ry);
         final int ceilRadiusZ = (int) Math.ceil(rz);
+        final Cursor cursor = cursor();
         double nextXn = 0;
 
         forX:
@@ -297,15 +431,15 @@ public class MantleWriter implements IObjectPlacer, AutoCloseable {
                         }
                     }
 
-                    setData(x + cx, y + cy, z + cz, data.apply(x + cx, y + cy, z + cz));
-                    setData(-x + cx, y + cy, z + cz, data.apply(-x + cx, y + cy, z + cz));
-                    setData(x + cx, -y + cy, z + cz, data.apply(x + cx, -y + cy, z + cz));
-                    setData(x + cx, y + cy, -z + cz, data.apply(x + cx, y + cy, -z + cz));
-                    setData(-x + cx, y + cy, -z + cz, data.apply(-x + cx, y + cy, -z + cz));
-                    setData(-x + cx, -y + cy, z + cz, data.apply(-x + cx, -y + cy, z + cz));
-                    setData(x + cx, -y + cy, -z + cz, data.apply(x + cx, -y + cy, -z + cz));
-                    setData(-x + cx, y + cy, -z + cz, data.apply(-x + cx, y + cy, -z + cz));
-                    setData(-x + cx, -y + cy, -z + cz, data.apply(-x + cx, -y + cy, -z + cz));
+                    cursor.set(x + cx, y + cy, z + cz, data.apply(x + cx, y + cy, z + cz));
+                    cursor.set(-x + cx, y + cy, z + cz, data.apply(-x + cx, y + cy, z + cz));
+                    cursor.set(x + cx, -y + cy, z + cz, data.apply(x + cx, -y + cy, z + cz));
+                    cursor.set(x + cx, y + cy, -z + cz, data.apply(x + cx, y + cy, -z + cz));
+                    cursor.set(-x + cx, y + cy, -z + cz, data.apply(-x + cx, y + cy, -z + cz));
+                    cursor.set(-x + cx, -y + cy, z + cz, data.apply(-x + cx, -y + cy, z + cz));
+                    cursor.set(x + cx, -y + cy, -z + cz, data.apply(x + cx, -y + cy, -z + cz));
+                    cursor.set(-x + cx, y + cy, -z + cz, data.apply(-x + cx, y + cy, -z + cz));
+                    cursor.set(-x + cx, -y + cy, -z + cz, data.apply(-x + cx, -y + cy, -z + cz));
                 }
             }
         }
@@ -321,6 +455,7 @@ public class MantleWriter implements IObjectPlacer, AutoCloseable {
         final int ceilRadiusX = (int) Math.ceil(rx);
         final int ceilRadiusY = (int) Math.ceil(ry);
         final int ceilRadiusZ = (int) Math.ceil(rz);
+        final Cursor cursor = cursor();
         double nextXn = 0;
 
         forX:
@@ -354,15 +489,15 @@ public class MantleWriter implements IObjectPlacer, AutoCloseable {
                         }
                     }
 
-                    setDataWarped(x + cx, y + cy, z + cz, data.apply(x + cx, y + cy, z + cz), rng, idata, style);
-                    setDataWarped(-x + cx, y + cy, z + cz, data.apply(-x + cx, y + cy, z + cz), rng, idata, style);
-                    setDataWarped(x + cx, -y + cy, z + cz, data.apply(x + cx, -y + cy, z + cz), rng, idata, style);
-                    setDataWarped(x + cx, y + cy, -z + cz, data.apply(x + cx, y + cy, -z + cz), rng, idata, style);
-                    setDataWarped(-x + cx, y + cy, -z + cz, data.apply(-x + cx, y + cy, -z + cz), rng, idata, style);
-                    setDataWarped(-x + cx, -y + cy, z + cz, data.apply(-x + cx, -y + cy, z + cz), rng, idata, style);
-                    setDataWarped(x + cx, -y + cy, -z + cz, data.apply(x + cx, -y + cy, -z + cz), rng, idata, style);
-                    setDataWarped(-x + cx, y + cy, -z + cz, data.apply(-x + cx, y + cy, -z + cz), rng, idata, style);
-                    setDataWarped(-x + cx, -y + cy, -z + cz, data.apply(-x + cx, -y + cy, -z + cz), rng, idata, style);
+                    setDataWarped(cursor, x + cx, y + cy, z + cz, data.apply(x + cx, y + cy, z + cz), rng, idata, style);
+                    setDataWarped(cursor, -x + cx, y + cy, z + cz, data.apply(-x + cx, y + cy, z + cz), rng, idata, style);
+                    setDataWarped(cursor, x + cx, -y + cy, z + cz, data.apply(x + cx, -y + cy, z + cz), rng, idata, style);
+                    setDataWarped(cursor, x + cx, y + cy, -z + cz, data.apply(x + cx, y + cy, -z + cz), rng, idata, style);
+                    setDataWarped(cursor, -x + cx, y + cy, -z + cz, data.apply(-x + cx, y + cy, -z + cz), rng, idata, style);
+                    setDataWarped(cursor, -x + cx, -y + cy, z + cz, data.apply(-x + cx, -y + cy, z + cz), rng, idata, style);
+                    setDataWarped(cursor, x + cx, -y + cy, -z + cz, data.apply(x + cx, -y + cy, -z + cz), rng, idata, style);
+                    setDataWarped(cursor, -x + cx, y + cy, -z + cz, data.apply(-x + cx, y + cy, -z + cz), rng, idata, style);
+                    setDataWarped(cursor, -x + cx, -y + cy, -z + cz, data.apply(-x + cx, -y + cy, -z + cz), rng, idata, style);
                 }
             }
         }
@@ -381,15 +516,7 @@ public class MantleWriter implements IObjectPlacer, AutoCloseable {
      * @param <T>  the type of data to apply to the mantle
      */
     public <T> void setCuboid(int x1, int y1, int z1, int x2, int y2, int z2, T data) {
-        int j, k;
-
-        for (int i = x1; i <= x2; i++) {
-            for (j = x1; j <= x2; j++) {
-                for (k = x1; k <= x2; k++) {
-                    setData(i, j, k, data);
-                }
-            }
-        }
+        fillBox(x1, y1, z1, x2, y2, z2, data);
     }
 
     /**
@@ -406,16 +533,17 @@ public class MantleWriter implements IObjectPlacer, AutoCloseable {
     @SuppressWarnings("ConstantConditions")
     public <T> void setPyramid(int cx, int cy, int cz, T data, int size, boolean filled) {
         int height = size;
+        Cursor cursor = cursor();
 
         for (int y = 0; y <= height; ++y) {
             size--;
             for (int x = 0; x <= size; ++x) {
                 for (int z = 0; z <= size; ++z) {
                     if ((filled && z <= size && x <= size) || z == size || x == size) {
-                        setData(x + cx, y + cy, z + cz, data);
-                        setData(-x + cx, y + cy, z + cz, data);
-                        setData(x + cx, y + cy, -z + cz, data);
-                        setData(-x + cx, y + cy, -z + cz, data);
+                        cursor.set(x + cx, y + cy, z + cz, data);
+                        cursor.set(-x + cx, y + cy, z + cz, data);
+                        cursor.set(x + cx, y + cy, -z + cz, data);
+                        cursor.set(-x + cx, y + cy, -z + cz, data);
                     }
                 }
             }
@@ -585,12 +713,10 @@ public class MantleWriter implements IObjectPlacer, AutoCloseable {
                     }
                 }
 
-                for (int y = 0; y < height; ++y) {
-                    setData(cx + x, cy + y, cz + z, data);
-                    setData(cx + -x, cy + y, cz + z, data);
-                    setData(cx + x, cy + y, cz + -z, data);
-                    setData(cx + -x, cy + y, cz + -z, data);
-                }
+                fillColumn(cx + x, cz + z, cy, cy + height - 1, data);
+                fillColumn(cx + -x, cz + z, cy, cy + height - 1, data);
+                fillColumn(cx + x, cz + -z, cy, cy + height - 1, data);
+                fillColumn(cx + -x, cz + -z, cy, cy + height - 1, data);
             }
         }
     }
@@ -604,20 +730,23 @@ public class MantleWriter implements IObjectPlacer, AutoCloseable {
     }
 
     public <T> void set(List<IrisPosition> positions, T data) {
+        Cursor cursor = cursor();
         for (IrisPosition i : positions) {
-            set(i, data);
+            cursor.set(i.getX(), i.getY(), i.getZ(), data);
         }
     }
 
     public <T> void set(Set<IrisPosition> positions, T data) {
+        Cursor cursor = cursor();
         for (IrisPosition i : positions) {
-            set(i, data);
+            cursor.set(i.getX(), i.getY(), i.getZ(), data);
         }
     }
 
     public <T> void setConsumer(Set<IrisPosition> positions, Function3<Integer, Integer, Integer, T> data) {
+        Cursor cursor = cursor();
         for (IrisPosition i : positions) {
-            set(i, data.apply(i.getX(), i.getY(), i.getZ()));
+            cursor.set(i.getX(), i.getY(), i.getZ(), data.apply(i.getX(), i.getY(), i.getZ()));
         }
     }
 
@@ -644,4 +773,59 @@ public class MantleWriter implements IObjectPlacer, AutoCloseable {
             return true;
         });
     }
+
+    /**
+     * A write cursor over this writer. Not thread safe, use one per shape / thread.
+     */
+    public final class Cursor {
+        private int cx;
+        private int cz;
+        private int section = -1;
+        private MantleChunk chunk;
+        private Matter matter;
+        private Class<?> raw;
+        private MatterSlice<Object> slice;
+
+        private Cursor() {
+
+        }
+
+        public <T> void set(int x, int y, int z, T t) {
+            if (t == null || y < 0 || y >= mantle.getWorldHeight()) {
+                return;
+            }
+
+            int cx = x >> 4;
+            int cz = z >> 4;
+
+            if (chunk == null || cx != this.cx || cz != this.cz) {
+                chunk = getCachedChunk(cx, cz);
+                matter = null;
+
+                if (chunk == null) {
+                    return;
+                }
+
+                this.cx = cx;
+                this.cz = cz;
+            }
+
+            if (matter == null || section != y >> 4) {
+                section = y >> 4;
+                matter = chunk.getOrCreate(section);
+                slice = null;
+            }
+
+            if (slice == null || raw != t.getClass()) {
+                raw = t.getClass();
+                slice = matter.slice(matter.getClass(t));
+
+                if (slice == null) {
+                    return;
+                }
+            }
+
+            slice.set(x & 15, y & 15, z & 15, t);
+        }
+    }
 }
@@ -27,10 +27,11 @@ import com.volmit.iris.util.collection.KList;
 import com.volmit.iris.util.collection.KMap;
 import com.volmit.iris.util.context.ChunkContext;
 import com.volmit.iris.util.data.B;
-import com.volmit.iris.util.function.Consumer4;
+import com.volmit.iris.util.data.BlockStates;
+import com.volmit.iris.util.function.IntConsumer4;
 import com.volmit.iris.util.hunk.Hunk;
 import com.volmit.iris.util.mantle.Mantle;
-import com.volmit.iris.util.mantle.MantleChunk;
+import com.volmit.iris.util.mantle.MantleChunkSnapshot;
 import com.volmit.iris.util.math.M;
 import com.volmit.iris.util.math.RNG;
 import com.volmit.iris.util.matter.MatterCavern;
@@ -57,10 +58,10 @@ public class IrisCarveModifier extends EngineAssignedModifier<BlockData> {
     public void onModify(int x, int z, Hunk<BlockData> output, boolean multicore, ChunkContext context) {
         PrecisionStopwatch p = PrecisionStopwatch.start();
         Mantle mantle = getEngine().getMantle().getMantle();
-        MantleChunk mc = getEngine().getMantle().getMantle().getChunk(x, z).use();
+        MantleChunkSnapshot mc = mantle.getChunk(x, z).snapshot(MatterCavern.class);
         KMap<Long, KList<Integer>> positions = new KMap<>();
         KMap<IrisPosition, MatterCavern> walls = new KMap<>();
-        Consumer4<Integer, Integer, Integer, MatterCavern> iterator = (xx, yy, zz, c) -> {
+        IntConsumer4<MatterCavern> iterator = (xx, yy, zz, c) -> {
             if (c == null) {
                 return;
             }
@@ -72,9 +73,9 @@ public class IrisCarveModifier extends EngineAssignedModifier<BlockData> {
             int rx = xx & 15;
             int rz = zz & 15;
 
-            BlockData current = output.get(rx, yy, rz);
+            int current = BlockStates.flags(output, rx, yy, rz);
 
-            if (B.isFluid(current)) {
+            if ((current & BlockStates.FLUID) != 0) {
                 return;
             }
 
@@ -82,23 +83,23 @@ public class IrisCarveModifier extends EngineAssignedModifier<BlockData> {
 
             //todo: Fix chunk decoration not working on chunk's border
 
-            if (rz < 15 && mantle.get(xx, yy, zz + 1, MatterCavern.class) == null) {
+            if (rz < 15 && mc.get(rx, yy, rz + 1, MatterCavern.class) == null) {
                 walls.put(new IrisPosition(rx, yy, rz + 1), c);
             }
 
-            if (rx < 15 && mantle.get(xx + 1, yy, zz, MatterCavern.class) == null) {
+            if (rx < 15 && mc.get(rx + 1, yy, rz, MatterCavern.class) == null) {
                 walls.put(new IrisPosition(rx + 1, yy, rz), c);
             }
 
-            if (rz > 0 && mantle.get(xx, yy, zz - 1, MatterCavern.class) == null) {
+            if (rz > 0 && mc.get(rx, yy, rz - 1, MatterCavern.class) == null) {
                 walls.put(new IrisPosition(rx, yy, rz - 1), c);
             }
 
-            if (rx > 0 && mantle.get(xx - 1, yy, zz, MatterCavern.class) == null) {
+            if (rx > 0 && mc.get(rx - 1, yy, rz, MatterCavern.class) == null) {
                 walls.put(new IrisPosition(rx - 1, yy, rz), c);
             }
 
-            if (current.getMaterial().isAir()) {
+            if ((current & BlockStates.AIR) != 0) {
                 return;
             }
 
@@ -126,7 +127,7 @@ public class IrisCarveModifier extends EngineAssignedModifier<BlockData> {
                 biome.setInferredType(InferredType.CAVE);
                 BlockData d = biome.getWall().get(rng, i.getX() + (x << 4), i.getY(), i.getZ() + (z << 4), getData());
 
-                if (d != null && B.isSolid(output.get(i.getX(), i.getY(), i.getZ())) && i.getY() <= context.getHeight().get(i.getX(), i.getZ())) {
+                if (d != null && BlockStates.is(output, i.getX(), i.getY(), i.getZ(), BlockStates.SOLID) && i.getY() <= context.getHeight().get(i.getX(), i.getZ())) {
                     output.set(i.getX(), i.getY(), i.getZ(), d);
                 }
             }
@@ -166,21 +167,20 @@ public class IrisCarveModifier extends EngineAssignedModifier<BlockData> {
         });
 
         getEngine().getMetrics().getDeposit().put(p.getMilliseconds());
-        mc.release();
     }
 
-    private void processZone(Hunk<BlockData> output, MantleChunk mc, Mantle mantle, CaveZone zone, int rx, int rz, int xx, int zz) {
-        boolean decFloor = B.isSolid(output.getClosest(rx, zone.floor - 1, rz));
-        boolean decCeiling = B.isSolid(output.getClosest(rx, zone.ceiling + 1, rz));
+    private void processZone(Hunk<BlockData> output, MantleChunkSnapshot mc, Mantle mantle, CaveZone zone, int rx, int rz, int xx, int zz) {
+        boolean decFloor = BlockStates.is(output.getClosest(rx, zone.floor - 1, rz), BlockStates.SOLID);
+        boolean decCeiling = BlockStates.is(output.getClosest(rx, zone.ceiling + 1, rz), BlockStates.SOLID);
         int center = (zone.floor + zone.ceiling) / 2;
         int thickness = zone.airThickness();
         String customBiome = "";
 
-        if (B.isDecorant(output.getClosest(rx, zone.ceiling + 1, rz))) {
+        if (BlockStates.is(output.getClosest(rx, zone.ceiling + 1, rz), BlockStates.DECORANT)) {
             output.set(rx, zone.ceiling + 1, rz, AIR);
         }
 
-        if (B.isDecorant(output.get(rx, zone.ceiling, rz))) {
+        if (BlockStates.is(output, rx, zone.ceiling, rz, BlockStates.DECORANT)) {
             output.set(rx, zone.ceiling, rz, AIR);
         }
 
@@ -193,8 +193,7 @@ public class IrisCarveModifier extends EngineAssignedModifier<BlockData> {
         }
 
         for (int i = zone.floor; i <= zone.ceiling; i++) {
-            MatterCavern cavernData = (MatterCavern) mc.getOrCreate(i >> 4).slice(MatterCavern.class)
-                    .get(rx, i & 15, rz);
+            MatterCavern cavernData = mc.get(rx, i, rz, MatterCavern.class);
 
             if (cavernData != null && !cavernData.getCustomBiome().isEmpty()) {
                 customBiome = cavernData.getCustomBiome();
@@ -219,11 +218,9 @@ public class IrisCarveModifier extends EngineAssignedModifier<BlockData> {
                 break;
             }
 
-            if (!B.isSolid(output.get(rx, zone.floor - i - 1, rz))) {
-                continue;
-            }
+            int below = BlockStates.flags(output, rx, zone.floor - i - 1, rz);
 
-            if (B.isOre(output.get(rx, zone.floor - i - 1, rz))) {
+            if ((below & BlockStates.SOLID) == 0 || (below & BlockStates.ORE) != 0) {
                 continue;
             }
 
@@ -239,14 +236,14 @@ public class IrisCarveModifier extends EngineAssignedModifier<BlockData> {
                 }
 
                 BlockData b = blocks.get(i);
-                BlockData up = output.get(rx, zone.ceiling + i + 1, rz);
+                int up = BlockStates.flags(output, rx, zone.ceiling + i + 1, rz);
 
-                if (!B.isSolid(up)) {
+                if ((up & BlockStates.SOLID) == 0) {
                     continue;
                 }
 
-                if (B.isOre(up)) {
-                    output.set(rx, zone.ceiling + i + 1, rz, B.toDeepSlateOre(up, b));
+                if ((up & BlockStates.ORE) != 0) {
+                    output.set(rx, zone.ceiling + i + 1, rz, B.toDeepSlateOre(output.get(rx, zone.ceiling + i + 1, rz), b));
                     continue;
                 }
 
@@ -255,9 +252,9 @@ public class IrisCarveModifier extends EngineAssignedModifier<BlockData> {
         }
 
         for (IrisDecorator i : biome.getDecorators()) {
-            if (i.getPartOf().equals(IrisDecorationPart.NONE) && B.isSolid(output.get(rx, zone.getFloor() - 1, rz))) {
+            if (i.getPartOf().equals(IrisDecorationPart.NONE) && BlockStates.is(output, rx, zone.getFloor() - 1, rz, BlockStates.SOLID)) {
                 decorant.getSurfaceDecorator().decorate(rx, rz, xx, xx, xx, zz, zz, zz, output, biome, zone.getFloor() - 1, zone.airThickness());
-            } else if (i.getPartOf().equals(IrisDecorationPart.CEILING) && B.isSolid(output.get(rx, zone.getCeiling() + 1, rz))) {
+            } else if (i.getPartOf().equals(IrisDecorationPart.CEILING) && BlockStates.is(output, rx, zone.getCeiling() + 1, rz, BlockStates.SOLID)) {
                 decorant.getCeilingDecorator().decorate(rx, rz, xx, xx, xx, zz, zz, zz, output, biome, zone.getCeiling(), zone.airThickness());
             }
         }
@@ -22,6 +22,7 @@ import com.volmit.iris.engine.framework.Engine;
 import com.volmit.iris.engine.framework.EngineAssignedModifier;
 import com.volmit.iris.util.context.ChunkContext;
 import com.volmit.iris.util.data.B;
+import com.volmit.iris.util.data.BlockStates;
 import com.volmit.iris.util.hunk.Hunk;
 import com.volmit.iris.util.parallel.BurstExecutor;
 import com.volmit.iris.util.scheduling.PrecisionStopwatch;
@@ -64,8 +65,7 @@ public class IrisPerfectionModifier extends EngineAssignedModifier<BlockData> {
                         surfaces.add(top);
 
                         for (int k = top; k >= 0; k--) {
-                            BlockData b = output.get(finalI, k, j);
-                            boolean now = b != null && !(B.isAir(b) || B.isFluid(b));
+                            boolean now = !BlockStates.is(output, finalI, k, j, BlockStates.AIR | BlockStates.FLUID);
 
                             if (now != inside) {
                                 inside = now;
@@ -79,39 +79,36 @@ public class IrisPerfectionModifier extends EngineAssignedModifier<BlockData> {
                         }
 
                         for (int k : surfaces) {
-                            BlockData tip = output.get(finalI, k, j);
-
-                            if (tip == null) {
+                            if (!BlockStates.is(output, finalI, k, j, BlockStates.DECORANT)) {
                                 continue;
                             }
 
+                            BlockData tip = output.get(finalI, k, j);
                             boolean remove = false;
                             boolean remove2 = false;
 
-                            if (B.isDecorant(tip)) {
-                                BlockData bel = output.get(finalI, k - 1, j);
+                            BlockData bel = output.get(finalI, k - 1, j);
 
-                                if (bel == null) {
-                                    remove = true;
-                                } else if (!B.canPlaceOnto(tip.getMaterial(), bel.getMaterial())) {
+                            if (bel == null) {
+                                remove = true;
+                            } else if (!B.canPlaceOnto(tip.getMaterial(), bel.getMaterial())) {
+                                remove = true;
+                            } else if (bel instanceof Bisected) {
+                                BlockData bb = output.get(finalI, k - 2, j);
+                                if (bb == null || !B.canPlaceOnto(bel.getMaterial(), bb.getMaterial())) {
                                     remove = true;
-                                } else if (bel instanceof Bisected) {
-                                    BlockData bb = output.get(finalI, k - 2, j);
-                                    if (bb == null || !B.canPlaceOnto(bel.getMaterial(), bb.getMaterial())) {
-                                        remove = true;
-                                        remove2 = true;
-                                    }
+                                    remove2 = true;
                                 }
+                            }
 
-                                if (remove) {
-                                    changed.set(true);
-                                    changes.getAndIncrement();
-                                    output.set(finalI, k, j, AIR);
+                            if (remove) {
+                                changed.set(true);
+                                changes.getAndIncrement();
+                                output.set(finalI, k, j, AIR);
 
-                                    if (remove2) {
-                                        changes.getAndIncrement();
-                                        output.set(finalI, k - 1, j, AIR);
-                                    }
+                                if (remove2) {
+                                    changes.getAndIncrement();
+                                    output.set(finalI, k - 1, j, AIR);
                                 }
                             }
                         }
@@ -125,9 +122,7 @@ public class IrisPerfectionModifier extends EngineAssignedModifier<BlockData> {
 
     private int getHeight(Hunk<BlockData> output, int x, int z) {
         for (int i = output.getHeight() - 1; i >= 0; i--) {
-            BlockData b = output.get(x, i, z);
-
-            if (b != null && !B.isAir(b) && !B.isFluid(b)) {
+            if (!BlockStates.is(output, x, i, z, BlockStates.AIR | BlockStates.FLUID)) {
                 return i;
             }
         }
@@ -23,15 +23,16 @@ import com.volmit.iris.engine.framework.EngineAssignedModifier;
 import com.volmit.iris.engine.object.IrisBiome;
 import com.volmit.iris.util.context.ChunkContext;
 import com.volmit.iris.util.data.B;
+import com.volmit.iris.util.data.BlockStates;
+import com.volmit.iris.util.documentation.BlockCoordinates;
 import com.volmit.iris.util.hunk.Hunk;
+import com.volmit.iris.util.hunk.storage.BlockStateHunk;
 import com.volmit.iris.util.math.RNG;
 import com.volmit.iris.util.scheduling.PrecisionStopwatch;
 import org.bukkit.Material;
 import org.bukkit.block.data.BlockData;
-import org.bukkit.block.data.Levelled;
 import org.bukkit.block.data.MultipleFacing;
 import org.bukkit.block.data.Waterlogged;
-import org.bukkit.block.data.type.Slab;
 
 import java.util.concurrent.atomic.AtomicInteger;
 
@@ -50,7 +51,7 @@ public class IrisPostModifier extends EngineAssignedModifier<BlockData> {
         PrecisionStopwatch p = PrecisionStopwatch.start();
         AtomicInteger i = new AtomicInteger();
         AtomicInteger j = new AtomicInteger();
-        Hunk<BlockData> sync = output.synchronize();
+        Hunk<BlockData> sync = output instanceof BlockStateHunk ? output : output.synchronize();
         for (i.set(0); i.get() < output.getWidth(); i.getAndIncrement()) {
             for (j.set(0); j.get() < output.getDepth(); j.getAndIncrement()) {
                 int ii = i.get();
@@ -62,12 +63,21 @@ public class IrisPostModifier extends EngineAssignedModifier<BlockData> {
         getEngine().getMetrics().getPost().put(p.getMilliseconds());
     }
 
+    @BlockCoordinates
+    private int trueHeight(ChunkContext context, int x, int z) {
+        if (context != null && context.contains(x, z)) {
+            return (int) Math.round(context.getHeight().get(x - context.getX(), z - context.getZ()));
+        }
+
+        return getEngine().getMantle().trueHeight(x, z);
+    }
+
     private void post(int currentPostX, int currentPostZ, Hunk<BlockData> currentData, int x, int z, ChunkContext context) {
-        int h = getEngine().getMantle().trueHeight(x, z);
-        int ha = getEngine().getMantle().trueHeight(x + 1, z);
-        int hb = getEngine().getMantle().trueHeight(x, z + 1);
-        int hc = getEngine().getMantle().trueHeight(x - 1, z);
-        int hd = getEngine().getMantle().trueHeight(x, z - 1);
+        int h = trueHeight(context, x, z);
+        int ha = trueHeight(context, x + 1, z);
+        int hb = trueHeight(context, x, z + 1);
+        int hc = trueHeight(context, x - 1, z);
+        int hd = trueHeight(context, x, z - 1);
 
         // Floating Nibs
         int g = 0;
@@ -100,13 +110,12 @@ public class IrisPostModifier extends EngineAssignedModifier<BlockData> {
         g += hd == h - 1 ? 1 : 0;
 
         if (g >= 4) {
-            BlockData bc = getPostBlock(x, h, z, currentPostX, currentPostZ, currentData);
-            BlockData b = getPostBlock(x, h + 1, z, currentPostX, currentPostZ, currentData);
-            Material m = bc.getMaterial();
+            int bc = getPostFlags(x, h, z, currentData);
+            int b = getPostFlags(x, h + 1, z, currentData);
 
-            if ((b.getMaterial().isOccluding() && b.getMaterial().isSolid())) {
-                if (m.isSolid()) {
-                    setPostBlock(x, h, z, b, currentPostX, currentPostZ, currentData);
+            if ((b & BlockStates.OCCLUDING) != 0 && (b & BlockStates.SOLID) != 0) {
+                if ((bc & BlockStates.SOLID) != 0) {
+                    setPostBlock(x, h, z, getPostBlock(x, h + 1, z, currentPostX, currentPostZ, currentData), currentPostX, currentPostZ, currentData);
                     h--;
                 }
             }
@@ -119,15 +128,11 @@ public class IrisPostModifier extends EngineAssignedModifier<BlockData> {
             g += hd == h + 1 ? 1 : 0;
 
             if (g >= 4) {
-                BlockData ba = getPostBlock(x, ha, z, currentPostX, currentPostZ, currentData);
-                BlockData bb = getPostBlock(x, hb, z, currentPostX, currentPostZ, currentData);
-                BlockData bc = getPostBlock(x, hc, z, currentPostX, currentPostZ, currentData);
-                BlockData bd = getPostBlock(x, hd, z, currentPostX, currentPostZ, currentData);
                 g = 0;
-                g = B.isSolid(ba) ? g + 1 : g;
-                g = B.isSolid(bb) ? g + 1 : g;
-                g = B.isSolid(bc) ? g + 1 : g;
-                g = B.isSolid(bd) ? g + 1 : g;
+                g = (getPostFlags(x, ha, z, currentData) & BlockStates.SOLID) != 0 ? g + 1 : g;
+                g = (getPostFlags(x, hb, z, currentData) & BlockStates.SOLID) != 0 ? g + 1 : g;
+                g = (getPostFlags(x, hc, z, currentData) & BlockStates.SOLID) != 0 ? g + 1 : g;
+                g = (getPostFlags(x, hd, z, currentData) & BlockStates.SOLID) != 0 ? g + 1 : g;
 
                 if (g >= 3) {
                     setPostBlock(x, h + 1, z, getPostBlock(x, h, z, currentPostX, currentPostZ, currentData), currentPostX, currentPostZ, currentData);
@@ -223,14 +228,15 @@ public class IrisPostModifier extends EngineAssignedModifier<BlockData> {
         // Foliage
         b = getPostBlock(x, h + 1, z, currentPostX, currentPostZ, currentData);
 
-        if (B.isVineBlock(b) && b instanceof MultipleFacing f) {
+        if (B.isVineBlock(b) && b instanceof MultipleFacing) {
             int finalH = h + 1;
+            MultipleFacing f = (MultipleFacing) b.clone();
 
             f.getAllowedFaces().forEach(face -> {
                 BlockData d = getPostBlock(x + face.getModX(), finalH + face.getModY(), z + face.getModZ(), currentPostX, currentPostZ, currentData);
                 f.setFace(face, !B.isAir(d) && !B.isVineBlock(d));
             });
-            setPostBlock(x, h + 1, z, b, currentPostX, currentPostZ, currentData);
+            setPostBlock(x, h + 1, z, f, currentPostX, currentPostZ, currentData);
         }
 
         if (B.isFoliage(b) || b.getMaterial().equals(Material.DEAD_BUSH)) {
@@ -243,8 +249,7 @@ public class IrisPostModifier extends EngineAssignedModifier<BlockData> {
     }
 
     public boolean isAir(int x, int y, int z, int currentPostX, int currentPostZ, Hunk<BlockData> currentData) {
-        BlockData d = getPostBlock(x, y, z, currentPostX, currentPostZ, currentData);
-        return d.getMaterial().equals(Material.AIR) || d.getMaterial().equals(Material.CAVE_AIR);
+        return (getPostFlags(x, y, z, currentData) & BlockStates.AIR) != 0;
     }
 
     public boolean hasGravity(int x, int y, int z, int currentPostX, int currentPostZ, Hunk<BlockData> currentData) {
@@ -253,43 +258,37 @@ public class IrisPostModifier extends EngineAssignedModifier<BlockData> {
     }
 
     public boolean isSolid(int x, int y, int z, int currentPostX, int currentPostZ, Hunk<BlockData> currentData) {
-        BlockData d = getPostBlock(x, y, z, currentPostX, currentPostZ, currentData);
-        return d.getMaterial().isSolid() && !B.isVineBlock(d);
+        int f = getPostFlags(x, y, z, currentData);
+        return (f & BlockStates.SOLID) != 0 && (f & BlockStates.VINE) == 0;
     }
 
     public boolean isSolidNonSlab(int x, int y, int z, int currentPostX, int currentPostZ, Hunk<BlockData> currentData) {
-        BlockData d = getPostBlock(x, y, z, currentPostX, currentPostZ, currentData);
-        return d.getMaterial().isSolid() && !(d instanceof Slab);
+        int f = getPostFlags(x, y, z, currentData);
+        return (f & BlockStates.SOLID) != 0 && (f & BlockStates.SLAB) == 0;
     }
 
     public boolean isAirOrWater(int x, int y, int z, int currentPostX, int currentPostZ, Hunk<BlockData> currentData) {
-        BlockData d = getPostBlock(x, y, z, currentPostX, currentPostZ, currentData);
-        return d.getMaterial().equals(Material.WATER) || d.getMaterial().equals(Material.AIR) || d.getMaterial().equals(Material.CAVE_AIR);
+        return (getPostFlags(x, y, z, currentData) & (BlockStates.AIR | BlockStates.WATER)) != 0;
     }
 
     public boolean isSlab(int x, int y, int z, int currentPostX, int currentPostZ, Hunk<BlockData> currentData) {
-        BlockData d = getPostBlock(x, y, z, currentPostX, currentPostZ, currentData);
-        return d instanceof Slab;
+        return (getPostFlags(x, y, z, currentData) & BlockStates.SLAB) != 0;
     }
 
     public boolean isSnowLayer(int x, int y, int z, int currentPostX, int currentPostZ, Hunk<BlockData> currentData) {
-        BlockData d = getPostBlock(x, y, z, currentPostX, currentPostZ, currentData);
-        return d.getMaterial().equals(Material.SNOW);
+        return (getPostFlags(x, y, z, currentData) & BlockStates.SNOW) != 0;
     }
 
     public boolean isWater(int x, int y, int z, int currentPostX, int currentPostZ, Hunk<BlockData> currentData) {
-        BlockData d = getPostBlock(x, y, z, currentPostX, currentPostZ, currentData);
-        return d.getMaterial().equals(Material.WATER);
+        return (getPostFlags(x, y, z, currentData) & BlockStates.WATER) != 0;
     }
 
     public boolean isWaterOrWaterlogged(int x, int y, int z, int currentPostX, int currentPostZ, Hunk<BlockData> currentData) {
-        BlockData d = getPostBlock(x, y, z, currentPostX, currentPostZ, currentData);
-        return d.getMaterial().equals(Material.WATER) || (d instanceof Waterlogged && ((Waterlogged) d).isWaterlogged());
+        return (getPostFlags(x, y, z, currentData) & (BlockStates.WATER | BlockStates.WATERLOGGED)) != 0;
     }
 
     public boolean isLiquid(int x, int y, int z, int currentPostX, int currentPostZ, Hunk<BlockData> currentData) {
-        BlockData d = getPostBlock(x, y, z, currentPostX, currentPostZ, currentData);
-        return d instanceof Levelled;
+        return (getPostFlags(x, y, z, currentData) & BlockStates.LEVELLED) != 0;
     }
 
     public void setPostBlock(int x, int y, int z, BlockData d, int currentPostX, int currentPostZ, Hunk<BlockData> currentData) {
@@ -298,6 +297,10 @@ public class IrisPostModifier extends EngineAssignedModifier<BlockData> {
         }
     }
 
+    private int getPostFlags(int x, int y, int z, Hunk<BlockData> h) {
+        return BlockStates.flags(h, x & 15, y >= h.getHeight() ? h.getHeight() - 1 : y < 0 ? 0 : y, z & 15);
+    }
+
     public BlockData getPostBlock(int x, int y, int z, int cpx, int cpz, Hunk<BlockData> h) {
         BlockData b = h.getClosest(x & 15, y, z & 15);
 
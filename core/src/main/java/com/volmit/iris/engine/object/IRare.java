@@ -26,8 +26,8 @@ import java.util.List;
 
 public interface IRare {
     static <T extends IRare> ProceduralStream<T> stream(ProceduralStream<Double> noise, List<T> possibilities) {
-        return ProceduralStream.of((x, z) -> pick(possibilities, noise.get(x, z)),
-                (x, y, z) -> pick(possibilities, noise.get(x, y, z)),
+        return ProceduralStream.of((x, z) -> pick(possibilities, noise.getDouble(x, z)),
+                (x, y, z) -> pick(possibilities, noise.getDouble(x, y, z)),
                 new Interpolated<T>() {
                     @Override
                     public double toDouble(T t) {
@@ -32,8 +32,7 @@ import com.volmit.iris.util.collection.KList;
 import com.volmit.iris.util.json.JSONObject;
 import com.volmit.iris.util.math.RNG;
 import com.volmit.iris.util.plugin.VolmitSender;
-import com.volmit.iris.util.stream.ProceduralStream;
-import com.volmit.iris.util.stream.interpolation.Interpolated;
+import com.volmit.iris.util.stream.DoubleStream;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.EqualsAndHashCode;
@@ -60,7 +59,7 @@ public class IrisExpression extends IrisRegistrant {
     private String expression;
 
     private transient AtomicCache<Expression> expressionCache = new AtomicCache<>();
-    private transient AtomicCache<ProceduralStream<Double>> streamCache = new AtomicCache<>();
+    private transient AtomicCache<DoubleStream> streamCache = new AtomicCache<>();
 
     private Expression expression() {
         return expressionCache.aquire(() -> {
@@ -97,9 +96,9 @@ public class IrisExpression extends IrisRegistrant {
         });
     }
 
-    public ProceduralStream<Double> stream(RNG rng) {
-        return streamCache.aquire(() -> ProceduralStream.of((x, z) -> evaluate(rng, x, z),
-                (x, y, z) -> evaluate(rng, x, y, z), Interpolated.DOUBLE));
+    public DoubleStream stream(RNG rng) {
+        return streamCache.aquire(() -> DoubleStream.of((x, z) -> evaluate(rng, x, z),
+                (x, y, z) -> evaluate(rng, x, y, z)));
     }
 
     public double evaluate(RNG rng, double x, double z) {
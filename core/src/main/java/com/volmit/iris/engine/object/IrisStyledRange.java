@@ -23,8 +23,7 @@ import com.volmit.iris.engine.object.annotations.Desc;
 import com.volmit.iris.engine.object.annotations.Snippet;
 import com.volmit.iris.util.math.M;
 import com.volmit.iris.util.math.RNG;
-import com.volmit.iris.util.stream.ProceduralStream;
-import com.volmit.iris.util.stream.interpolation.Interpolated;
+import com.volmit.iris.util.stream.DoubleStream;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
@@ -58,8 +57,8 @@ public class IrisStyledRange {
         return style.create(rng, data).fitDouble(min, max, x, z);
     }
 
-    public ProceduralStream<Double> stream(RNG rng, IrisData data) {
-        return ProceduralStream.of((x, z) -> get(rng, x, z, data), Interpolated.DOUBLE);
+    public DoubleStream stream(RNG rng, IrisData data) {
+        return DoubleStream.of((x, z) -> get(rng, x, z, data));
     }
 
     public boolean isFlat() {
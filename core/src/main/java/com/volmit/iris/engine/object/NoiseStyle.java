@@ -23,7 +23,7 @@ import com.volmit.iris.util.math.RNG;
 import com.volmit.iris.util.noise.CNG;
 import com.volmit.iris.util.noise.CNGFactory;
 import com.volmit.iris.util.noise.NoiseType;
-import com.volmit.iris.util.stream.ProceduralStream;
+import com.volmit.iris.util.stream.DoubleStream;
 
 @Desc("Styles of noise")
 public enum NoiseStyle {
@@ -454,11 +454,11 @@ public enum NoiseStyle {
         this.f = f;
     }
 
-    public ProceduralStream<Double> stream(RNG seed) {
+    public DoubleStream stream(RNG seed) {
         return create(seed).stream();
     }
 
-    public ProceduralStream<Double> stream(long seed) {
+    public DoubleStream stream(long seed) {
         return create(new RNG(seed)).stream();
     }
 
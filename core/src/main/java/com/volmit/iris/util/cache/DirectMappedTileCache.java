@@ -0,0 +1,148 @@
+/*
+ * Iris is a World Generator for Minecraft Bukkit Servers
+ * Copyright (c) 2022 Arcane Arts (Volmit Software)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package com.volmit.iris.util.cache;
+
+import com.volmit.iris.engine.data.cache.Cache;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * A direct mapped table of 16 x 16 chunk tiles. Each chunk maps to exactly one slot by the low bits of its x and z,
+ * so the table tiles the world like a torus: any window of chunks up to the table's width and depth never collides,
+ * and a newer chunk simply replaces whatever occupied its slot. Slots are guarded by a seqlock: writers bump the slot version to odd while they swap
+ * the key and tile, readers sample the version before and after reading and retry as a miss if it moved. Readers never
+ * block and never allocate.
+ */
+public abstract class DirectMappedTileCache {
+    private static final VarHandle VERSIONS = MethodHandles.arrayElementVarHandle(long[].class);
+    private static final long EMPTY = Long.MIN_VALUE;
+    private final int zBits;
+    private final int xMask;
+    private final int zMask;
+    private final long[] versions;
+    private final long[] keys;
+    private final LongAdder hits;
+    private final LongAdder misses;
+    private final LongAdder evictions;
+    private final AtomicInteger occupied;
+
+    /**
+     * @param size the configured cache size. The table holds a quarter of it in tiles (rounded up to a power of two),
+     *             which is 1024 chunks at the default size.
+     */
+    protected DirectMappedTileCache(int size) {
+        int slots = Math.max(64, Integer.highestOneBit(Math.max(1, (size >> 2) - 1)) << 1);
+        int bits = Integer.numberOfTrailingZeros(slots);
+        this.zBits = bits >> 1;
+        this.xMask = (1 << (bits - zBits)) - 1;
+        this.zMask = (1 << zBits) - 1;
+        this.versions = new long[slots];
+        this.keys = new long[slots];
+        this.hits = new LongAdder();
+        this.misses = new LongAdder();
+        this.evictions = new LongAdder();
+        this.occupied = new AtomicInteger();
+        Arrays.fill(keys, EMPTY);
+    }
+
+    protected static long key(int x, int z) {
+        return Cache.key(x >> 4, z >> 4);
+    }
+
+    protected static int index(int x, int z) {
+        return ((z & 15) << 4) | (x & 15);
+    }
+
+    protected int slot(long key) {
+        return ((((int) (key >> 32)) & xMask) << zBits) | (((int) key) & zMask);
+    }
+
+    protected long readBegin(int slot) {
+        return (long) VERSIONS.getAcquire(versions, slot);
+    }
+
+    protected boolean holds(int slot, long version, long key) {
+        return (version & 1) == 0 && keys[slot] == key;
+    }
+
+    /**
+     * @return true if nothing was written to the slot since {@link #readBegin(int)} returned the given version
+     */
+    protected boolean readValidate(int slot, long version) {
+        VarHandle.acquireFence();
+        return (long) VERSIONS.getAcquire(versions, slot) == version;
+    }
+
+    /**
+     * @return the version to pass to {@link #unlock(int, long, long)}, or -1 if another writer holds the slot
+     */
+    protected long tryLock(int slot) {
+        long v = (long) VERSIONS.getVolatile(versions, slot);
+
+        if ((v & 1) != 0 || !VERSIONS.compareAndSet(versions, slot, v, v + 1)) {
+            return -1;
+        }
+
+        return v;
+    }
+
+    protected void unlock(int slot, long version, long key) {
+        long previous = keys[slot];
+        keys[slot] = key;
+        VERSIONS.setRelease(versions, slot, version + 2);
+
+        if (previous == EMPTY) {
+            occupied.incrementAndGet();
+        } else if (previous != key) {
+            evictions.increment();
+        }
+    }
+
+    protected void hit() {
+        hits.increment();
+    }
+
+    protected void miss() {
+        misses.increment();
+    }
+
+    public long getHits() {
+        return hits.sum();
+    }
+
+    public long getMisses() {
+        return misses.sum();
+    }
+
+    public long getEvictions() {
+        return evictions.sum();
+    }
+
+    public long getSize() {
+        return occupied.get() * 256L;
+    }
+
+    public long getMaxSize() {
+        return versions.length * 256L;
+    }
+}
@@ -0,0 +1,83 @@
+/*
+ * Iris is a World Generator for Minecraft Bukkit Servers
+ * Copyright (c) 2022 Arcane Arts (Volmit Software)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package com.volmit.iris.util.cache;
+
+/**
+ * A {@link DirectMappedTileCache} of primitive double tiles. A miss resolves the whole chunk tile at once.
+ */
+public class DoubleTileCache2D extends DirectMappedTileCache {
+    private final double[][] tiles;
+    private final Resolver resolver;
+
+    public DoubleTileCache2D(int size, Resolver resolver) {
+        super(size);
+        this.tiles = new double[(int) (getMaxSize() >> 8)][];
+        this.resolver = resolver;
+    }
+
+    public double get(int x, int z) {
+        long key = key(x, z);
+        int slot = slot(key);
+        int index = index(x, z);
+        long version = readBegin(slot);
+
+        if (holds(slot, version, key)) {
+            double[] tile = tiles[slot];
+
+            if (tile != null) {
+                double d = tile[index];
+
+                if (readValidate(slot, version)) {
+                    hit();
+                    return d;
+                }
+            }
+        }
+
+        miss();
+        double[] tile = new double[256];
+        resolver.resolve(tile, x & ~15, z & ~15);
+        version = tryLock(slot);
+
+        if (version != -1) {
+            tiles[slot] = tile;
+            unlock(slot, version, key);
+        }
+
+        return tile[index];
+    }
+
+    public void fill(double[] out, double[] xs, double[] zs) {
+        int w = xs.length;
+
+        for (int j = 0; j < zs.length; j++) {
+            for (int i = 0; i < w; i++) {
+                out[(j * w) + i] = get((int) xs[i], (int) zs[j]);
+            }
+        }
+    }
+
+    @FunctionalInterface
+    public interface Resolver {
+        /**
+         * Fills the 16 x 16 tile whose minimum corner is at (x, z), row major on z.
+         */
+        void resolve(double[] tile, int x, int z);
+    }
+}
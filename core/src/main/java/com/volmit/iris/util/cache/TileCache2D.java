@@ -0,0 +1,84 @@
+/*
+ * Iris is a World Generator for Minecraft Bukkit Servers
+ * Copyright (c) 2022 Arcane Arts (Volmit Software)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package com.volmit.iris.util.cache;
+
+/**
+ * A {@link DirectMappedTileCache} of object tiles. A miss resolves the whole chunk tile at once.
+ */
+public class TileCache2D<T> extends DirectMappedTileCache {
+    private final Object[][] tiles;
+    private final Resolver<T> resolver;
+
+    public TileCache2D(int size, Resolver<T> resolver) {
+        super(size);
+        this.tiles = new Object[(int) (getMaxSize() >> 8)][];
+        this.resolver = resolver;
+    }
+
+    @SuppressWarnings("unchecked")
+    public T get(int x, int z) {
+        long key = key(x, z);
+        int slot = slot(key);
+        int index = index(x, z);
+        long version = readBegin(slot);
+
+        if (holds(slot, version, key)) {
+            Object[] tile = tiles[slot];
+
+            if (tile != null) {
+                Object t = tile[index];
+
+                if (readValidate(slot, version)) {
+                    hit();
+                    return (T) t;
+                }
+            }
+        }
+
+        miss();
+        Object[] tile = new Object[256];
+        resolver.resolve((T[]) tile, x & ~15, z & ~15);
+        version = tryLock(slot);
+
+        if (version != -1) {
+            tiles[slot] = tile;
+            unlock(slot, version, key);
+        }
+
+        return (T) tile[index];
+    }
+
+    public void fill(T[] out, double[] xs, double[] zs) {
+        int w = xs.length;
+
+        for (int j = 0; j < zs.length; j++) {
+            for (int i = 0; i < w; i++) {
+                out[(j * w) + i] = get((int) xs[i], (int) zs[j]);
+            }
+        }
+    }
+
+    @FunctionalInterface
+    public interface Resolver<T> {
+        /**
+         * Fills the 16 x 16 tile whose minimum corner is at (x, z), row major on z.
+         */
+        void resolve(T[] tile, int x, int z);
+    }
+}
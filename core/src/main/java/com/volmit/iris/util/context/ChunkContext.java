@@ -1,5 +1,6 @@
 package com.volmit.iris.util.context;
 
+import com.volmit.iris.core.IrisSettings;
 import com.volmit.iris.engine.IrisComplex;
 import com.volmit.iris.engine.object.IrisBiome;
 import com.volmit.iris.engine.object.IrisRegion;
@@ -13,6 +14,7 @@ import org.bukkit.block.data.BlockData;
 public class ChunkContext {
     private final int x;
     private final int z;
+    private final int border;
     private ChunkedDataCache<Double> height;
     private ChunkedDataCache<IrisBiome> biome;
     private ChunkedDataCache<IrisBiome> cave;
@@ -27,17 +29,26 @@ public class ChunkContext {
 
     @BlockCoordinates
     public ChunkContext(int x, int z, IrisComplex c, boolean cache) {
+        this(x, z, c, cache, IrisSettings.get().getPerformance().getChunkContextBorder());
+    }
+
+    /**
+     * @param border how many columns past each chunk edge to precompute, so neighbour sampling stays in the context
+     */
+    @BlockCoordinates
+    public ChunkContext(int x, int z, IrisComplex c, boolean cache, int border) {
         this.x = x;
         this.z = z;
+        this.border = cache ? Math.max(0, Math.min(16, border)) : 0;
 
         if (cache) {
             BurstExecutor b = MultiBurst.burst.burst();
-            height = new ChunkedDataCache<>(b, c.getHeightStream(), x, z);
-            biome = new ChunkedDataCache<>(b, c.getTrueBiomeStream(), x, z);
-            cave = new ChunkedDataCache<>(b, c.getCaveBiomeStream(), x, z);
-            rock = new ChunkedDataCache<>(b, c.getRockStream(), x, z);
-            fluid = new ChunkedDataCache<>(b, c.getFluidStream(), x, z);
-            region = new ChunkedDataCache<>(b, c.getRegionStream(), x, z);
+            height = new ChunkedDataCache<>(b, c.getHeightStream(), x, z, true, this.border);
+            biome = new ChunkedDataCache<>(b, c.getTrueBiomeStream(), x, z, true, this.border);
+            cave = new ChunkedDataCache<>(b, c.getCaveBiomeStream(), x, z, true, this.border);
+            rock = new ChunkedDataCache<>(b, c.getRockStream(), x, z, true, this.border);
+            fluid = new ChunkedDataCache<>(b, c.getFluidStream(), x, z, true, this.border);
+            region = new ChunkedDataCache<>(b, c.getRegionStream(), x, z, true, this.border);
             b.complete();
         } else {
             height = new ChunkedDataCache<>(null, c.getHeightStream(), x, z, false);
@@ -48,4 +59,12 @@ public class ChunkContext {
             region = new ChunkedDataCache<>(null, c.getRegionStream(), x, z, false);
         }
     }
+
+    /**
+     * @return true if the block column is precomputed in this context, including its halo
+     */
+    @BlockCoordinates
+    public boolean contains(int x, int z) {
+        return height != null && height.contains(x - this.x, z - this.z);
+    }
 }
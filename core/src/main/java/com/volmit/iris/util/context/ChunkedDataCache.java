@@ -6,10 +6,17 @@ import com.volmit.iris.util.parallel.BurstExecutor;
 import com.volmit.iris.util.stream.ProceduralStream;
 import lombok.Data;
 
+/**
+ * A chunk's worth of samples from a stream, optionally padded with a halo of border columns on every side so
+ * neighbour lookups just past the chunk edge are array reads too. Coordinates are chunk relative, so the halo spans
+ * -border to 15 + border.
+ */
 @Data
 public class ChunkedDataCache<T> {
     private final int x;
     private final int z;
+    private final int border;
+    private final int size;
     private final KSet<T> uniques;
     private final Object[] data;
     private final boolean cache;
@@ -22,39 +29,54 @@ public class ChunkedDataCache<T> {
 
     @BlockCoordinates
     public ChunkedDataCache(BurstExecutor burst, ProceduralStream<T> stream, int x, int z, boolean cache) {
+        this(burst, stream, x, z, cache, 0);
+    }
+
+    @SuppressWarnings("unchecked")
+    @BlockCoordinates
+    public ChunkedDataCache(BurstExecutor burst, ProceduralStream<T> stream, int x, int z, boolean cache, int border) {
         this.stream = stream;
         this.cache = cache;
         this.x = x;
         this.z = z;
+        this.border = cache ? border : 0;
+        this.size = 16 + (this.border * 2);
         this.uniques = cache ? new KSet<>() : null;
         if (cache) {
-            data = new Object[256];
-            int i, j;
-
-            for (i = 0; i < 16; i++) {
-                int finalI = i;
-                for (j = 0; j < 16; j++) {
-                    int finalJ = j;
-                    burst.queue(() -> {
-                        T t = stream.get(x + finalI, z + finalJ);
-                        data[(finalJ * 16) + finalI] = t;
-                        uniques.add(t);
-                    });
+            data = new Object[size * size];
+            burst.queue(() -> {
+                stream.fill((T[]) data, x - this.border, z - this.border, size, size, 1);
+
+                for (int i = 0; i < 16; i++) {
+                    for (int j = 0; j < 16; j++) {
+                        uniques.add((T) data[index(i, j)]);
+                    }
                 }
-            }
+            });
         } else {
             data = new Object[0];
         }
     }
 
+    private int index(int x, int z) {
+        return ((z + border) * size) + x + border;
+    }
+
+    /**
+     * @return true if the chunk relative column is precomputed, including the halo
+     */
+    public boolean contains(int x, int z) {
+        return cache && x >= -border && z >= -border && x < 16 + border && z < 16 + border;
+    }
+
     @SuppressWarnings("unchecked")
     @BlockCoordinates
     public T get(int x, int z) {
-        if (!cache) {
+        if (!contains(x, z)) {
             return stream.get(this.x + x, this.z + z);
         }
 
-        T t = (T) data[(z * 16) + x];
+        T t = (T) data[index(x, z)];
         return t == null ? stream.get(this.x + x, this.z + z) : t;
     }
 }
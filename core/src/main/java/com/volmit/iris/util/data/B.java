@@ -48,6 +48,7 @@ public class B {
     private static final Material AIR_MATERIAL = Material.AIR;
     private static final Material SHORT_GRASS = Materials.GRASS;
     private static final BlockData AIR = AIR_MATERIAL.createBlockData();
+    private static final Material[] MATERIALS = Material.values();
     private static final IntSet foliageCache = buildFoliageCache();
     private static final IntSet deepslateCache = buildDeepslateCache();
     private static final Int2IntMap normal2DeepslateCache = buildNormal2DeepslateCache();
@@ -282,11 +283,11 @@ public class B {
 
         if (isDeepSlate(block)) {
             if (normal2DeepslateCache.containsKey(key)) {
-                return Material.values()[normal2DeepslateCache.get(key)].createBlockData();
+                return MATERIALS[normal2DeepslateCache.get(key)].createBlockData();
             }
         } else {
             if (deepslate2NormalCache.containsKey(key)) {
-                return Material.values()[deepslate2NormalCache.get(key)].createBlockData();
+                return MATERIALS[deepslate2NormalCache.get(key)].createBlockData();
             }
         }
 
@@ -0,0 +1,196 @@
+/*
+ * Iris is a World Generator for Minecraft Bukkit Servers
+ * Copyright (c) 2022 Arcane Arts (Volmit Software)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package com.volmit.iris.util.data;
+
+import com.volmit.iris.util.collection.KMap;
+import com.volmit.iris.util.hunk.Hunk;
+import com.volmit.iris.util.hunk.storage.BlockStateHunk;
+import org.bukkit.Material;
+import org.bukkit.block.data.BlockData;
+import org.bukkit.block.data.Levelled;
+import org.bukkit.block.data.type.Slab;
+
+import java.util.Arrays;
+
+/**
+ * Global registry of the block states seen by the generator. Every state gets a dense int id
+ * and a precomputed set of property flags, so generation can compare and classify blocks
+ * without going through {@link BlockData#getMaterial()} for every voxel.
+ * <p>
+ * Id 0 is reserved for "no block" and carries the {@link #AIR} flag.
+ */
+public class BlockStates {
+    public static final int AIR = 1;
+    public static final int SOLID = 1 << 1;
+    public static final int FLUID = 1 << 2;
+    public static final int WATER = 1 << 3;
+    public static final int FOLIAGE = 1 << 4;
+    public static final int DECORANT = 1 << 5;
+    public static final int UPDATABLE = 1 << 6;
+    public static final int STORAGE = 1 << 7;
+    public static final int ORE = 1 << 8;
+    public static final int CUSTOM = 1 << 9;
+    public static final int VINE = 1 << 10;
+    public static final int SLAB = 1 << 11;
+    public static final int SNOW = 1 << 12;
+    public static final int LEVELLED = 1 << 13;
+    public static final int WATERLOGGED = 1 << 14;
+    public static final int OCCLUDING = 1 << 15;
+
+    private static final KMap<BlockData, Integer> ids = new KMap<>();
+    private static volatile State[] states = new State[256];
+    private static int size = 1;
+
+    static {
+        states[0] = new State(null, AIR);
+    }
+
+    /**
+     * Get the id of a block state, registering it if it wasn't seen before
+     *
+     * @param data the block state
+     * @return the id or 0 for null
+     */
+    public static int id(BlockData data) {
+        if (data == null) {
+            return 0;
+        }
+
+        Integer id = ids.get(data);
+        return id != null ? id : register(data);
+    }
+
+    /**
+     * Get the block state with the given id
+     *
+     * @param id the id
+     * @return the block state or null for id 0
+     */
+    public static BlockData get(int id) {
+        return state(id).data();
+    }
+
+    /**
+     * Get the property flags of the block state with the given id
+     *
+     * @param id the id
+     * @return the flags
+     */
+    public static int flags(int id) {
+        return state(id).flags();
+    }
+
+    public static int flags(BlockData data) {
+        return flags(id(data));
+    }
+
+    /**
+     * Get the property flags of a block in a hunk, without resolving the block
+     * when the hunk stores state ids
+     *
+     * @param hunk the hunk
+     * @param x    the x
+     * @param y    the y
+     * @param z    the z
+     * @return the flags
+     */
+    public static int flags(Hunk<BlockData> hunk, int x, int y, int z) {
+        if (hunk instanceof BlockStateHunk h) {
+            return flags(h.getState(x, y, z));
+        }
+
+        return flags(hunk.get(x, y, z));
+    }
+
+    public static boolean is(int id, int flag) {
+        return (flags(id) & flag) != 0;
+    }
+
+    public static boolean is(BlockData data, int flag) {
+        return (flags(data) & flag) != 0;
+    }
+
+    public static boolean is(Hunk<BlockData> hunk, int x, int y, int z, int flag) {
+        return (flags(hunk, x, y, z) & flag) != 0;
+    }
+
+    /**
+     * @return the amount of registered block states, including id 0
+     */
+    public static synchronized int size() {
+        return size;
+    }
+
+    private static State state(int id) {
+        State[] s = states;
+        State state = id < s.length ? s[id] : null;
+
+        if (state != null) {
+            return state;
+        }
+
+        // The id was read from a hunk written by another thread before its state became visible here
+        synchronized (BlockStates.class) {
+            return states[id];
+        }
+    }
+
+    private static synchronized int register(BlockData data) {
+        Integer existing = ids.get(data);
+
+        if (existing != null) {
+            return existing;
+        }
+
+        State[] s = states;
+
+        if (size == s.length) {
+            states = s = Arrays.copyOf(s, size * 2);
+        }
+
+        s[size] = new State(data, computeFlags(data));
+        ids.put(data, size);
+        return size++;
+    }
+
+    private static int computeFlags(BlockData data) {
+        Material m = data.getMaterial();
+        int f = 0;
+        f |= B.isAir(data) ? AIR : 0;
+        f |= m.isSolid() ? SOLID : 0;
+        f |= B.isFluid(data) ? FLUID : 0;
+        f |= m == Material.WATER ? WATER : 0;
+        f |= B.isFoliage(data) ? FOLIAGE : 0;
+        f |= B.isDecorant(data) ? DECORANT : 0;
+        f |= B.isUpdatable(data) ? UPDATABLE : 0;
+        f |= B.isStorage(data) ? STORAGE : 0;
+        f |= B.isOre(data) ? ORE : 0;
+        f |= data instanceof IrisCustomData ? CUSTOM : 0;
+        f |= B.isVineBlock(data) ? VINE : 0;
+        f |= data instanceof Slab ? SLAB : 0;
+        f |= m == Material.SNOW ? SNOW : 0;
+        f |= data instanceof Levelled ? LEVELLED : 0;
+        f |= B.isWaterLogged(data) ? WATERLOGGED : 0;
+        f |= m.isOccluding() ? OCCLUDING : 0;
+        return f;
+    }
+
+    private record State(BlockData data, int flags) {
+    }
+}
@@ -679,11 +679,11 @@ public interface Hunk<T> {
         return this;
     }
 
-    default Hunk<T> iterate(Predicate<T> p, Consumer4<Integer, Integer, Integer, T> c) {
+    default Hunk<T> iterate(Predicate<T> p, IntConsumer4<T> c) {
         return iterate(getIdeal3DParallelism(), p, c);
     }
 
-    default Hunk<T> iterate(int parallelism, Predicate<T> p, Consumer4<Integer, Integer, Integer, T> c) {
+    default Hunk<T> iterate(int parallelism, Predicate<T> p, IntConsumer4<T> c) {
         iterate(parallelism, (x, y, z, t) ->
         {
             if (p.test(t)) {
@@ -710,7 +710,7 @@ public interface Hunk<T> {
         return this;
     }
 
-    default Hunk<T> iterateSync(Consumer4<Integer, Integer, Integer, T> c) {
+    default Hunk<T> iterateSync(IntConsumer4<T> c) {
         for (int i = 0; i < getWidth(); i++) {
             for (int j = 0; j < getHeight(); j++) {
                 for (int k = 0; k < getDepth(); k++) {
@@ -722,7 +722,7 @@ public interface Hunk<T> {
         return this;
     }
 
-    default Hunk<T> updateSync(Function4<Integer, Integer, Integer, T, T> c) {
+    default Hunk<T> updateSync(IntFunction4<T, T> c) {
         for (int i = 0; i < getWidth(); i++) {
             for (int j = 0; j < getHeight(); j++) {
                 for (int k = 0; k < getDepth(); k++) {
@@ -761,11 +761,11 @@ public interface Hunk<T> {
         return this;
     }
 
-    default Hunk<T> iterate(Consumer4<Integer, Integer, Integer, T> c) {
+    default Hunk<T> iterate(IntConsumer4<T> c) {
         return iterate(getIdeal3DParallelism(), c);
     }
 
-    default Hunk<T> iterate(int parallelism, Consumer4<Integer, Integer, Integer, T> c) {
+    default Hunk<T> iterate(int parallelism, IntConsumer4<T> c) {
         compute3D(parallelism, (x, y, z, h) ->
         {
             for (int i = 0; i < h.getWidth(); i++) {
@@ -157,6 +157,16 @@ public class DataBits {
         return bits;
     }
 
+    public DataBits copy() {
+        long[] longs = new long[data.length()];
+
+        for (int i = 0; i < longs.length; i++) {
+            longs[i] = data.get(i);
+        }
+
+        return new DataBits(bits, size, new AtomicLongArray(longs));
+    }
+
     public DataBits setBits(int newBits) {
         if (bits != newBits) {
             DataBits newData = new DataBits(newBits, size);
@@ -44,13 +44,33 @@ public class DataContainer<T> {
     }
 
     public DataContainer(DataInputStream din, Writable<T> writer) throws IOException {
+        this(Varint.readUnsignedVarInt(din), din, writer);
+    }
+
+    /**
+     * Read a container whose length was already read from the stream
+     *
+     * @param length the length
+     * @param din    the input positioned after the length
+     * @param writer the node reader
+     * @throws IOException shit happens
+     */
+    public DataContainer(int length, DataInputStream din, Writable<T> writer) throws IOException {
         this.writer = writer;
-        this.length = Varint.readUnsignedVarInt(din);
+        this.length = length;
         this.palette = new AtomicReference<>(newPalette(din));
         this.data = new AtomicReference<>(new DataBits(palette.get().bits(), length, din));
         this.bits = new AtomicInteger(palette.get().bits());
     }
 
+    private DataContainer(DataContainer<T> c) {
+        this.writer = c.writer;
+        this.length = c.length;
+        this.bits = new AtomicInteger(c.bits.get());
+        this.palette = new AtomicReference<>(newPalette(bits.get()).from(c.palette.get()));
+        this.data = new AtomicReference<>(c.data.get().copy());
+    }
+
     public static String readBitString(DataInputStream din) throws IOException {
         DataContainer<Character> c = new DataContainer<>(din, new Writable<Character>() {
             @Override
@@ -163,6 +183,17 @@ public class DataContainer<T> {
         return new HashPalette<>();
     }
 
+    /**
+     * Copy this container. The palette is copied by position, so the data keeps its ids
+     *
+     * @return the copy
+     */
+    public DataContainer<T> copy() {
+        synchronized (this) {
+            return new DataContainer<>(this);
+        }
+    }
+
     public void ensurePaletted(T t) {
         if (palette.get().id(t) == -1) {
             expandOne();
@@ -214,4 +245,37 @@ public class DataContainer<T> {
     public int size() {
         return getData().getSize();
     }
+
+    /**
+     * Check if every position holds the same value (or is null)
+     *
+     * @return true if the container is uniform
+     */
+    public boolean isUniform() {
+        synchronized (this) {
+            if (palette.get().size() > 1) {
+                return false;
+            }
+
+            DataBits bits = data.get();
+            int first = bits.get(0);
+
+            for (int i = 1; i < bits.getSize(); i++) {
+                if (bits.get(i) != first) {
+                    return false;
+                }
+            }
+
+            return true;
+        }
+    }
+
+    /**
+     * Roughly estimate the heap used by this container (packed data + palette references)
+     *
+     * @return the estimated size in bytes
+     */
+    public long estimateMemoryUsage() {
+        return 64 + (data.get().getRaw().length() * 8L) + (palette.get().size() * 16L);
+    }
 }
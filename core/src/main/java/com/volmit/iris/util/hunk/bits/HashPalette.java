@@ -18,48 +18,201 @@
 
 package com.volmit.iris.util.hunk.bits;
 
-import com.volmit.iris.util.collection.KMap;
 import com.volmit.iris.util.function.Consumer2;
 
-import java.util.LinkedHashMap;
+import java.io.DataInputStream;
+import java.io.IOException;
 import java.util.concurrent.atomic.AtomicInteger;
-import java.util.concurrent.locks.ReentrantLock;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.AtomicReferenceArray;
 
+/**
+ * A lock free palette for larger value counts. Ids map to values through segments that never
+ * move once created and values map to ids through an open addressing index, so neither reads
+ * nor adds lock. An add reserves its id with a single increment, stores the value in that slot
+ * and then publishes it with a compare and set on the index. If another add of an equal value
+ * wins the index, the loser takes the winner's id and its own slot keeps the duplicate value,
+ * so every id stays valid and the palette can still be copied by position.
+ *
+ * @param <T> the value type
+ */
 public class HashPalette<T> implements Palette<T> {
-    private final ReentrantLock lock = new ReentrantLock();
-    private final LinkedHashMap<T, Integer> palette;
-    private final KMap<Integer, T> lookup;
+    private static final int INITIAL_SIZE = 32;
+    private static final int SEGMENTS = 26;
+    private static final Entry<?> MOVED = new Entry<>(null, -1);
+    private final AtomicReferenceArray<AtomicReferenceArray<T>> values;
+    private final AtomicReference<Table<T>> index;
     private final AtomicInteger size;
 
     public HashPalette() {
         this.size = new AtomicInteger(0);
-        this.palette = new LinkedHashMap<>();
-        this.lookup = new KMap<>();
+        this.values = new AtomicReferenceArray<>(SEGMENTS);
+        this.index = new AtomicReference<>(new Table<>(INITIAL_SIZE * 2));
         add(null);
     }
 
+    private static int hash(Object o) {
+        int h = o.hashCode() * 0x9E3779B9;
+        return h ^ (h >>> 16);
+    }
+
+    /**
+     * Segment k holds the ids from 32 * (2^k - 1) on and is 32 * 2^k long
+     */
+    private static int segment(int id) {
+        return 31 - Integer.numberOfLeadingZeros(id / INITIAL_SIZE + 1);
+    }
+
+    private static int offset(int id, int segment) {
+        return id - INITIAL_SIZE * ((1 << segment) - 1);
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T> Entry<T> moved() {
+        return (Entry<T>) MOVED;
+    }
+
     @Override
     public T get(int id) {
         if (id < 0 || id >= size.get()) {
             return null;
         }
 
-        return lookup.get(id);
+        int s = segment(id);
+        AtomicReferenceArray<T> v = values.get(s);
+        return v != null ? v.get(offset(id, s)) : null;
     }
 
+    /**
+     * Add a value, or get the id it already has. The value is stored before it is indexed, so an
+     * id found through {@link #id(Object)} always resolves in {@link #get(int)}.
+     */
     @Override
     public int add(T t) {
-        lock.lock();
-        try {
-            int index = size.getAndIncrement();
-            palette.put(t, index);
+        if (t != null) {
+            int id = id(t);
 
-            if (t != null) {
-                lookup.put(index, t);
+            if (id != -1) {
+                return id;
+            }
+        }
+
+        return append(t);
+    }
+
+    /**
+     * Palettes are copied by position (the data keeps its ids), so these append every value even
+     * if an equal one is already in the palette. Lookups resolve to the first of them.
+     */
+    @Override
+    public Palette<T> from(int size, Writable<T> writable, DataInputStream in) throws IOException {
+        for (int i = 0; i < size; i++) {
+            append(writable.readNodeData(in));
+        }
+
+        return this;
+    }
+
+    @Override
+    public Palette<T> from(Palette<T> oldPalette) {
+        oldPalette.iterate((k, v) -> append(k));
+        return this;
+    }
+
+    private int append(T t) {
+        int id = size.getAndIncrement();
+        store(id, t);
+        return t != null ? insert(index.get(), new Entry<>(t, id)) : id;
+    }
+
+    private void store(int id, T t) {
+        int s = segment(id);
+        AtomicReferenceArray<T> v = values.get(s);
+
+        if (v == null) {
+            values.compareAndSet(s, null, new AtomicReferenceArray<>(INITIAL_SIZE << s));
+            v = values.get(s);
+        }
+
+        v.set(offset(id, s), t);
+    }
+
+    /**
+     * Publish an entry into the first free slot of its probe, following moved slots into the
+     * next table while a grow is running.
+     *
+     * @return the id of the entry, or of an equal entry that got there first
+     */
+    private int insert(Table<T> table, Entry<T> entry) {
+        while (true) {
+            AtomicReferenceArray<Entry<T>> slots = table.slots;
+            int mask = slots.length() - 1;
+            int i = hash(entry.value) & mask;
+
+            while (true) {
+                Entry<T> e = slots.get(i);
+
+                if (e == MOVED) {
+                    table = table.next.get();
+                    break;
+                }
+
+                if (e == null) {
+                    if (slots.compareAndSet(i, null, entry)) {
+                        if (table.count.incrementAndGet() << 1 > slots.length()) {
+                            grow(table);
+                        }
+
+                        return entry.id;
+                    }
+
+                    continue;
+                }
+
+                if (e.value.equals(entry.value)) {
+                    return e.id;
+                }
+
+                i = (i + 1) & mask;
+            }
+        }
+    }
+
+    /**
+     * Double the index. Whoever links the next table moves every slot over, marking each one as
+     * moved once it is copied (or while it is still empty), so slots only ever go from empty to
+     * an entry to moved and no add or lookup can miss the new table.
+     */
+    private void grow(Table<T> table) {
+        Table<T> next = new Table<>(table.slots.length() * 2);
+
+        if (!table.next.compareAndSet(null, next)) {
+            return;
+        }
+
+        AtomicReferenceArray<Entry<T>> slots = table.slots;
+        for (int i = 0; i < slots.length(); i++) {
+            while (true) {
+                Entry<T> e = slots.get(i);
+
+                if (e == null) {
+                    if (slots.compareAndSet(i, null, moved())) {
+                        break;
+                    }
+
+                    continue;
+                }
+
+                insert(next, e);
+                slots.set(i, moved());
+                break;
             }
-            return index;
-        } finally {
-            lock.unlock();
+        }
+
+        table.moved = true;
+
+        for (Table<T> head = index.get(); head.moved; head = index.get()) {
+            index.compareAndSet(head, head.next.get());
         }
     }
 
@@ -69,8 +222,32 @@ public class HashPalette<T> implements Palette<T> {
             return 0;
         }
 
-        Integer v = palette.get(t);
-        return v != null ? v : -1;
+        Table<T> table = index.get();
+
+        while (true) {
+            AtomicReferenceArray<Entry<T>> slots = table.slots;
+            int mask = slots.length() - 1;
+            int i = hash(t) & mask;
+
+            while (true) {
+                Entry<T> e = slots.get(i);
+
+                if (e == null) {
+                    return -1;
+                }
+
+                if (e == MOVED) {
+                    table = table.next.get();
+                    break;
+                }
+
+                if (e.value.equals(t)) {
+                    return e.id;
+                }
+
+                i = (i + 1) & mask;
+            }
+        }
     }
 
     @Override
@@ -80,17 +257,28 @@ public class HashPalette<T> implements Palette<T> {
 
     @Override
     public void iterate(Consumer2<T, Integer> c) {
-        lock.lock();
-        try {
-            for (T i : palette.keySet()) {
-                if (i == null) {
-                    continue;
-                }
+        int s = size.get();
+
+        for (int i = 1; i < s; i++) {
+            T t = get(i);
 
-                c.accept(i, id(i));
+            if (t != null) {
+                c.accept(t, i);
             }
-        } finally {
-            lock.unlock();
+        }
+    }
+
+    private record Entry<T>(T value, int id) {
+    }
+
+    private static final class Table<T> {
+        private final AtomicReferenceArray<Entry<T>> slots;
+        private final AtomicInteger count = new AtomicInteger();
+        private final AtomicReference<Table<T>> next = new AtomicReference<>();
+        private volatile boolean moved;
+
+        private Table(int length) {
+            this.slots = new AtomicReferenceArray<>(length);
         }
     }
 }
@@ -0,0 +1,100 @@
+/*
+ * Iris is a World Generator for Minecraft Bukkit Servers
+ * Copyright (c) 2022 Arcane Arts (Volmit Software)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package com.volmit.iris.util.hunk.storage;
+
+import com.volmit.iris.util.data.BlockStates;
+import com.volmit.iris.util.hunk.Hunk;
+import org.bukkit.block.data.BlockData;
+
+/**
+ * A block hunk storing {@link BlockStates} ids instead of block data references.
+ * Unset blocks have the id 0 and read as null.
+ */
+public class BlockStateHunk extends StorageHunk<BlockData> implements Hunk<BlockData> {
+    private final int[] states;
+
+    public BlockStateHunk(int w, int h, int d) {
+        super(w, h, d);
+        states = new int[w * h * d];
+    }
+
+    @Override
+    public boolean isAtomic() {
+        return true;
+    }
+
+    @Override
+    public void setRaw(int x, int y, int z, BlockData t) {
+        states[index(x, y, z)] = BlockStates.id(t);
+    }
+
+    @Override
+    public BlockData getRaw(int x, int y, int z) {
+        return BlockStates.get(states[index(x, y, z)]);
+    }
+
+    public int getState(int x, int y, int z) {
+        return states[index(x, y, z)];
+    }
+
+    public void setState(int x, int y, int z, int state) {
+        states[index(x, y, z)] = state;
+    }
+
+    public int getFlags(int x, int y, int z) {
+        return BlockStates.flags(states[index(x, y, z)]);
+    }
+
+    public boolean is(int x, int y, int z, int flag) {
+        return (getFlags(x, y, z) & flag) != 0;
+    }
+
+    /**
+     * Iterate every set block by its state id
+     *
+     * @param c the consumer (x, y, z, state)
+     */
+    public void iterateStates(StateConsumer c) {
+        int w = getWidth();
+        int h = getHeight();
+        int d = getDepth();
+        int i = 0;
+
+        for (int z = 0; z < d; z++) {
+            for (int y = 0; y < h; y++) {
+                for (int x = 0; x < w; x++) {
+                    int state = states[i++];
+
+                    if (state != 0) {
+                        c.accept(x, y, z, state);
+                    }
+                }
+            }
+        }
+    }
+
+    private int index(int x, int y, int z) {
+        return (z * getWidth() * getHeight()) + (y * getWidth()) + x;
+    }
+
+    @FunctionalInterface
+    public interface StateConsumer {
+        void accept(int x, int y, int z, int state);
+    }
+}
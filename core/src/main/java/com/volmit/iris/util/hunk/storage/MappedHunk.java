@@ -19,8 +19,8 @@
 package com.volmit.iris.util.hunk.storage;
 
 import com.volmit.iris.util.collection.KMap;
-import com.volmit.iris.util.function.Consumer4;
 import com.volmit.iris.util.function.Consumer4IO;
+import com.volmit.iris.util.function.IntConsumer4;
 import com.volmit.iris.util.hunk.Hunk;
 import lombok.Data;
 import lombok.EqualsAndHashCode;
@@ -66,7 +66,7 @@ public class MappedHunk<T> extends StorageHunk<T> implements Hunk<T> {
     }
 
     @Override
-    public synchronized Hunk<T> iterateSync(Consumer4<Integer, Integer, Integer, T> c) {
+    public synchronized Hunk<T> iterateSync(IntConsumer4<T> c) {
         int idx, z;
 
         for (Map.Entry<Integer, T> g : data.entrySet()) {
@@ -18,8 +18,8 @@
 
 package com.volmit.iris.util.hunk.storage;
 
-import com.volmit.iris.util.function.Consumer4;
 import com.volmit.iris.util.function.Consumer4IO;
+import com.volmit.iris.util.function.IntConsumer4;
 import com.volmit.iris.util.hunk.Hunk;
 import com.volmit.iris.util.hunk.bits.DataContainer;
 import com.volmit.iris.util.hunk.bits.Writable;
@@ -39,6 +39,11 @@ public class PaletteHunk<T> extends StorageHunk<T> implements Hunk<T> {
         data = new DataContainer<>(writer, w * h * d);
     }
 
+    public PaletteHunk(int w, int h, int d, DataContainer<T> data) {
+        super(w, h, d);
+        this.data = data;
+    }
+
     public void setPalette(DataContainer<T> c) {
         data = c;
     }
@@ -52,7 +57,7 @@ public class PaletteHunk<T> extends StorageHunk<T> implements Hunk<T> {
     }
 
     @Override
-    public synchronized Hunk<T> iterateSync(Consumer4<Integer, Integer, Integer, T> c) {
+    public synchronized Hunk<T> iterateSync(IntConsumer4<T> c) {
         for (int i = 0; i < getWidth(); i++) {
             for (int j = 0; j < getHeight(); j++) {
                 for (int k = 0; k < getDepth(); k++) {
@@ -18,73 +18,368 @@
 
 package com.volmit.iris.util.hunk.storage;
 
-import com.volmit.iris.util.function.Consumer4;
+import com.volmit.iris.util.data.Varint;
 import com.volmit.iris.util.function.Consumer4IO;
+import com.volmit.iris.util.function.IntConsumer4;
 import com.volmit.iris.util.hunk.Hunk;
 import com.volmit.iris.util.hunk.bits.DataContainer;
 import com.volmit.iris.util.hunk.bits.Writable;
 
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
 import java.io.IOException;
+import java.util.Objects;
 import java.util.function.Supplier;
 
+/**
+ * Stores small hunks in a palette and large ones in the hunk from the factory. Paletted
+ * hunks start out uniform (every voxel holds the same value, null at first) without any
+ * backing storage and only allocate the palette on the first differing write.
+ * <p>
+ * Hunks can share their storage (see {@link #shareStorage(PaletteOrHunk)}), the first write
+ * to a shared hunk copies the storage before it goes through.
+ *
+ * @param <T> the type
+ */
 public abstract class PaletteOrHunk<T> extends StorageHunk<T> implements Hunk<T>, Writable<T> {
-    private final Hunk<T> hunk;
+    private final boolean paletted;
+    private final Supplier<Hunk<T>> factory;
+    private volatile Hunk<T> hunk;
+    private volatile T uniform;
+    private volatile boolean shared;
 
     public PaletteOrHunk(int width, int height, int depth, boolean allow, Supplier<Hunk<T>> factory) {
         super(width, height, depth);
-        hunk = (allow && (width * height * depth <= 4096)) ? new PaletteHunk<>(width, height, depth, this) : factory.get();
+        paletted = allow && (width * height * depth <= 4096);
+        this.factory = factory;
+        hunk = paletted ? null : factory.get();
+    }
+
+    private Hunk<T> upgrade() {
+        Hunk<T> h = hunk;
+
+        if (h != null) {
+            return h;
+        }
+
+        synchronized (this) {
+            h = hunk;
+
+            if (h == null) {
+                h = new PaletteHunk<>(getWidth(), getHeight(), getDepth(), this);
+                T u = uniform;
+
+                if (u != null) {
+                    DataContainer<T> data = ((PaletteHunk<T>) h).getData();
+                    for (int i = 0; i < data.size(); i++) {
+                        data.set(i, u);
+                    }
+                }
+
+                hunk = h;
+            }
+
+            return h;
+        }
     }
 
     public DataContainer<T> palette() {
-        return isPalette() ? ((PaletteHunk<T>) hunk).getData() : null;
+        if (shared) {
+            unshare();
+        }
+
+        return isPalette() ? ((PaletteHunk<T>) upgrade()).getData() : null;
+    }
+
+    /**
+     * Share the storage of another hunk of the same kind with this one instead of copying it.
+     * Both hunks copy the storage before their next write, so neither sees the other's later
+     * writes (a write racing this call may still be seen by both)
+     *
+     * @param other the hunk to share the storage of
+     */
+    public void shareStorage(PaletteOrHunk<T> other) {
+        Hunk<T> h;
+        T u;
+
+        synchronized (other) {
+            h = other.hunk;
+            u = other.uniform;
+
+            if (h != null) {
+                other.shared = true;
+            }
+        }
+
+        synchronized (this) {
+            uniform = u;
+            hunk = h;
+            shared = h != null;
+        }
+    }
+
+    private synchronized Hunk<T> unshare() {
+        Hunk<T> h = hunk;
+
+        if (shared) {
+            if (h != null) {
+                h = copy(h);
+                hunk = h;
+            }
+
+            shared = false;
+        }
+
+        return h;
+    }
+
+    private Hunk<T> copy(Hunk<T> h) {
+        if (h instanceof PaletteHunk<T> p) {
+            return new PaletteHunk<>(getWidth(), getHeight(), getDepth(), p.getData().copy());
+        }
+
+        Hunk<T> c = factory.get();
+        h.iterateSync(c::setRaw);
+        return c;
     }
 
     public boolean isPalette() {
-        return hunk instanceof PaletteHunk;
+        return paletted;
+    }
+
+    /**
+     * Check if this hunk is in its uniform state (no backing storage)
+     *
+     * @return true if every voxel holds the same value without storage
+     */
+    public boolean isUniform() {
+        return hunk == null;
     }
 
     public void setPalette(DataContainer<T> c) {
         if (isPalette()) {
-            ((PaletteHunk<T>) hunk).setPalette(c);
+            synchronized (this) {
+                hunk = new PaletteHunk<>(getWidth(), getHeight(), getDepth(), c);
+                shared = false;
+            }
         }
     }
 
+    /**
+     * Write the palette of this hunk. Uniform hunks (or palettes holding a single value everywhere)
+     * are written as a zero length followed by the value, a data container never has a zero length
+     *
+     * @param dos the output
+     * @throws IOException shit happens
+     */
+    public void writePalette(DataOutputStream dos) throws IOException {
+        Hunk<T> h = hunk;
+        T u = uniform;
+
+        if (h != null) {
+            DataContainer<T> data = ((PaletteHunk<T>) h).getData();
+
+            if (!data.isUniform()) {
+                data.writeDos(dos);
+                return;
+            }
+
+            u = data.get(0);
+        }
+
+        Varint.writeUnsignedVarInt(0, dos);
+        dos.writeBoolean(u != null);
+
+        if (u != null) {
+            writeNodeData(dos, u);
+        }
+    }
+
+    /**
+     * Read a palette written by {@link #writePalette(DataOutputStream)}. Matter older than
+     * version 2 never holds a zero length and is read as a plain data container
+     *
+     * @param din     the input
+     * @param version the matter version the palette was written with
+     * @throws IOException shit happens
+     */
+    public void readPalette(DataInputStream din, int version) throws IOException {
+        if (version < 2) {
+            setPalette(new DataContainer<>(din, this));
+            return;
+        }
+
+        int length = Varint.readUnsignedVarInt(din);
+
+        if (length == 0) {
+            T u = din.readBoolean() ? readNodeData(din) : null;
+
+            synchronized (this) {
+                uniform = u;
+                hunk = null;
+                shared = false;
+            }
+
+            return;
+        }
+
+        setPalette(new DataContainer<>(length, din, this));
+    }
+
+    /**
+     * Write a voxel. A uniform hunk is upgraded and written under the same lock as {@link #empty(Object)},
+     * so an empty can only come before or after the whole write. If the storage got shared while the
+     * write went through, the write could have missed the copy, so it is repeated on the copy until it
+     * lands in the current storage. A write racing an empty on a hunk with storage counts as the earlier
+     * of the two.
+     */
     @Override
     public void setRaw(int x, int y, int z, T t) {
-        hunk.setRaw(x, y, z, t);
+        Hunk<T> h = shared ? unshare() : hunk;
+
+        while (h == null) {
+            synchronized (this) {
+                if (hunk == null) {
+                    if (!Objects.equals(uniform, t)) {
+                        upgrade().setRaw(x, y, z, t);
+                    }
+
+                    return;
+                }
+            }
+
+            h = shared ? unshare() : hunk;
+        }
+
+        h.setRaw(x, y, z, t);
+
+        while (shared || hunk != h) {
+            Hunk<T> c = unshare();
+
+            if (c == null || c == h) {
+                return;
+            }
+
+            h = c;
+            h.setRaw(x, y, z, t);
+        }
     }
 
     @Override
     public T getRaw(int x, int y, int z) {
-        return hunk.getRaw(x, y, z);
+        Hunk<T> h = hunk;
+        return h == null ? uniform : h.getRaw(x, y, z);
     }
 
     public int getEntryCount() {
-        return hunk.getEntryCount();
+        Hunk<T> h = hunk;
+
+        if (h == null) {
+            return uniform == null ? 0 : volume();
+        }
+
+        return h.getEntryCount();
     }
 
     public boolean isMapped() {
-        return hunk.isMapped();
+        Hunk<T> h = hunk;
+        return h != null && h.isMapped();
     }
 
     public boolean isEmpty() {
-        return hunk.isMapped();
+        Hunk<T> h = hunk;
+        return h == null ? uniform == null : h.isMapped();
     }
 
     @Override
-    public synchronized Hunk<T> iterateSync(Consumer4<Integer, Integer, Integer, T> c) {
-        hunk.iterateSync(c);
+    public synchronized Hunk<T> iterateSync(IntConsumer4<T> c) {
+        Hunk<T> h = hunk;
+
+        if (h != null) {
+            h.iterateSync(c);
+            return this;
+        }
+
+        T u = uniform;
+        if (u != null) {
+            for (int i = 0; i < getWidth(); i++) {
+                for (int j = 0; j < getHeight(); j++) {
+                    for (int k = 0; k < getDepth(); k++) {
+                        c.accept(i, j, k, u);
+                    }
+                }
+            }
+        }
+
         return this;
     }
 
     @Override
     public synchronized Hunk<T> iterateSyncIO(Consumer4IO<Integer, Integer, Integer, T> c) throws IOException {
-        hunk.iterateSyncIO(c);
+        Hunk<T> h = hunk;
+
+        if (h != null) {
+            h.iterateSyncIO(c);
+            return this;
+        }
+
+        T u = uniform;
+        if (u != null) {
+            for (int i = 0; i < getWidth(); i++) {
+                for (int j = 0; j < getHeight(); j++) {
+                    for (int k = 0; k < getDepth(); k++) {
+                        c.accept(i, j, k, u);
+                    }
+                }
+            }
+        }
+
         return this;
     }
 
     @Override
     public void empty(T b) {
+        if (paletted) {
+            synchronized (this) {
+                uniform = b;
+                hunk = null;
+                shared = false;
+            }
+
+            return;
+        }
+
+        if (shared) {
+            synchronized (this) {
+                hunk = factory.get();
+                shared = false;
+            }
+        }
+
         hunk.empty(b);
     }
+
+    /**
+     * Roughly estimate the heap used by this hunk. Values are assumed to be shared
+     * so only the references to them are counted
+     *
+     * @return the estimated size in bytes
+     */
+    public long estimateMemoryUsage() {
+        Hunk<T> h = hunk;
+
+        if (h == null) {
+            return 48;
+        }
+
+        if (h instanceof PaletteHunk<T> p) {
+            return 48 + p.getData().estimateMemoryUsage();
+        }
+
+        if (h.isMapped()) {
+            return 112 + (h.getEntryCount() * 64L);
+        }
+
+        return 48 + (h.volume() * 8L);
+    }
 }
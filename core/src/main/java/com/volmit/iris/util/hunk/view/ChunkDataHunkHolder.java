@@ -18,13 +18,14 @@
 
 package com.volmit.iris.util.hunk.view;
 
-import com.volmit.iris.util.hunk.storage.AtomicHunk;
+import com.volmit.iris.util.data.BlockStates;
+import com.volmit.iris.util.hunk.storage.BlockStateHunk;
 import org.bukkit.Material;
 import org.bukkit.block.data.BlockData;
 import org.bukkit.generator.ChunkGenerator.ChunkData;
 
 @SuppressWarnings("ClassCanBeRecord")
-public class ChunkDataHunkHolder extends AtomicHunk<BlockData> {
+public class ChunkDataHunkHolder extends BlockStateHunk {
     private static final BlockData AIR = Material.AIR.createBlockData();
     private final ChunkData chunk;
 
@@ -56,16 +57,6 @@ public class ChunkDataHunkHolder extends AtomicHunk<BlockData> {
     }
 
     public void apply() {
-        for (int i = 0; i < getHeight(); i++) {
-            for (int j = 0; j < getWidth(); j++) {
-                for (int k = 0; k < getDepth(); k++) {
-                    BlockData b = super.getRaw(j, i, k);
-
-                    if (b != null) {
-                        chunk.setBlock(j, i + chunk.getMinHeight(), k, b);
-                    }
-                }
-            }
-        }
+        iterateStates((x, y, z, state) -> chunk.setBlock(x, y + chunk.getMinHeight(), z, BlockStates.get(state)));
     }
 }
@@ -6,6 +6,7 @@ import org.jetbrains.annotations.NotNull;
 import java.io.DataInputStream;
 import java.io.IOException;
 import java.io.InputStream;
+import java.nio.ByteBuffer;
 
 public class CountingDataInputStream extends DataInputStream {
     private final Counter counter;
@@ -21,6 +22,10 @@ public class CountingDataInputStream extends DataInputStream {
         return new CountingDataInputStream(new Counter(in));
     }
 
+    public static CountingDataInputStream wrap(@NotNull ByteBuffer buffer) {
+        return wrap(new ByteBufferInputStream(buffer));
+    }
+
     public long count() {
         return counter.count;
     }
@@ -18,10 +18,8 @@
 
 package com.volmit.iris.util.mantle;
 
-import com.google.common.util.concurrent.AtomicDouble;
 import com.volmit.iris.Iris;
 import com.volmit.iris.core.IrisSettings;
-import com.volmit.iris.core.service.IrisEngineSVC;
 import com.volmit.iris.core.tools.IrisToolbelt;
 import com.volmit.iris.engine.data.cache.Cache;
 import com.volmit.iris.engine.framework.Engine;
@@ -33,14 +31,14 @@ import com.volmit.iris.util.documentation.BlockCoordinates;
 import com.volmit.iris.util.documentation.ChunkCoordinates;
 import com.volmit.iris.util.documentation.RegionCoordinates;
 import com.volmit.iris.util.format.C;
-import com.volmit.iris.util.format.Form;
-import com.volmit.iris.util.function.Consumer4;
+import com.volmit.iris.util.function.IntConsumer4;
 import com.volmit.iris.util.math.M;
 import com.volmit.iris.util.matter.Matter;
 import com.volmit.iris.util.matter.MatterSlice;
 import com.volmit.iris.util.parallel.BurstExecutor;
 import com.volmit.iris.util.parallel.HyperLock;
 import com.volmit.iris.util.parallel.MultiBurst;
+import com.volmit.iris.util.scheduling.Looper;
 import lombok.Getter;
 import org.bukkit.Chunk;
 
@@ -52,7 +50,7 @@ import java.util.concurrent.*;
 import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.atomic.AtomicInteger;
 import java.util.concurrent.atomic.AtomicLong;
-import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
 
 /**
  * The mantle can store any type of data slice anywhere and manage regions & IO on it's own.
@@ -60,18 +58,25 @@ import java.util.concurrent.locks.ReentrantLock;
  */
 
 public class Mantle {
-    private static final boolean disableClear = System.getProperty("disableClear", "false").equals("true");
+    private static final int MISSING_REGION_LIMIT = 4096;
     private final File dataFolder;
     @Getter
     private final int worldHeight;
-    private final Map<Long, Long> lastUse;
-    @Getter
-    private final Map<Long, TectonicPlate> loadedRegions;
+    private final RegionTable<TectonicPlate> loadedRegions;
+    private final RegionTable<Boolean> missingRegions;
+    private final RegionTable<TectonicPlate> prefetchedRegions;
+    private final AtomicInteger prefetching;
+    private final AtomicLong prefetchHits;
+    private final AtomicLong prefetchMisses;
+    private final AtomicLong prefetchWasted;
+    private final Map<Long, TectonicPlate> unloadingRegions;
+    private final ThreadPoolExecutor ioWriter;
+    private final Semaphore writeSlots;
+    private final Map<Long, TectonicPlate> uncommitted;
+    private final Looper committer;
     private final HyperLock hyperLock;
     private final AtomicBoolean closed;
     private final MultiBurst ioBurst;
-    private final AtomicBoolean ioTrim;
-    private final AtomicBoolean ioTectonicUnload;
 
     /**
      * Create a new mantle
@@ -85,15 +90,60 @@ public class Mantle {
         this.closed = new AtomicBoolean(false);
         this.dataFolder = dataFolder;
         this.worldHeight = worldHeight;
-        this.ioTrim = new AtomicBoolean(false);
-        this.ioTectonicUnload = new AtomicBoolean(false);
         dataFolder.mkdirs();
-        loadedRegions = new KMap<>();
-        lastUse = new KMap<>();
+        deleteTemporaryFiles(dataFolder);
+        loadedRegions = new RegionTable<>(M.ms());
+        missingRegions = new RegionTable<>(0);
+        prefetchedRegions = new RegionTable<>(M.ms());
+        prefetching = new AtomicInteger(0);
+        prefetchHits = new AtomicLong(0);
+        prefetchMisses = new AtomicLong(0);
+        prefetchWasted = new AtomicLong(0);
+        unloadingRegions = new KMap<>();
         ioBurst = MultiBurst.burst;
+        int writeBehindLimit = Math.max(IrisSettings.get().getPerformance().getMantleWriteBehindLimit(), 1);
+        writeSlots = new Semaphore(writeBehindLimit + 1);
+        ioWriter = new ThreadPoolExecutor(1, 1, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(writeBehindLimit),
+                r -> {
+                    Thread t = new Thread(r);
+                    t.setName("Iris Mantle Writer");
+                    t.setPriority(Thread.MIN_PRIORITY);
+                    return t;
+                });
+        uncommitted = new KMap<>();
+        committer = new Looper() {
+            @Override
+            protected long loop() {
+                commit();
+                return Math.max(IrisSettings.get().getPerformance().getMantleGroupCommitMs(), 50);
+            }
+        };
+        committer.setName("Iris Mantle Commit");
+        committer.setPriority(Thread.MIN_PRIORITY);
+        committer.start();
         Iris.debug("Opened The Mantle " + C.DARK_AQUA + dataFolder.getAbsolutePath());
     }
 
+    /**
+     * Delete the temporary files of saves that never completed. Group commit saves that were not
+     * published before a crash are lost as documented by {@link MantleDurability#GROUP}
+     *
+     * @param folder the data folder
+     */
+    private static void deleteTemporaryFiles(File folder) {
+        File[] files = folder.listFiles((dir, name) -> name.startsWith("p.") && name.endsWith(".tmp"));
+        if (files == null) {
+            return;
+        }
+
+        for (File i : files) {
+            if (i.delete()) {
+                Iris.debug("Deleted unfinished Tectonic Plate save " + C.DARK_AQUA + i.getName());
+            }
+        }
+    }
+
     /**
      * Get the file for a region
      *
@@ -113,7 +163,7 @@ public class Mantle {
      * @param key    the region key
      * @return the file
      */
-    public static File fileForRegion(File folder, Long key) {
+    public static File fileForRegion(File folder, long key) {
         File f = new File(folder, "p." + key + ".ttp.lz4b");
         if (!f.getParentFile().exists()) {
             f.getParentFile().mkdirs();
@@ -128,7 +178,7 @@ public class Mantle {
      * @param z the z
      * @return the value
      */
-    public static Long key(int x, int z) {
+    public static long key(int x, int z) {
         return Cache.key(x, z);
     }
 
@@ -209,8 +259,29 @@ public class Mantle {
      */
     @RegionCoordinates
     public boolean hasTectonicPlate(int x, int z) {
-        Long k = key(x, z);
-        return loadedRegions.containsKey(k) || fileForRegion(dataFolder, k).exists();
+        long k = key(x, z);
+        if (loadedRegions.containsKey(k) || prefetchedRegions.containsKey(k) || unloadingRegions.containsKey(k) || uncommitted.containsKey(k)) {
+            return true;
+        }
+
+        if (missingRegions.containsKey(k)) {
+            return false;
+        }
+
+        if (fileForRegion(dataFolder, k).exists()) {
+            return true;
+        }
+
+        markMissing(k);
+        return false;
+    }
+
+    private void markMissing(long k) {
+        if (missingRegions.size() >= MISSING_REGION_LIMIT) {
+            missingRegions.clear();
+        }
+
+        missingRegions.put(k, Boolean.TRUE);
     }
 
     /**
@@ -223,7 +294,7 @@ public class Mantle {
      * @param <T>      the type of data to iterate
      */
     @ChunkCoordinates
-    public <T> void iterateChunk(int x, int z, Class<T> type, Consumer4<Integer, Integer, Integer, T> iterator) {
+    public <T> void iterateChunk(int x, int z, Class<T> type, IntConsumer4<T> iterator) {
         /*if(!hasTectonicPlate(x >> 5, z >> 5)) {
             return;
         }*/
@@ -296,6 +367,116 @@ public class Mantle {
                 .set(x & 15, y & 15, z & 15, null);
     }
 
+    /**
+     * Write into a single 16x16x16 section of a chunk. The plate, chunk, section and
+     * slice are resolved once and handed to the writer, which can then set any amount
+     * of data using section relative coordinates (0-15) without further lookups.
+     *
+     * @param x        the chunk x
+     * @param z        the chunk z
+     * @param sectionY the section index (y >> 4)
+     * @param type     the slice type to write into
+     * @param writer   the writer receiving the slice
+     * @param <T>      the type of data
+     */
+    @ChunkCoordinates
+    public <T> void writeSection(int x, int z, int sectionY, Class<T> type, Consumer<MatterSlice<T>> writer) {
+        if (closed.get()) {
+            throw new RuntimeException("The Mantle is closed");
+        }
+
+        if (sectionY < 0 || sectionY >= worldHeight >> 4) {
+            return;
+        }
+
+        MatterSlice<T> slice = get(x >> 5, z >> 5)
+                .getOrCreate(x & 31, z & 31)
+                .getOrCreate(sectionY)
+                .slice(type);
+
+        if (slice != null) {
+            writer.accept(slice);
+        }
+    }
+
+    /**
+     * Fill a box (inclusive) with the given data. Each 16x16x16 section touched by the box
+     * is resolved once instead of once per block.
+     *
+     * @param x1  the min x
+     * @param y1  the min y
+     * @param z1  the min z
+     * @param x2  the max x
+     * @param y2  the max y
+     * @param z2  the max z
+     * @param t   the data to set
+     * @param <T> the type of data
+     */
+    @BlockCoordinates
+    public <T> void fillBox(int x1, int y1, int z1, int x2, int y2, int z2, T t) {
+        if (closed.get()) {
+            throw new RuntimeException("The Mantle is closed");
+        }
+
+        y1 = Math.max(y1, 0);
+        y2 = Math.min(y2, worldHeight - 1);
+
+        if (t == null || x1 > x2 || y1 > y2 || z1 > z2) {
+            return;
+        }
+
+        Class<?> type = null;
+        for (int cx = x1 >> 4; cx <= x2 >> 4; cx++) {
+            int minX = Math.max(x1, cx << 4) & 15;
+            int maxX = Math.min(x2, (cx << 4) + 15) & 15;
+
+            for (int cz = z1 >> 4; cz <= z2 >> 4; cz++) {
+                int minZ = Math.max(z1, cz << 4) & 15;
+                int maxZ = Math.min(z2, (cz << 4) + 15) & 15;
+                MantleChunk chunk = get(cx >> 5, cz >> 5).getOrCreate(cx & 31, cz & 31);
+
+                for (int s = y1 >> 4; s <= y2 >> 4; s++) {
+                    int minY = Math.max(y1, s << 4) & 15;
+                    int maxY = Math.min(y2, (s << 4) + 15) & 15;
+                    Matter matter = chunk.getOrCreate(s);
+
+                    if (type == null) {
+                        type = matter.getClass(t);
+                    }
+
+                    MatterSlice<T> slice = matter.slice(type);
+                    if (slice == null) {
+                        return;
+                    }
+
+                    for (int i = minX; i <= maxX; i++) {
+                        for (int j = minY; j <= maxY; j++) {
+                            for (int k = minZ; k <= maxZ; k++) {
+                                slice.set(i, j, k, t);
+                            }
+                        }
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Fill a single block column (inclusive) with the given data, resolving each
+     * section once.
+     *
+     * @param x   the block x
+     * @param z   the block z
+     * @param y1  the min y
+     * @param y2  the max y
+     * @param t   the data to set
+     * @param <T> the type of data
+     */
+    @BlockCoordinates
+    public <T> void fillColumn(int x, int z, int y1, int y2, T t) {
+        fillBox(x, y1, z, x, y2, z, t);
+    }
+
     /**
      * Gets the data at the current block position This method will attempt to find a
      * Tectonic Plate either by loading it or creating a new one. This method uses
@@ -326,10 +507,16 @@ public class Mantle {
             return null;
         }
 
-        return (T) get((x >> 4) >> 5, (z >> 4) >> 5)
+        Matter matter = get((x >> 4) >> 5, (z >> 4) >> 5)
                 .getOrCreate((x >> 4) & 31, (z >> 4) & 31)
-                .getOrCreate(y >> 4).slice(t)
-                .get(x & 15, y & 15, z & 15);
+                .get(y >> 4);
+
+        if (matter == null) {
+            return null;
+        }
+
+        MatterSlice<T> slice = matter.getSlice(t);
+        return slice == null ? null : slice.get(x & 15, y & 15, z & 15);
     }
 
     /**
@@ -350,7 +537,7 @@ public class Mantle {
     /**
      * Closes the Mantle. By closing the mantle, you can no longer read or writeNodeData
      * any data to the mantle or it's Tectonic Plates. Closing will also flush any
-     * loaded regions to the disk in parallel.
+     * changed regions to the disk in parallel and wait for queued writes to finish.
      */
     public synchronized void close() {
         Iris.debug("Closing The Mantle " + C.DARK_AQUA + dataFolder.getAbsolutePath());
@@ -360,15 +547,19 @@ public class Mantle {
 
         closed.set(true);
         BurstExecutor b = ioBurst.burst(loadedRegions.size());
-        for (Long i : loadedRegions.keySet()) {
+        loadedRegions.forEach((i, plate, lastUse) -> {
+            if (!plate.isDirty()) {
+                return;
+            }
+
             b.queue(() -> {
                 try {
-                    loadedRegions.get(i).write(fileForRegion(dataFolder, i));
+                    writePlate(i, plate);
                 } catch (IOException e) {
                     e.printStackTrace();
                 }
             });
-        }
+        });
 
         try {
             b.complete();
@@ -376,135 +567,281 @@ public class Mantle {
             Iris.reportError(e);
         }
 
+        ioWriter.shutdown();
+        try {
+            while (!ioWriter.awaitTermination(1, TimeUnit.SECONDS)) {
+                Iris.info("Still waiting for " + unloadingRegions.size() + " Tectonic Plates to be written...");
+            }
+        } catch (InterruptedException e) {
+            Iris.reportError(e);
+        }
+
+        committer.interrupt();
+        commit();
         loadedRegions.clear();
+        prefetchedRegions.clear();
+        missingRegions.clear();
+        unloadingRegions.clear();
         Iris.debug("The Mantle has Closed " + C.DARK_AQUA + dataFolder.getAbsolutePath());
     }
 
     /**
-     * Estimates the memory usage of the lastUse map.
+     * Roughly estimate the heap used by all loaded plates of this mantle
      *
-     * @return Estimated memory usage in bytes.
+     * @return the estimated size in bytes
      */
+    public long getMemoryUsage() {
+        long size = 0;
+        for (TectonicPlate i : loadedRegions.values()) {
+            size += i.estimateMemoryUsage();
+        }
 
-    public long LastUseMapMemoryUsage() {
-        long numberOfEntries = lastUse.size();
-        long bytesPerEntry = Long.BYTES * 2;
-        return numberOfEntries * bytesPerEntry;
+        for (TectonicPlate i : prefetchedRegions.values()) {
+            size += i.estimateMemoryUsage();
+        }
+
+        return size;
     }
 
-    @Getter
-    private final AtomicDouble adjustedIdleDuration = new AtomicDouble(0);
-    @Getter
-    private final AtomicInteger forceAggressiveThreshold = new AtomicInteger(30);
-    @Getter
-    private final AtomicLong oldestTectonicPlate = new AtomicLong(0);
-    private final ReentrantLock unloadLock = new ReentrantLock();
-    @Getter
-    private final KList<Long> toUnload = new KList<>();
+    /**
+     * Collect every loaded & prefetched plate with its last use & estimated size so a
+     * {@link MantleMemoryPool} can decide what to evict
+     *
+     * @param plates the list to add the plates to
+     */
+    public void collectPlates(KList<MantleMemoryPool.Plate> plates) {
+        long now = M.ms();
+        loadedRegions.tick(now);
+        prefetchedRegions.tick(now);
+        loadedRegions.forEach((key, plate, lastUse) -> plates.add(new MantleMemoryPool.Plate(this, key, lastUse, plate.estimateMemoryUsage())));
+        prefetchedRegions.forEach((key, plate, lastUse) -> plates.add(new MantleMemoryPool.Plate(this, key, lastUse, plate.estimateMemoryUsage())));
+    }
 
     /**
-     * Save & unload regions that have not been used for more than the
-     * specified amount of milliseconds
+     * Unload every plate that has not been used for the given duration
      *
-     * @param baseIdleDuration the duration
+     * @param idleDuration the duration in milliseconds
+     * @return the amount of unloaded plates
      */
-    public synchronized void trim(long baseIdleDuration, int tectonicLimit) {
-        if (closed.get()) {
-            throw new RuntimeException("The Mantle is closed");
+    public int unloadIdle(long idleDuration) {
+        int count = 0;
+        long now = M.ms();
+        loadedRegions.tick(now);
+        prefetchedRegions.tick(now);
+
+        for (long i : loadedRegions.keys()) {
+            long lastUseTime = loadedRegions.getLastUse(i);
+            if (lastUseTime >= 0 && now - lastUseTime >= idleDuration && unloadTectonicPlate(i)) {
+                count++;
+            }
         }
 
-        adjustedIdleDuration.set(baseIdleDuration);
+        for (long i : prefetchedRegions.keys()) {
+            long lastUseTime = prefetchedRegions.getLastUse(i);
+            if (lastUseTime >= 0 && now - lastUseTime >= idleDuration && unloadTectonicPlate(i)) {
+                count++;
+            }
+        }
+
+        return count;
+    }
+
+    /**
+     * Unload a tectonic plate. Unchanged plates are dropped, changed plates are queued for writing.
+     * Plates with chunks that are in use are kept loaded. When the write behind queue is full this
+     * waits for a free slot before taking the region lock, a plate that only changed after that is kept loaded
+     *
+     * @param id the region key
+     * @return true if the plate was unloaded
+     */
+    public boolean unloadTectonicPlate(long id) {
+        if (closed.get()) {
+            return false;
+        }
 
-        if (loadedRegions != null) {
-            if (loadedRegions.size() > tectonicLimit) {
-                // todo update this correctly and maybe do something when its above a 100%
-                adjustedIdleDuration.set(Math.max(adjustedIdleDuration.get() - (1000 * (((loadedRegions.size() - tectonicLimit) / (double) tectonicLimit) * 100) * 0.4), 4000));
+        TectonicPlate p = loadedRegions.peek(id);
+        boolean reserved = p != null && p.isDirty() && unloadingRegions.get(id) != p;
+        if (reserved) {
+            try {
+                writeSlots.acquire();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return false;
             }
         }
 
-        ioTrim.set(true);
-        unloadLock.lock();
+        AtomicBoolean handed = new AtomicBoolean(false);
         try {
-            if (lastUse != null && IrisEngineSVC.instance != null) {
-                if (!lastUse.isEmpty()) {
-                    Iris.debug("Trimming Tectonic Plates older than " + Form.duration(adjustedIdleDuration.get(), 0));
-                    for (long i : new ArrayList<>(lastUse.keySet())) {
-                        double finalAdjustedIdleDuration = adjustedIdleDuration.get();
-                        hyperLock.withLong(i, () -> {
-                            Long lastUseTime = lastUse.get(i);
-                            if (lastUseTime != null && M.ms() - lastUseTime >= finalAdjustedIdleDuration) {
-                                toUnload.add(i);
-                                Iris.debug("Tectonic Region added to unload");
-                                IrisEngineSVC.instance.trimActiveAlive.reset();
-                            }
-                        });
+            return hyperLock.withResult(Cache.keyX(id), Cache.keyZ(id), () -> {
+                TectonicPlate m = loadedRegions.peek(id);
+                if (m == null) {
+                    if (prefetchedRegions.remove(id) != null) {
+                        prefetchWasted.incrementAndGet();
+                        Iris.debug("Dropped unused prefetched Tectonic Plate " + C.DARK_GREEN + Cache.keyX(id) + " " + Cache.keyZ(id));
+                        return true;
                     }
+
+                    return false;
                 }
-            }
 
-        } catch (Throwable e) {
-            Iris.reportError(e);
+                if (m.inUse()) {
+                    Iris.debug("Tectonic Plate was chosen for unloading while in use " + C.DARK_GREEN + m.getX() + " " + m.getZ());
+                    loadedRegions.touch(id);
+                    return false;
+                }
+
+                if (unloadingRegions.get(id) == m) {
+                    Iris.debug("Tectonic Plate is still queued for writing " + C.DARK_GREEN + Cache.keyX(id) + " " + Cache.keyZ(id));
+                } else if (m.isDirty()) {
+                    if (!reserved && !writeSlots.tryAcquire()) {
+                        Iris.debug("Write behind queue is full, keeping Tectonic Plate loaded " + C.DARK_GREEN + Cache.keyX(id) + " " + Cache.keyZ(id));
+                        return false;
+                    }
+
+                    writeBehind(id, m);
+                    handed.set(true);
+                } else {
+                    Iris.debug("Dropped unchanged Tectonic Plate " + C.DARK_GREEN + Cache.keyX(id) + " " + Cache.keyZ(id));
+                }
+
+                loadedRegions.remove(id);
+                return true;
+            });
         } finally {
-            ioTrim.set(false);
-            unloadLock.unlock();
+            if (reserved && !handed.get()) {
+                writeSlots.release();
+            }
+        }
+    }
+
+    /**
+     * Write a plate to its file, flushing it to the disk as configured by the mantle durability
+     *
+     * @param id    the region key
+     * @param plate the plate
+     * @throws IOException shit happens
+     */
+    private void writePlate(long id, TectonicPlate plate) throws IOException {
+        plate.write(fileForRegion(dataFolder, id), IrisSettings.get().getPerformance().getMantleDurability());
+
+        if (plate.isPending()) {
+            uncommitted.put(id, plate);
         }
     }
 
-    public synchronized int unloadTectonicPlate(int tectonicLimit) {
-        AtomicInteger i = new AtomicInteger();
-        unloadLock.lock();
-        BurstExecutor burst = null;
-        if (IrisEngineSVC.instance != null) {
+    /**
+     * Group commit: flush the temporary files of every plate saved since the last commit, move them
+     * over the plate files and flush the directory once for all of them. Until then the pending plates
+     * stay reachable so getSafe can pick them back up instead of reading a stale file.
+     */
+    public void commit() {
+        if (uncommitted.isEmpty()) {
+            return;
+        }
+
+        KMap<Long, TectonicPlate> batch = new KMap<>(uncommitted);
+        for (TectonicPlate i : batch.values()) {
+            try {
+                i.flush();
+            } catch (IOException e) {
+                Iris.reportError(e);
+            }
+        }
+
+        for (Map.Entry<Long, TectonicPlate> i : batch.entrySet()) {
             try {
-                KList<Long> copy = toUnload.copy();
-                if (!disableClear) toUnload.clear();
-                burst = MultiBurst.burst.burst(copy.size());
-                burst.setMulticore(copy.size() > tectonicLimit);
-                for (int j = 0; j < copy.size(); j++) {
-                    Long id = copy.get(j);
-                    if (id == null) {
-                        Iris.error("Null id in unloadTectonicPlate at index " + j);
-                        continue;
+                if (i.getValue().publish()) {
+                    uncommitted.remove(i.getKey(), i.getValue());
+                    if (i.getValue().isPending()) {
+                        uncommitted.putIfAbsent(i.getKey(), i.getValue());
                     }
+                }
+            } catch (IOException e) {
+                Iris.reportError(e);
+            }
+        }
+
+        TectonicPlate.forceDirectory(dataFolder);
+    }
+
+    public int getUnloadingRegionCount() {
+        return unloadingRegions.size();
+    }
 
-                    burst.queue(() ->
-                            hyperLock.withLong(id, () -> {
-                                TectonicPlate m = loadedRegions.get(id);
-                                if (m != null) {
-                                    if (m.inUse()) {
-                                        Iris.debug("Tectonic Plate was added to unload while in use " + C.DARK_GREEN + m.getX() + " " + m.getZ());
-                                        if (disableClear) toUnload.remove(id);
-                                        lastUse.put(id, M.ms());
-                                        return;
-                                    }
-                                    try {
-                                        m.write(fileForRegion(dataFolder, id));
-                                        loadedRegions.remove(id);
-                                        lastUse.remove(id);
-                                        if (disableClear) toUnload.remove(id);
-                                        i.incrementAndGet();
-                                        Iris.debug("Unloaded Tectonic Plate " + C.DARK_GREEN + Cache.keyX(id) + " " + Cache.keyZ(id));
-                                        IrisEngineSVC.instance.unloadActiveAlive.reset();
-                                    } catch (IOException e) {
-                                        Iris.reportError(e);
-                                    }
-                                }
-                            }));
+    /**
+     * Queue a changed plate that was just unloaded for writing on the mantle writer.
+     * Until the write is done the plate stays reachable so getSafe can pick it back up
+     * instead of reading a stale file. Must be called while holding the region lock and a write slot,
+     * which is given back once the write is done. Once the mantle is closed the writer takes no more
+     * work, then the plate is written right away.
+     *
+     * @param id    the region key
+     * @param plate the unloaded plate
+     */
+    private void writeBehind(long id, TectonicPlate plate) {
+        unloadingRegions.put(id, plate);
+        try {
+            ioWriter.execute(() -> {
+                try {
+                    writeBehindLoop(id, plate);
+                } finally {
+                    writeSlots.release();
                 }
-                burst.complete();
-            } catch (Throwable e) {
-                e.printStackTrace();
-                if (burst != null)
-                    burst.complete();
+            });
+        } catch (RejectedExecutionException e) {
+            writeSlots.release();
+            try {
+                writePlate(id, plate);
+            } catch (IOException ex) {
+                Iris.reportError(ex);
             } finally {
-                unloadLock.unlock();
-                ioTectonicUnload.set(true);
+                unloadingRegions.remove(id);
             }
-            return i.get();
         }
-        return i.get();
     }
 
+    private void writeBehindLoop(long id, TectonicPlate plate) {
+        boolean again;
+        do {
+            boolean failed = false;
+            try {
+                writePlate(id, plate);
+                missingRegions.remove(id);
+                Iris.debug("Unloaded Tectonic Plate " + C.DARK_GREEN + Cache.keyX(id) + " " + Cache.keyZ(id));
+            } catch (Throwable e) {
+                Iris.error("Failed to write Tectonic Plate " + Cache.keyX(id) + " " + Cache.keyZ(id) + ", keeping it loaded.");
+                Iris.reportError(e);
+                failed = true;
+            }
+
+            boolean finalFailed = failed;
+            again = hyperLock.withResult(Cache.keyX(id), Cache.keyZ(id), () -> {
+                if (unloadingRegions.get(id) != plate) {
+                    return false;
+                }
+
+                if (loadedRegions.peek(id) == plate) {
+                    unloadingRegions.remove(id);
+                    return false;
+                }
+
+                if (finalFailed) {
+                    unloadingRegions.remove(id);
+                    if (!closed.get()) {
+                        loadedRegions.put(id, plate);
+                    }
+                    return false;
+                }
+
+                if (plate.isDirty()) {
+                    return true;
+                }
+
+                unloadingRegions.remove(id);
+                return false;
+            });
+        } while (again);
+    }
 
     /**
      * This retreives a future of the Tectonic Plate at the given coordinates.
@@ -516,16 +853,6 @@ public class Mantle {
      */
     @RegionCoordinates
     private TectonicPlate get(int x, int z) {
-        if (ioTrim.get()) {
-            try {
-                return getSafe(x, z).get();
-            } catch (InterruptedException e) {
-                e.printStackTrace();
-            } catch (ExecutionException e) {
-                e.printStackTrace();
-            }
-        }
-
         TectonicPlate p = loadedRegions.get(key(x, z));
 
         if (p != null) {
@@ -556,24 +883,45 @@ public class Mantle {
      */
     @RegionCoordinates
     private Future<TectonicPlate> getSafe(int x, int z) {
-        Long k = key(x, z);
+        long k = key(x, z);
         TectonicPlate p = loadedRegions.get(k);
 
         if (p != null) {
-            lastUse.put(k, M.ms());
             return CompletableFuture.completedFuture(p);
         }
 
         return ioBurst.completeValue(() -> hyperLock.withResult(x, z, () -> {
-            lastUse.put(k, M.ms());
+            missingRegions.remove(k);
             TectonicPlate region = loadedRegions.get(k);
 
             if (region != null) {
                 return region;
             }
 
+            region = prefetchedRegions.remove(k);
+            if (region != null) {
+                loadedRegions.put(k, region);
+                prefetchHits.incrementAndGet();
+                return region;
+            }
+
+            region = unloadingRegions.get(k);
+            if (region != null) {
+                loadedRegions.put(k, region);
+                Iris.debug("Recovered Tectonic Plate from the write queue " + C.DARK_GREEN + x + " " + z);
+                return region;
+            }
+
+            region = uncommitted.get(k);
+            if (region != null) {
+                loadedRegions.put(k, region);
+                Iris.debug("Recovered Tectonic Plate from the group commit " + C.DARK_GREEN + x + " " + z);
+                return region;
+            }
+
             File file = fileForRegion(dataFolder, x, z);
             if (file.exists()) {
+                prefetchMisses.incrementAndGet();
                 try {
                     Iris.addPanic("reading.tectonic-plate", file.getAbsolutePath());
                     region = TectonicPlate.read(worldHeight, file);
@@ -606,6 +954,86 @@ public class Mantle {
         }));
     }
 
+    /**
+     * Warm up the tectonic plate at the given coordinates on the io pool so it is
+     * ready before the first chunk in it is needed. Every chunk record of the plate is read
+     * and decoded, so generating its chunks never waits on the disk. Plates without a file are skipped.
+     *
+     * @param x the region x
+     * @param z the region z
+     */
+    @RegionCoordinates
+    public void prefetch(int x, int z) {
+        long k = key(x, z);
+        if (closed.get()
+                || loadedRegions.containsKey(k)
+                || prefetchedRegions.containsKey(k)
+                || missingRegions.containsKey(k)
+                || unloadingRegions.containsKey(k)
+                || uncommitted.containsKey(k)) {
+            return;
+        }
+
+        if (prefetching.incrementAndGet() > Math.max(IrisSettings.get().getPerformance().getMantlePrefetchLimit(), 0)) {
+            prefetching.decrementAndGet();
+            return;
+        }
+
+        ioBurst.lazy(() -> {
+            try {
+                hyperLock.with(x, z, () -> {
+                    if (closed.get()
+                            || loadedRegions.containsKey(k)
+                            || prefetchedRegions.containsKey(k)
+                            || unloadingRegions.containsKey(k)
+                            || uncommitted.containsKey(k)) {
+                        return;
+                    }
+
+                    File file = fileForRegion(dataFolder, k);
+                    if (!file.exists()) {
+                        markMissing(k);
+                        return;
+                    }
+
+                    try {
+                        TectonicPlate plate = TectonicPlate.read(worldHeight, file);
+                        int chunks = plate.preload();
+                        prefetchedRegions.tick(M.ms());
+                        prefetchedRegions.put(k, plate);
+                        Iris.debug("Prefetched Tectonic Plate " + C.DARK_GREEN + x + " " + z + C.DARK_AQUA + " with " + chunks + " chunks");
+                    } catch (Throwable e) {
+                        Iris.debug("Failed to prefetch Tectonic Plate " + C.DARK_GREEN + x + " " + z);
+                        Iris.reportError(e);
+                    }
+                });
+            } finally {
+                prefetching.decrementAndGet();
+            }
+        });
+    }
+
+    /**
+     * @return the amount of demanded plates that were already prefetched with all of their chunks decoded
+     */
+    public long getPrefetchHits() {
+        return prefetchHits.get();
+    }
+
+    /**
+     * @return the amount of demanded plates that had to be read from disk
+     */
+    public long getPrefetchMisses() {
+        return prefetchMisses.get();
+    }
+
+    /**
+     * @return the amount of prefetched plates that were unloaded without being used
+     */
+    public long getPrefetchWasted() {
+        return prefetchWasted.get();
+    }
+
     public void saveAll() {
 
     }
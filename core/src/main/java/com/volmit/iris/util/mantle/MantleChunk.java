@@ -20,19 +20,25 @@ package com.volmit.iris.util.mantle;
 
 import com.volmit.iris.Iris;
 import com.volmit.iris.util.documentation.ChunkCoordinates;
-import com.volmit.iris.util.function.Consumer4;
+import com.volmit.iris.util.function.IntConsumer4;
 import com.volmit.iris.util.io.CountingDataInputStream;
 import com.volmit.iris.util.matter.IrisMatter;
 import com.volmit.iris.util.matter.Matter;
 import com.volmit.iris.util.matter.MatterSlice;
 import lombok.Getter;
 
+import java.io.ByteArrayInputStream;
 import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
 import java.io.DataOutputStream;
 import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.atomic.AtomicInteger;
 import java.util.concurrent.atomic.AtomicIntegerArray;
 import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.function.IntPredicate;
+import java.util.function.Predicate;
 
 /**
  * Represents a mantle chunk. Mantle chunks contain sections of matter (see matter api)
@@ -46,6 +52,9 @@ public class MantleChunk {
     private final AtomicIntegerArray flags;
     private final AtomicReferenceArray<Matter> sections;
     private final AtomicInteger ref = new AtomicInteger();
+    private final AtomicBoolean dirty = new AtomicBoolean();
+    private final AtomicBoolean resized = new AtomicBoolean(true);
+    private volatile long memory;
 
     /**
      * Create a mantle chunk
@@ -101,6 +110,73 @@ public class MantleChunk {
                 TectonicPlate.addError();
             }
         }
+
+        markClean();
+    }
+
+    /**
+     * Rewrite a serialized mantle chunk without reading its sections. Once a chunk is flagged as
+     * {@link MantleFlag#CLEANED} the given slice types are dropped, sections without slices are always dropped
+     *
+     * @param data    the serialized chunk
+     * @param cleaned    the canonical class names of the slice types removed by cleaning
+     * @param cleanedIds the slice ids of the slice types removed by cleaning
+     * @return the rewritten chunk or null if it has neither flags nor sections left
+     * @throws IOException shit happens
+     */
+    public static byte[] compact(byte[] data, Predicate<String> cleaned, IntPredicate cleanedIds) throws IOException {
+        DataInputStream din = new DataInputStream(new ByteArrayInputStream(data));
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(data.length);
+        DataOutputStream dos = new DataOutputStream(bytes);
+        dos.writeByte(din.readByte());
+        dos.writeByte(din.readByte());
+        int s = din.readByte();
+        dos.writeByte(s);
+
+        boolean flagged = false;
+        boolean clean = false;
+        for (int i = 0; i < MantleFlag.values().length; i++) {
+            boolean f = din.readBoolean();
+            flagged |= f;
+            clean |= f && i == MantleFlag.CLEANED.ordinal();
+            dos.writeBoolean(f);
+        }
+
+        Predicate<String> drop = clean ? cleaned : (c) -> false;
+        IntPredicate dropIds = clean ? cleanedIds : (c) -> false;
+        int sections = 0;
+        for (int i = 0; i < s; i++) {
+            int size = din.readInt();
+            byte[] section = null;
+
+            if (size > 0) {
+                section = new byte[size];
+                din.readFully(section);
+                section = Matter.compact(section, drop, dropIds);
+            }
+
+            if (section == null) {
+                dos.writeInt(0);
+                continue;
+            }
+
+            dos.writeInt(section.length);
+            dos.write(section);
+            sections++;
+        }
+
+        return flagged || sections > 0 ? bytes.toByteArray() : null;
+    }
+
+    /**
+     * Load a mantle chunk from a buffer
+     *
+     * @param sectionHeight the height of the world in sections (blocks >> 4)
+     * @param buffer        the serialized chunk
+     * @throws IOException shit happens
+     */
+    public MantleChunk(int sectionHeight, ByteBuffer buffer) throws IOException {
+        this(sectionHeight, CountingDataInputStream.wrap(buffer));
     }
 
     public boolean inUse() {
@@ -116,8 +192,122 @@ public class MantleChunk {
         ref.decrementAndGet();
     }
 
+    /**
+     * Take a read only snapshot of this chunk. The snapshot shares the storage of the requested
+     * slices (or of all slices if no type is given) and a slice copies its storage on the first
+     * write after that, so readers neither need to {@link #use()} the chunk nor see writes made
+     * after it was taken, no matter who holds a reference to the live sections
+     *
+     * @param types the slice types to share with the snapshot
+     * @return the snapshot
+     */
+    public MantleChunkSnapshot snapshot(Class<?>... types) {
+        boolean[] f = new boolean[flags.length()];
+        Matter[] s = new Matter[sections.length()];
+
+        for (int i = 0; i < f.length; i++) {
+            f[i] = flags.get(i) == 1;
+        }
+
+        for (int i = 0; i < s.length; i++) {
+            Matter matter = sections.get(i);
+
+            if (matter != null) {
+                s[i] = share(matter, types);
+            }
+        }
+
+        return new MantleChunkSnapshot(x, z, f, s);
+    }
+
+    private static Matter share(Matter matter, Class<?>[] types) {
+        Matter m = new IrisMatter(matter.getWidth(), matter.getHeight(), matter.getDepth());
+
+        if (types.length == 0) {
+            matter.getSliceMap().forEach((k, v) -> m.slice(k).forceShare(v));
+            return m;
+        }
+
+        for (Class<?> i : types) {
+            MatterSlice<?> slice = matter.getSlice(i);
+
+            if (slice != null) {
+                m.slice(i).forceShare(slice);
+            }
+        }
+
+        return m;
+    }
+
     public void flag(MantleFlag flag, boolean f) {
-        flags.set(flag.ordinal(), f ? 1 : 0);
+        if (flags.getAndSet(flag.ordinal(), f ? 1 : 0) != (f ? 1 : 0)) {
+            dirty.set(true);
+        }
+    }
+
+    /**
+     * Check if this chunk (or any of its sections) changed since it was read or last saved
+     *
+     * @return true if it has unsaved changes
+     */
+    public boolean isDirty() {
+        if (dirty.get()) {
+            return true;
+        }
+
+        for (int i = 0; i < sections.length(); i++) {
+            Matter matter = sections.get(i);
+            if (matter != null && matter.isDirty()) {
+                return true;
+            }
+        }
+
+        return false;
+    }
+
+    /**
+     * Mark this chunk and all of its sections as saved
+     */
+    public void markClean() {
+        dirty.set(false);
+
+        for (int i = 0; i < sections.length(); i++) {
+            Matter matter = sections.get(i);
+            if (matter != null) {
+                matter.markClean();
+            }
+        }
+    }
+
+    public void markDirty() {
+        dirty.set(true);
+    }
+
+    /**
+     * Roughly estimate the heap used by this chunk and its sections. The sections are only walked
+     * again if one of them was handed out for writing, deleted or trimmed since the last estimate
+     *
+     * @return the estimated size in bytes
+     */
+    public long estimateMemoryUsage() {
+        if (resized.getAndSet(false)) {
+            memory = measure();
+        }
+
+        return memory;
+    }
+
+    private long measure() {
+        long size = 96 + (flags.length() * 4L) + (sections.length() * 8L);
+
+        for (int i = 0; i < sections.length(); i++) {
+            Matter matter = sections.get(i);
+            if (matter != null) {
+                size += matter.estimateMemoryUsage();
+            }
+        }
+
+        return size;
     }
 
     public void raiseFlag(MantleFlag flag, Runnable r) {
@@ -170,7 +360,10 @@ public class MantleChunk {
      */
     @ChunkCoordinates
     public void delete(int section) {
-        sections.set(section, null);
+        if (sections.getAndSet(section, null) != null) {
+            dirty.set(true);
+            resized.set(true);
+        }
     }
 
     /**
@@ -181,6 +374,10 @@ public class MantleChunk {
      */
     @ChunkCoordinates
     public Matter getOrCreate(int section) {
+        if (!resized.get()) {
+            resized.set(true);
+        }
+
         Matter matter = get(section);
 
         if (matter == null) {
@@ -229,6 +426,7 @@ public class MantleChunk {
     private void trimSlice(int i) {
         if (exists(i)) {
             Matter m = get(i);
+            resized.set(true);
 
             if (m.getSliceMap().isEmpty()) {
                 sections.set(i, null);
@@ -241,7 +439,7 @@ public class MantleChunk {
         }
     }
 
-    public <T> void iterate(Class<T> type, Consumer4<Integer, Integer, Integer, T> iterator) {
+    public <T> void iterate(Class<T> type, IntConsumer4<T> iterator) {
         for (int i = 0; i < sections.length(); i++) {
             int bs = (i << 4);
             Matter matter = get(i);
@@ -261,6 +459,8 @@ public class MantleChunk {
             Matter m = sections.get(i);
             if (m != null && m.hasSlice(c)) {
                 m.deleteSlice(c);
+                dirty.set(true);
+                resized.set(true);
             }
         }
     }
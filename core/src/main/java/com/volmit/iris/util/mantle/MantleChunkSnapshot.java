@@ -0,0 +1,113 @@
+/*
+ * Iris is a World Generator for Minecraft Bukkit Servers
+ * Copyright (c) 2022 Arcane Arts (Volmit Software)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package com.volmit.iris.util.mantle;
+
+import com.volmit.iris.util.documentation.BlockCoordinates;
+import com.volmit.iris.util.documentation.ChunkCoordinates;
+import com.volmit.iris.util.function.IntConsumer4;
+import com.volmit.iris.util.matter.Matter;
+import com.volmit.iris.util.matter.MatterSlice;
+import lombok.Getter;
+
+/**
+ * A read only view of a mantle chunk at the time it was taken (see {@link MantleChunk#snapshot()}).
+ * Snapshots share the slice storage of the chunk until it writes to a slice, and do not keep the tectonic plate loaded.
+ */
+public class MantleChunkSnapshot {
+    @Getter
+    private final int x;
+    @Getter
+    private final int z;
+    private final boolean[] flags;
+    private final Matter[] sections;
+
+    MantleChunkSnapshot(int x, int z, boolean[] flags, Matter[] sections) {
+        this.x = x;
+        this.z = z;
+        this.flags = flags;
+        this.sections = sections;
+    }
+
+    public boolean isFlagged(MantleFlag flag) {
+        return flags[flag.ordinal()];
+    }
+
+    public int getSectionHeight() {
+        return sections.length;
+    }
+
+    /**
+     * Check if a section exists in this snapshot
+     *
+     * @param section the section (0 - (worldHeight >> 4))
+     * @return true if it exists
+     */
+    @ChunkCoordinates
+    public boolean exists(int section) {
+        return get(section) != null;
+    }
+
+    /**
+     * Get the matter at the given section or null if it doesnt exist. The matter must not be modified
+     *
+     * @param section the section (0 - (worldHeight >> 4))
+     * @return the matter or null if it doesnt exist
+     */
+    @ChunkCoordinates
+    public Matter get(int section) {
+        return section < 0 || section >= sections.length ? null : sections[section];
+    }
+
+    /**
+     * Get data at the given position in this chunk
+     *
+     * @param x   the x within the chunk (0-15)
+     * @param y   the y (0 - worldHeight)
+     * @param z   the z within the chunk (0-15)
+     * @param t   the class representing the type of data being requested
+     * @param <T> the type assumed from the provided class
+     * @return the data or null if it doesnt exist
+     */
+    @BlockCoordinates
+    public <T> T get(int x, int y, int z, Class<T> t) {
+        Matter matter = get(y >> 4);
+
+        if (matter == null) {
+            return null;
+        }
+
+        MatterSlice<T> slice = matter.getSlice(t);
+        return slice == null ? null : slice.get(x & 15, y & 15, z & 15);
+    }
+
+    public <T> void iterate(Class<T> type, IntConsumer4<T> iterator) {
+        for (int i = 0; i < sections.length; i++) {
+            int bs = (i << 4);
+            Matter matter = sections[i];
+
+            if (matter != null) {
+                MatterSlice<T> t = matter.getSlice(type);
+
+                if (t != null) {
+                    t.iterateSync((a, b, c, f) -> iterator.accept(a, b + bs, c, f));
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,164 @@
+/*
+ * Iris is a World Generator for Minecraft Bukkit Servers
+ * Copyright (c) 2022 Arcane Arts (Volmit Software)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package com.volmit.iris.util.mantle;
+
+import com.volmit.iris.core.tools.IrisToolbelt;
+import com.volmit.iris.util.format.Form;
+import com.volmit.iris.util.matter.MatterCavern;
+import com.volmit.iris.util.matter.MatterFluidBody;
+import com.volmit.iris.util.matter.Sliced;
+import com.volmit.iris.util.matter.slices.BlockMatter;
+import com.volmit.iris.util.matter.slices.CavernMatter;
+import com.volmit.iris.util.matter.slices.StringMatter;
+import com.volmit.iris.util.parallel.BurstExecutor;
+
+import java.io.File;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+
+/**
+ * Compacts the tectonic plates of a mantle folder on disk. Slices that are deleted once a chunk
+ * is cleaned are dropped from every cleaned chunk, together with empty sections and chunks.
+ * Slice types retained through {@link IrisToolbelt#retainMantleDataForSlice(String)} are kept,
+ * like {@link Mantle#deleteChunkSlice(int, int, Class)} does. The mantle must not be open while it is compacted.
+ * <p>
+ * Runs without a server through {@link #main(String[])} with the plugin jar & the server api on the classpath:
+ * java -cp ... com.volmit.iris.util.mantle.MantleCompactor &lt;world or mantle folder&gt; [threads]
+ */
+public class MantleCompactor {
+    /**
+     * The slice types deleted by {@link com.volmit.iris.engine.mantle.EngineMantle#cleanupChunk(int, int)}
+     */
+    public static final Set<String> CLEANED_SLICES = Set.of(
+            "org.bukkit.block.data.BlockData",
+            String.class.getCanonicalName(),
+            MatterCavern.class.getCanonicalName(),
+            MatterFluidBody.class.getCanonicalName());
+
+    /**
+     * The slice ids of {@link #CLEANED_SLICES} mapped to their type, used by sections written since matter version 2
+     */
+    public static final Map<Integer, String> CLEANED_SLICE_IDS = Map.of(
+            BlockMatter.class.getAnnotation(Sliced.class).id(), "org.bukkit.block.data.BlockData",
+            StringMatter.class.getAnnotation(Sliced.class).id(), String.class.getCanonicalName(),
+            CavernMatter.class.getAnnotation(Sliced.class).id(), MatterCavern.class.getCanonicalName());
+
+    private static boolean isRetained(String type) {
+        return !IrisToolbelt.toolbeltConfiguration.isEmpty() && IrisToolbelt.toolbeltConfiguration.getOrDefault("retain.mantle." + type, false);
+    }
+
+    /**
+     * Compact every tectonic plate in the given mantle folder
+     *
+     * @param folder   the mantle folder
+     * @param executor the executor to compact the plates on
+     * @param log      receives progress & errors
+     * @return the result
+     */
+    public static Result compact(File folder, ExecutorService executor, Consumer<String> log) {
+        File[] files = folder.listFiles((dir, name) -> name.endsWith(".ttp.lz4b"));
+        if (files == null || files.length == 0) {
+            return new Result(0, 0, 0, 0);
+        }
+
+        Set<String> cleaned = CLEANED_SLICES.stream().filter(i -> !isRetained(i)).collect(Collectors.toSet());
+        Set<Integer> cleanedIds = CLEANED_SLICE_IDS.entrySet().stream()
+                .filter(i -> cleaned.contains(i.getValue()))
+                .map(Map.Entry::getKey)
+                .collect(Collectors.toSet());
+
+        if (cleaned.size() < CLEANED_SLICES.size()) {
+            log.accept("Retaining " + CLEANED_SLICES.stream().filter(i -> !cleaned.contains(i)).collect(Collectors.joining(", ")));
+        }
+
+        AtomicInteger done = new AtomicInteger();
+        AtomicInteger failed = new AtomicInteger();
+        AtomicLong before = new AtomicLong();
+        AtomicLong after = new AtomicLong();
+        int step = Math.max(files.length / 20, 1);
+        BurstExecutor burst = new BurstExecutor(executor, files.length);
+
+        for (File i : files) {
+            burst.queue(() -> {
+                long size = i.length();
+                try {
+                    after.addAndGet(TectonicPlate.compact(i, cleaned::contains, cleanedIds::contains));
+                    before.addAndGet(size);
+                } catch (Throwable e) {
+                    failed.incrementAndGet();
+                    log.accept("Failed to compact " + i.getName() + ", leaving it as is: " + e);
+                }
+
+                int d = done.incrementAndGet();
+                if (d % step == 0) {
+                    log.accept("Compacted " + d + " of " + files.length + " Tectonic Plates");
+                }
+            });
+        }
+
+        burst.complete();
+        return new Result(files.length, failed.get(), before.get(), after.get());
+    }
+
+    public static void main(String[] args) {
+        if (args.length < 1) {
+            System.out.println("Usage: MantleCompactor <world or mantle folder> [threads]");
+            return;
+        }
+
+        File folder = new File(args[0]);
+        if (new File(folder, "mantle").isDirectory()) {
+            folder = new File(folder, "mantle");
+        }
+
+        int threads = args.length > 1 ? Integer.parseInt(args[1]) : Runtime.getRuntime().availableProcessors();
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        try {
+            Result result = compact(folder, executor, System.out::println);
+            System.out.println(result);
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    /**
+     * @param plates the amount of plates found
+     * @param failed the amount of plates that could not be compacted
+     * @param before the size of the compacted plates before
+     * @param after  the size of the compacted plates after
+     */
+    public record Result(int plates, int failed, long before, long after) {
+        public long reclaimed() {
+            return before - after;
+        }
+
+        @Override
+        public String toString() {
+            return "Compacted " + (plates - failed) + " of " + plates + " Tectonic Plates, "
+                    + Form.memSize(before, 2) + " -> " + Form.memSize(after, 2)
+                    + " (" + Form.memSize(reclaimed(), 2) + " reclaimed)";
+        }
+    }
+}
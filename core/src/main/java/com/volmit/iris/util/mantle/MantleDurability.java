@@ -0,0 +1,39 @@
+/*
+ * Iris is a World Generator for Minecraft Bukkit Servers
+ * Copyright (c) 2022 Arcane Arts (Volmit Software)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package com.volmit.iris.util.mantle;
+
+/**
+ * How hard the mantle tries to get saved plates onto the disk
+ */
+public enum MantleDurability {
+    /**
+     * Every save is flushed to the disk before it completes
+     */
+    SYNC,
+    /**
+     * Saves are written to temporary files that a periodic group commit flushes, moves over the plate files
+     * and seals with a single flush of the directory. A crash loses at most the saves since the last commit
+     */
+    GROUP,
+    /**
+     * Saves are never flushed, the operating system writes them back whenever it wants. Saves only append the
+     * records of changed chunks to the plate file and rewrite its header in place, so a crash can leave a plate torn
+     */
+    NONE
+}
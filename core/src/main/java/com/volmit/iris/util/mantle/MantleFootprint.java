@@ -0,0 +1,159 @@
+/*
+ * Iris is a World Generator for Minecraft Bukkit Servers
+ * Copyright (c) 2022 Arcane Arts (Volmit Software)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package com.volmit.iris.util.mantle;
+
+import com.volmit.iris.util.collection.KList;
+import com.volmit.iris.util.format.Form;
+import com.volmit.iris.util.matter.Matter;
+
+import java.io.File;
+import java.util.function.Consumer;
+
+/**
+ * Measures the heap footprint of loaded tectonic plates. Plates are read from a mantle
+ * folder, every chunk is loaded and the retained heap is divided over the loaded sections
+ * & slices. Run it against the same world on two builds to compare the per section overhead.
+ * <p>
+ * Runs without a server through {@link #main(String[])} with the plugin jar & the server api on the classpath:
+ * java -cp ... com.volmit.iris.util.mantle.MantleFootprint &lt;world or mantle folder&gt; [world height] [max plates]
+ */
+public class MantleFootprint {
+    /**
+     * Measure the heap retained by the plates in the given mantle folder
+     *
+     * @param folder      the mantle folder
+     * @param worldHeight the height of the world in blocks
+     * @param maxPlates   the maximum amount of plates to load
+     * @param log         receives progress & errors
+     * @return the result
+     */
+    public static Result measure(File folder, int worldHeight, int maxPlates, Consumer<String> log) {
+        File[] files = folder.listFiles((dir, name) -> name.endsWith(".ttp.lz4b"));
+        if (files == null || files.length == 0) {
+            return new Result(0, 0, 0, 0, 0, 0);
+        }
+
+        KList<TectonicPlate> plates = new KList<>();
+        int sectionHeight = worldHeight >> 4;
+        long chunks = 0;
+        long sections = 0;
+        long slices = 0;
+        long base = usedHeap();
+
+        for (File i : files) {
+            if (plates.size() >= maxPlates) {
+                break;
+            }
+
+            try {
+                TectonicPlate plate = TectonicPlate.read(worldHeight, i);
+                plates.add(plate);
+
+                for (int x = 0; x < 32; x++) {
+                    for (int z = 0; z < 32; z++) {
+                        MantleChunk chunk = plate.get(x, z);
+
+                        if (chunk == null) {
+                            continue;
+                        }
+
+                        chunks++;
+                        for (int s = 0; s < sectionHeight; s++) {
+                            Matter matter = chunk.get(s);
+
+                            if (matter != null) {
+                                sections++;
+                                slices += matter.getSliceMap().size();
+                            }
+                        }
+                    }
+                }
+            } catch (Throwable e) {
+                log.accept("Failed to read " + i.getName() + ", skipping it: " + e);
+            }
+        }
+
+        long heap = usedHeap() - base;
+        Result result = new Result(plates.size(), chunks, sections, slices, heap,
+                plates.stream().mapToLong(TectonicPlate::estimateMemoryUsage).sum());
+        plates.clear();
+        return result;
+    }
+
+    private static long usedHeap() {
+        Runtime runtime = Runtime.getRuntime();
+        long used = Long.MAX_VALUE;
+
+        for (int i = 0; i < 5; i++) {
+            System.gc();
+
+            try {
+                Thread.sleep(100);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            }
+
+            used = Math.min(used, runtime.totalMemory() - runtime.freeMemory());
+        }
+
+        return used;
+    }
+
+    public static void main(String[] args) {
+        if (args.length < 1) {
+            System.out.println("Usage: MantleFootprint <world or mantle folder> [world height] [max plates]");
+            return;
+        }
+
+        File folder = new File(args[0]);
+        if (new File(folder, "mantle").isDirectory()) {
+            folder = new File(folder, "mantle");
+        }
+
+        int height = args.length > 1 ? Integer.parseInt(args[1]) : 384;
+        int max = args.length > 2 ? Integer.parseInt(args[2]) : Integer.MAX_VALUE;
+        System.out.println(measure(folder, height, max, System.out::println));
+    }
+
+    /**
+     * @param plates    the amount of plates loaded
+     * @param chunks    the amount of chunks loaded
+     * @param sections  the amount of sections loaded
+     * @param slices    the amount of slices loaded
+     * @param heap      the measured heap retained by the plates
+     * @param estimated the heap estimated by the plates themselves
+     */
+    public record Result(int plates, long chunks, long sections, long slices, long heap, long estimated) {
+        public long perSection() {
+            return sections == 0 ? 0 : heap / sections;
+        }
+
+        public long perSlice() {
+            return slices == 0 ? 0 : heap / slices;
+        }
+
+        @Override
+        public String toString() {
+            return "Loaded " + plates + " Tectonic Plates, " + Form.f(chunks) + " chunks, " + Form.f(sections) + " sections, " + Form.f(slices) + " slices: "
+                    + Form.memSize(heap, 2) + " retained (estimated " + Form.memSize(estimated, 2) + "), "
+                    + Form.memSize(perSection(), 2) + " per section, " + Form.memSize(perSlice(), 2) + " per slice";
+        }
+    }
+}
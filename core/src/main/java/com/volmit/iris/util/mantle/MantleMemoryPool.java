@@ -0,0 +1,83 @@
+/*
+ * Iris is a World Generator for Minecraft Bukkit Servers
+ * Copyright (c) 2022 Arcane Arts (Volmit Software)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package com.volmit.iris.util.mantle;
+
+import com.volmit.iris.util.collection.KList;
+import com.volmit.iris.util.math.M;
+
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * Evicts tectonic plates across several mantles so their combined estimated
+ * size stays below a shared memory budget. Plates are weighted by how long they were idle
+ * times their size, so a large idle plate goes before several small ones that were used just as long ago.
+ */
+public class MantleMemoryPool {
+    /**
+     * Unload plates that were idle for at least the keep alive duration and,
+     * while the mantles are above the budget, the plates with the highest idle time times size.
+     *
+     * @param mantles   the mantles sharing the budget
+     * @param budget    the budget in bytes
+     * @param keepAlive the idle duration in milliseconds after which a plate is always unloaded
+     * @return the amount of unloaded plates
+     */
+    public static int evict(List<Mantle> mantles, long budget, long keepAlive) {
+        KList<Plate> plates = new KList<>();
+        long usage = 0;
+
+        for (Mantle i : mantles) {
+            if (!i.isClosed()) {
+                i.collectPlates(plates);
+            }
+        }
+
+        for (Plate i : plates) {
+            usage += i.size();
+        }
+
+        long now = M.ms();
+        plates.sort(Comparator.comparingDouble((Plate i) -> i.weight(now)).reversed());
+        int count = 0;
+
+        for (Plate i : plates) {
+            if (usage <= budget && now - i.lastUse() < keepAlive) {
+                continue;
+            }
+
+            if (i.mantle().unloadTectonicPlate(i.key())) {
+                usage -= i.size();
+                count++;
+            }
+        }
+
+        return count;
+    }
+
+    public record Plate(Mantle mantle, long key, long lastUse, long size) {
+        /**
+         * @param now the current time in milliseconds
+         * @return the idle time times the size of this plate, higher is evicted first
+         */
+        public double weight(long now) {
+            return (double) Math.max(now - lastUse, 1) * size;
+        }
+    }
+}
@@ -0,0 +1,362 @@
+/*
+ * Iris is a World Generator for Minecraft Bukkit Servers
+ * Copyright (c) 2022 Arcane Arts (Volmit Software)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package com.volmit.iris.util.mantle;
+
+import com.volmit.iris.util.collection.KList;
+
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * An open addressing table from region keys to values. Lookups are lock free and
+ * never box the key, writes are serialized on the table.
+ * <p>
+ * Every slot also carries the clock value of its last access. The clock is a coarse
+ * epoch advanced with {@link #tick(long)} so a lookup only writes when the epoch changed.
+ * A slot stamped with the epoch before the latest tick was used after that epoch began,
+ * so its last use is reported as the latest tick.
+ *
+ * @param <T> the value type
+ */
+public class RegionTable<T> {
+    private static final long EMPTY = Long.MIN_VALUE;
+    private static final int MIN_CAPACITY = 64;
+    private volatile Table<T> table;
+    private volatile long clock;
+    private volatile long previous;
+    private volatile int size;
+    private int used;
+
+    public RegionTable(long clock) {
+        this.clock = clock;
+        this.previous = clock;
+        this.table = new Table<>(MIN_CAPACITY);
+    }
+
+    /**
+     * Advance the access clock
+     *
+     * @param clock the new epoch
+     */
+    public void tick(long clock) {
+        this.previous = this.clock;
+        this.clock = clock;
+    }
+
+    public long getClock() {
+        return clock;
+    }
+
+    /**
+     * Get the value for the given key and stamp it as used
+     *
+     * @param key the key
+     * @return the value or null
+     */
+    public T get(long key) {
+        Table<T> t = table;
+        int i = t.find(key);
+
+        if (i < 0) {
+            return null;
+        }
+
+        T value = t.values.get(i);
+
+        if (value != null) {
+            t.touch(i, clock);
+        }
+
+        return value;
+    }
+
+    /**
+     * Get the value for the given key without stamping it as used
+     *
+     * @param key the key
+     * @return the value or null
+     */
+    public T peek(long key) {
+        Table<T> t = table;
+        int i = t.find(key);
+        return i < 0 ? null : t.values.get(i);
+    }
+
+    /**
+     * Check for a key without stamping it as used
+     *
+     * @param key the key
+     * @return true if the key has a value
+     */
+    public boolean containsKey(long key) {
+        Table<T> t = table;
+        int i = t.find(key);
+        return i >= 0 && t.values.get(i) != null;
+    }
+
+    /**
+     * Stamp a key as used
+     *
+     * @param key the key
+     */
+    public void touch(long key) {
+        Table<T> t = table;
+        int i = t.find(key);
+
+        if (i >= 0) {
+            t.touch(i, clock);
+        }
+    }
+
+    /**
+     * Get the clock value of the last access of a key
+     *
+     * @param key the key
+     * @return the last access or -1 if the key has no value
+     */
+    public long getLastUse(long key) {
+        Table<T> t = table;
+        int i = t.find(key);
+        return i >= 0 && t.values.get(i) != null ? lastUse(t.stamps.get(i)) : -1;
+    }
+
+    public synchronized T put(long key, T value) {
+        if (key == EMPTY) {
+            throw new IllegalArgumentException("Key " + key + " is reserved");
+        }
+
+        if (value == null) {
+            return remove(key);
+        }
+
+        Table<T> t = table;
+        int i = t.find(key);
+
+        if (i >= 0) {
+            T old = t.values.getAndSet(i, value);
+            t.stamps.set(i, clock);
+
+            if (old == null) {
+                size++;
+            }
+
+            return old;
+        }
+
+        if ((used + 1) * 2 > t.capacity()) {
+            t = rehash(size + 1);
+        }
+
+        i = t.free(key);
+        t.stamps.set(i, clock);
+        t.values.set(i, value);
+        t.keys.set(i, key);
+        size++;
+        used++;
+        return null;
+    }
+
+    public synchronized T remove(long key) {
+        Table<T> t = table;
+        int i = t.find(key);
+
+        if (i < 0) {
+            return null;
+        }
+
+        T old = t.values.getAndSet(i, null);
+
+        if (old != null) {
+            size--;
+        }
+
+        return old;
+    }
+
+    /**
+     * Remove a key only if it is still mapped to the given value
+     *
+     * @param key   the key
+     * @param value the expected value
+     * @return true if it was removed
+     */
+    public synchronized boolean remove(long key, T value) {
+        Table<T> t = table;
+        int i = t.find(key);
+
+        if (i >= 0 && t.values.compareAndSet(i, value, null)) {
+            size--;
+            return true;
+        }
+
+        return false;
+    }
+
+    public synchronized void clear() {
+        table = new Table<>(MIN_CAPACITY);
+        size = 0;
+        used = 0;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    /**
+     * Iterate a weakly consistent view of the table
+     *
+     * @param consumer the consumer of key, value & last use
+     */
+    public void forEach(EntryConsumer<T> consumer) {
+        Table<T> t = table;
+
+        for (int i = 0; i < t.capacity(); i++) {
+            long key = t.keys.get(i);
+            T value = t.values.get(i);
+
+            if (key != EMPTY && value != null) {
+                consumer.accept(key, value, lastUse(t.stamps.get(i)));
+            }
+        }
+    }
+
+    public KList<T> values() {
+        KList<T> values = new KList<>();
+        forEach((k, v, l) -> values.add(v));
+        return values;
+    }
+
+    public long[] keys() {
+        long[] keys = new long[size];
+        int[] index = {0};
+        forEach((k, v, l) -> {
+            if (index[0] < keys.length) {
+                keys[index[0]++] = k;
+            }
+        });
+
+        return index[0] == keys.length ? keys : Arrays.copyOf(keys, index[0]);
+    }
+
+    private long lastUse(long stamp) {
+        return stamp == previous ? clock : stamp;
+    }
+
+    private Table<T> rehash(int minSize) {
+        int capacity = MIN_CAPACITY;
+
+        while (capacity < minSize * 4) {
+            capacity <<= 1;
+        }
+
+        Table<T> old = table;
+        Table<T> t = new Table<>(capacity);
+        int live = 0;
+
+        for (int i = 0; i < old.capacity(); i++) {
+            long key = old.keys.get(i);
+            T value = old.values.get(i);
+
+            if (key != EMPTY && value != null) {
+                int j = t.free(key);
+                t.stamps.set(j, old.stamps.get(i));
+                t.values.set(j, value);
+                t.keys.set(j, key);
+                live++;
+            }
+        }
+
+        table = t;
+        used = live;
+        size = live;
+        return t;
+    }
+
+    @FunctionalInterface
+    public interface EntryConsumer<T> {
+        void accept(long key, T value, long lastUse);
+    }
+
+    private static class Table<T> {
+        private final AtomicLongArray keys;
+        private final AtomicReferenceArray<T> values;
+        private final AtomicLongArray stamps;
+        private final int mask;
+
+        private Table(int capacity) {
+            keys = new AtomicLongArray(capacity);
+            values = new AtomicReferenceArray<>(capacity);
+            stamps = new AtomicLongArray(capacity);
+            mask = capacity - 1;
+
+            for (int i = 0; i < capacity; i++) {
+                keys.set(i, EMPTY);
+            }
+        }
+
+        private int capacity() {
+            return mask + 1;
+        }
+
+        private int find(long key) {
+            int i = mix(key) & mask;
+
+            while (true) {
+                long k = keys.get(i);
+
+                if (k == key) {
+                    return i;
+                }
+
+                if (k == EMPTY) {
+                    return -1;
+                }
+
+                i = (i + 1) & mask;
+            }
+        }
+
+        private int free(long key) {
+            int i = mix(key) & mask;
+
+            while (keys.get(i) != EMPTY) {
+                i = (i + 1) & mask;
+            }
+
+            return i;
+        }
+
+        private void touch(int i, long clock) {
+            if (stamps.get(i) != clock) {
+                stamps.lazySet(i, clock);
+            }
+        }
+
+        private static int mix(long key) {
+            long h = key * 0x9E3779B97F4A7C15L;
+            h ^= h >>> 32;
+            return (int) (h ^ (h >>> 16));
+        }
+    }
+}
@@ -21,6 +21,7 @@ package com.volmit.iris.util.mantle;
 import com.volmit.iris.Iris;
 import com.volmit.iris.engine.EnginePanic;
 import com.volmit.iris.engine.data.cache.Cache;
+import com.volmit.iris.util.collection.KList;
 import com.volmit.iris.util.collection.KSet;
 import com.volmit.iris.util.documentation.ChunkCoordinates;
 import com.volmit.iris.util.format.C;
@@ -30,24 +31,66 @@ import com.volmit.iris.util.scheduling.PrecisionStopwatch;
 import lombok.Getter;
 import net.jpountz.lz4.LZ4BlockInputStream;
 import net.jpountz.lz4.LZ4BlockOutputStream;
+import net.jpountz.lz4.LZ4CompressorWithLength;
+import net.jpountz.lz4.LZ4DecompressorWithLength;
+import net.jpountz.lz4.LZ4Factory;
 
 import java.io.*;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
 import java.nio.channels.Channels;
 import java.nio.channels.FileChannel;
 import java.nio.file.Files;
 import java.nio.file.StandardCopyOption;
 import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
 import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.function.IntPredicate;
+import java.util.function.Predicate;
 
 /**
  * Tectonic Plates are essentially representations of regions in minecraft.
  * Tectonic Plates are fully atomic & thread safe
+ * <p>
+ * Plates are stored in an indexed format where every chunk is its own lz4 record
+ * <p>
+ * INT magic
+ * INT x
+ * INT z
+ * (LONG offset, INT length) record table (1024 entries, length 0 = no chunk)
+ * ??? records
+ * <p>
+ * Chunks are only read from their record once something asks for them, records are decompressed
+ * straight out of a memory mapping of the file where the platform allows it. Saving a plate
+ * writes a new file next to the old one (copying the records of unchanged chunks as they are) and
+ * atomically moves it over the old file, so a crash never leaves a torn plate behind. With
+ * {@link MantleDurability#NONE} saves only append the records of changed chunks instead. Plates in the old single-stream format are read
+ * in full and transparently rewritten in the indexed format the next time they are saved.
  */
 public class TectonicPlate {
     private static final KSet<Thread> errors = new KSet<>();
+    private static final int MAGIC = 0x54545032;
+    private static final int HEADER_SIZE = 12 + (1024 * 12);
+    private static final LZ4CompressorWithLength compressor = new LZ4CompressorWithLength(LZ4Factory.fastestInstance().fastCompressor());
+    private static final LZ4DecompressorWithLength decompressor = new LZ4DecompressorWithLength(LZ4Factory.fastestInstance().safeDecompressor());
+    private static final boolean MAP = !System.getProperty("os.name", "").toLowerCase().startsWith("windows");
+    private static final AtomicLong pendingIds = new AtomicLong();
 
     private final int sectionHeight;
     private final AtomicReferenceArray<MantleChunk> chunks;
+    private final AtomicLongArray offsets;
+    private final AtomicIntegerArray lengths;
+    private final Object saving = new Object();
+    private File file;
+    private boolean indexed;
+    private long garbage;
+    private volatile File pending;
+    private File flushed;
+    private MappedByteBuffer mapped;
+    private volatile boolean dirty;
 
     @Getter
     private final int x;
@@ -63,6 +106,8 @@ public class TectonicPlate {
     public TectonicPlate(int worldHeight, int x, int z) {
         this.sectionHeight = worldHeight >> 4;
         this.chunks = new AtomicReferenceArray<>(1024);
+        this.offsets = new AtomicLongArray(1024);
+        this.lengths = new AtomicIntegerArray(1024);
         this.x = x;
         this.z = z;
     }
@@ -101,12 +146,58 @@ public class TectonicPlate {
                 TectonicPlate.addError();
             }
         }
+
+        dirty = true;
+    }
+
+    /**
+     * Open an indexed tectonic plate. Only the record table is read, chunks are read on demand
+     *
+     * @param worldHeight the height of the world
+     * @param file        the file backing the records
+     * @param header      the header of the file
+     * @param size        the size of the file
+     */
+    private TectonicPlate(int worldHeight, File file, ByteBuffer header, long size) {
+        this(worldHeight, header.getInt(4), header.getInt(8));
+        this.file = file;
+        this.indexed = true;
+        long live = HEADER_SIZE;
+        header.position(12);
+
+        for (int i = 0; i < chunks.length(); i++) {
+            long offset = header.getLong();
+            int length = header.getInt();
+
+            if (length <= 0) continue;
+            if (offset < HEADER_SIZE || offset + length > size) {
+                Iris.error("Tectonic Plate " + file.getName() + " has an invalid record for Chunk[" + i + "], skipping it.");
+                continue;
+            }
+
+            offsets.set(i, offset);
+            lengths.set(i, length);
+            live += length;
+        }
+
+        garbage = Math.max(size - live, 0);
     }
 
     public static TectonicPlate read(int worldHeight, File file) throws IOException {
-        try (FileChannel fc = FileChannel.open(file.toPath(), StandardOpenOption.READ, StandardOpenOption.WRITE, StandardOpenOption.SYNC)) {
-            fc.lock();
+        try (FileChannel fc = FileChannel.open(file.toPath(), StandardOpenOption.READ)) {
+            ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE);
+            readFully(fc, header, 0);
+
+            if (!header.hasRemaining() && header.getInt(0) == MAGIC) {
+                return new TectonicPlate(worldHeight, file, header, fc.size());
+            }
+        }
 
+        return readLegacy(worldHeight, file);
+    }
+
+    private static TectonicPlate readLegacy(int worldHeight, File file) throws IOException {
+        try (FileChannel fc = FileChannel.open(file.toPath(), StandardOpenOption.READ)) {
             InputStream fin = Channels.newInputStream(fc);
             LZ4BlockInputStream lz4 = new LZ4BlockInputStream(fin);
             BufferedInputStream bis = new BufferedInputStream(lz4);
@@ -116,9 +207,7 @@ public class TectonicPlate {
         } finally {
             if (errors.remove(Thread.currentThread())) {
                 File dump = Iris.instance.getDataFolder("dump", file.getName() + ".bin");
-                try (FileChannel fc = FileChannel.open(file.toPath(), StandardOpenOption.READ, StandardOpenOption.WRITE, StandardOpenOption.SYNC)) {
-                    fc.lock();
-
+                try (FileChannel fc = FileChannel.open(file.toPath(), StandardOpenOption.READ)) {
                     InputStream fin = Channels.newInputStream(fc);
                     LZ4BlockInputStream lz4 = new LZ4BlockInputStream(fin);
                     Files.copy(lz4, dump.toPath(), StandardCopyOption.REPLACE_EXISTING);
@@ -127,6 +216,43 @@ public class TectonicPlate {
         }
     }
 
+    /**
+     * Check if anything in this plate changed since it was read or last saved
+     *
+     * @return true if the plate has to be written to keep its changes
+     */
+    public boolean isDirty() {
+        if (dirty) {
+            return true;
+        }
+
+        for (int i = 0; i < chunks.length(); i++) {
+            MantleChunk chunk = chunks.get(i);
+            if (chunk != null && chunk.isDirty())
+                return true;
+        }
+        return false;
+    }
+
+    /**
+     * Roughly estimate the heap used by this plate and its loaded chunks. Chunks keep their own
+     * estimate and only measure their sections again after they changed, so this is cheap to call often
+     *
+     * @return the estimated size in bytes
+     */
+    public long estimateMemoryUsage() {
+        long size = 128 + (chunks.length() * 20L);
+
+        for (int i = 0; i < chunks.length(); i++) {
+            MantleChunk chunk = chunks.get(i);
+            if (chunk != null) {
+                size += chunk.estimateMemoryUsage();
+            }
+        }
+
+        return size;
+    }
+
     public boolean inUse() {
         for (int i = 0; i < chunks.length(); i++) {
             MantleChunk chunk = chunks.get(i);
@@ -137,7 +263,7 @@ public class TectonicPlate {
     }
 
     /**
-     * Check if a chunk exists in this plate or not (same as get(x, z) != null)
+     * Check if a chunk exists in this plate or not. Unlike get(x, z) this will not read the chunk
      *
      * @param x the chunk relative x (0-31)
      * @param z the chunk relative z (0-31)
@@ -145,7 +271,8 @@ public class TectonicPlate {
      */
     @ChunkCoordinates
     public boolean exists(int x, int z) {
-        return get(x, z) != null;
+        int index = index(x, z);
+        return chunks.get(index) != null || lengths.get(index) > 0;
     }
 
     /**
@@ -157,16 +284,18 @@ public class TectonicPlate {
      */
     @ChunkCoordinates
     public MantleChunk get(int x, int z) {
-        return chunks.get(index(x, z));
+        return load(index(x, z));
     }
 
     /**
      * Clear all chunks from this tectonic plate
      */
-    public void clear() {
+    public synchronized void clear() {
         for (int i = 0; i < chunks.length(); i++) {
             chunks.set(i, null);
+            drop(i);
         }
+        dirty = true;
     }
 
     /**
@@ -176,8 +305,11 @@ public class TectonicPlate {
      * @param z the chunk relative z (0-31)
      */
     @ChunkCoordinates
-    public void delete(int x, int z) {
-        chunks.set(index(x, z), null);
+    public synchronized void delete(int x, int z) {
+        int index = index(x, z);
+        chunks.set(index, null);
+        drop(index);
+        dirty = true;
     }
 
     /**
@@ -189,32 +321,504 @@ public class TectonicPlate {
      */
     @ChunkCoordinates
     public MantleChunk getOrCreate(int x, int z) {
-        return chunks.updateAndGet(index(x, z), chunk -> {
-            if (chunk != null) return chunk;
+        int index = index(x, z);
+        MantleChunk chunk = load(index);
+
+        if (chunk != null) {
+            return chunk;
+        }
+
+        return chunks.updateAndGet(index, c -> {
+            if (c != null) return c;
             return new MantleChunk(sectionHeight, x & 31, z & 31);
         });
     }
 
+    /**
+     * Read every chunk of this plate from its record, so later lookups never touch the file
+     *
+     * @return the amount of chunks that were read
+     */
+    public int preload() {
+        int count = 0;
+        for (int i = 0; i < chunks.length(); i++) {
+            if (chunks.get(i) == null && lengths.get(i) > 0 && load(i) != null) {
+                count++;
+            }
+        }
+
+        return count;
+    }
+
     @ChunkCoordinates
     private int index(int x, int z) {
         return Cache.to1D(x, z, 0, 32, 32);
     }
 
     /**
-     * Write this tectonic plate to file
+     * Get the loaded chunk at the given index, reading it from its record if it isn't loaded yet
+     *
+     * @param index the chunk index
+     * @return the chunk or null if it doesnt exist
+     */
+    private MantleChunk load(int index) {
+        MantleChunk chunk = chunks.get(index);
+        if (chunk != null || lengths.get(index) == 0) {
+            return chunk;
+        }
+
+        synchronized (this) {
+            chunk = chunks.get(index);
+            if (chunk != null || lengths.get(index) == 0) {
+                return chunk;
+            }
+
+            ByteBuffer raw = null;
+            try {
+                Iris.addPanic("read-chunk", "Chunk[" + index + "]");
+                ByteBuffer record = readRecord(index);
+                raw = ByteBuffer.allocate(LZ4DecompressorWithLength.getDecompressedLength(record));
+                decompressor.decompress(record, raw);
+                chunk = new MantleChunk(sectionHeight, raw.flip());
+                chunks.set(index, chunk);
+                EnginePanic.saveLast();
+            } catch (Throwable e) {
+                Iris.error("Failed to read chunk, creating a new chunk instead.");
+                Iris.addPanic("read.record", offsets.get(index) + " " + lengths.get(index));
+                Iris.reportError(e);
+                e.printStackTrace();
+                Iris.panic();
+
+                drop(index);
+                TectonicPlate.addError();
+            }
+
+            if (errors.remove(Thread.currentThread()) && raw != null) {
+                try {
+                    Files.write(Iris.instance.getDataFolder("dump", file.getName() + "." + index + ".bin").toPath(), raw.array());
+                } catch (IOException e) {
+                    Iris.reportError(e);
+                }
+            }
+
+            return chunk;
+        }
+    }
+
+    private void drop(int index) {
+        garbage += lengths.get(index);
+        offsets.set(index, 0);
+        lengths.set(index, 0);
+    }
+
+    /**
+     * Get the compressed record of a chunk, as a slice of the mapped file if it can be mapped
+     */
+    private ByteBuffer readRecord(int index) throws IOException {
+        long offset = offsets.get(index);
+        int length = lengths.get(index);
+
+        if (MAP) {
+            if (mapped == null || mapped.capacity() < offset + length) {
+                try (FileChannel fc = FileChannel.open(file.toPath(), StandardOpenOption.READ)) {
+                    long size = fc.size();
+                    mapped = size <= Integer.MAX_VALUE ? fc.map(FileChannel.MapMode.READ_ONLY, 0, size) : null;
+                }
+            }
+
+            if (mapped != null && mapped.capacity() >= offset + length) {
+                return mapped.slice((int) offset, length);
+            }
+        }
+
+        try (FileChannel fc = FileChannel.open(file.toPath(), StandardOpenOption.READ)) {
+            return ByteBuffer.wrap(readRecord(fc, index));
+        }
+    }
+
+    private byte[] readRecord(FileChannel fc, int index) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate(lengths.get(index));
+        readFully(fc, buffer, offsets.get(index));
+
+        if (buffer.hasRemaining()) {
+            throw new EOFException("Record of Chunk[" + index + "] is cut off at " + (offsets.get(index) + buffer.position()));
+        }
+
+        return buffer.array();
+    }
+
+    /**
+     * Flush a file to the disk
      *
-     * @param file the file to writeNodeData it to
+     * @param file the file
+     * @throws IOException shit happens
+     */
+    public static void force(File file) throws IOException {
+        try (FileChannel fc = FileChannel.open(file.toPath(), StandardOpenOption.WRITE)) {
+            fc.force(true);
+        }
+    }
+
+    /**
+     * Flush the entries of a directory (like renamed files) to the disk. Not every platform can
+     * open directories, there the rename is left to the file system.
+     *
+     * @param folder the directory
+     */
+    public static void forceDirectory(File folder) {
+        try (FileChannel fc = FileChannel.open(folder.toPath(), StandardOpenOption.READ)) {
+            fc.force(true);
+        } catch (IOException ignored) {
+
+        }
+    }
+
+    private static void readFully(FileChannel fc, ByteBuffer buffer, long position) throws IOException {
+        while (buffer.hasRemaining()) {
+            int read = fc.read(buffer, position + buffer.position());
+            if (read < 0) {
+                break;
+            }
+        }
+    }
+
+    private static void writeFully(FileChannel fc, ByteBuffer[] buffers) throws IOException {
+        long remaining = 0;
+        for (ByteBuffer i : buffers) {
+            remaining += i.remaining();
+        }
+
+        while (remaining > 0) {
+            remaining -= fc.write(buffers);
+        }
+    }
+
+    private static byte[] record(MantleChunk chunk, ByteArrayOutputStream bytes, KList<MantleChunk> written) throws IOException {
+        try {
+            chunk.markClean();
+            written.add(chunk);
+            chunk.write(new DataOutputStream(bytes));
+            return compressor.compress(bytes.toByteArray());
+        } finally {
+            bytes.reset();
+        }
+    }
+
+    private static ByteBuffer header(int x, int z, long[] offsets, int[] lengths) {
+        ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE);
+        header.putInt(MAGIC);
+        header.putInt(x);
+        header.putInt(z);
+
+        for (int i = 0; i < offsets.length; i++) {
+            header.putLong(offsets[i]);
+            header.putInt(lengths[i]);
+        }
+
+        return header.flip();
+    }
+
+    private void table(long[] offsets, int[] lengths) {
+        for (int i = 0; i < offsets.length; i++) {
+            offsets[i] = this.offsets.get(i);
+            lengths[i] = this.lengths.get(i);
+        }
+    }
+
+    private long liveBytes() {
+        long live = 0;
+        for (int i = 0; i < lengths.length(); i++) {
+            live += lengths.get(i);
+        }
+
+        return live;
+    }
+
+    /**
+     * Write this tectonic plate to file and flush it to the disk
+     *
+     * @param file the file to write it to
      * @throws IOException shit happens
      */
     public void write(File file) throws IOException {
-        PrecisionStopwatch p = PrecisionStopwatch.start();
-        try (FileChannel fc = FileChannel.open(file.toPath(), StandardOpenOption.READ, StandardOpenOption.WRITE, StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.SYNC)) {
-            fc.lock();
+        write(file, MantleDurability.SYNC);
+    }
+
+    /**
+     * Write this tectonic plate to file. SYNC and GROUP write the whole plate to a temporary file which is atomically
+     * moved over the old one. SYNC flushes the temporary file before the move and the move before returning.
+     * GROUP leaves the temporary file pending until the next group commit {@link #flush() flushes} and
+     * {@link #publish() publishes} it, until then chunks are read from the temporary file. NONE flushes nothing and
+     * only appends the records of changed chunks to the plate file, unless more than half of it is dead records.
+     * <p>
+     * The record table is only locked to take a snapshot before and to apply the new table after the file was
+     * written, so chunks can still be read from the old records while the plate is saved.
+     *
+     * @param file       the file to write it to
+     * @param durability how far the save has to reach the disk before returning
+     * @throws IOException shit happens
+     */
+    public void write(File file, MantleDurability durability) throws IOException {
+        synchronized (saving) {
+            PrecisionStopwatch p = PrecisionStopwatch.start();
+            long[] offsets = new long[chunks.length()];
+            int[] lengths = new int[chunks.length()];
+            KList<MantleChunk> written = new KList<>();
+            boolean append;
+            File source;
+
+            synchronized (this) {
+                table(offsets, lengths);
+                source = this.file;
+                append = durability == MantleDurability.NONE && indexed && pending == null
+                        && file.equals(source) && file.exists() && garbage <= liveBytes();
+                dirty = false;
+            }
+
+            try {
+                if (append) {
+                    writeRecords(file, offsets, lengths, written);
+                } else {
+                    writeAll(file, source, durability, offsets, lengths, written);
+                }
+            } catch (Throwable e) {
+                written.forEach(MantleChunk::markDirty);
+                dirty = true;
+                throw e;
+            }
+
+            Iris.debug("Saved Tectonic Plate " + C.DARK_GREEN + file.getName().split("\\Q.\\E")[0] + C.RED + " in " + Form.duration(p.getMilliseconds(), 2));
+        }
+    }
+
+    /**
+     * Append the records of all changed chunks to the plate file and point the header at them.
+     * Nothing is flushed, a crash can leave the header torn as documented by {@link MantleDurability#NONE}
+     */
+    private void writeRecords(File file, long[] snapshotOffsets, int[] snapshotLengths, KList<MantleChunk> written) throws IOException {
+        long[] offsets = snapshotOffsets.clone();
+        int[] lengths = snapshotLengths.clone();
+        MantleChunk[] seen = new MantleChunk[chunks.length()];
+        long dead = 0;
+
+        try (FileChannel fc = FileChannel.open(file.toPath(), StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            ByteBuffer[] records = new ByteBuffer[chunks.length()];
+            int count = 0;
+            long end = fc.size();
+            var bytes = new ByteArrayOutputStream(8192);
+            for (int i = 0; i < chunks.length(); i++) {
+                MantleChunk chunk = seen[i] = chunks.get(i);
+                if (chunk == null || !chunk.isDirty()) continue;
 
-            OutputStream fos = Channels.newOutputStream(fc);
-            try (DataOutputStream dos = new DataOutputStream(new LZ4BlockOutputStream(fos))) {
-                write(dos);
-                Iris.debug("Saved Tectonic Plate " + C.DARK_GREEN + file.getName().split("\\Q.\\E")[0] + C.RED + " in " + Form.duration(p.getMilliseconds(), 2));
+                byte[] record = record(chunk, bytes, written);
+                records[count++] = ByteBuffer.wrap(record);
+                dead += lengths[i];
+                offsets[i] = end;
+                lengths[i] = record.length;
+                end += record.length;
+            }
+
+            fc.position(fc.size());
+            writeFully(fc, Arrays.copyOf(records, count));
+            writeFully(fc.position(0), new ByteBuffer[]{header(x, z, offsets, lengths)});
+        }
+
+        synchronized (this) {
+            apply(snapshotOffsets, snapshotLengths, offsets, lengths, seen);
+            garbage += dead;
+        }
+    }
+
+    /**
+     * Rewrite the whole file through a temporary file that is atomically moved over the old one,
+     * so a crash never leaves a partially written plate behind. Records of chunks that did not change are
+     * copied from the old file by the file system in runs of adjacent records.
+     */
+    private void writeAll(File file, File source, MantleDurability durability, long[] snapshotOffsets, int[] snapshotLengths, KList<MantleChunk> written) throws IOException {
+        long[] offsets = new long[chunks.length()];
+        int[] lengths = new int[chunks.length()];
+        MantleChunk[] seen = new MantleChunk[chunks.length()];
+        boolean group = durability == MantleDurability.GROUP;
+        File temp = new File(file.getParentFile(), file.getName() + (group ? "." + pendingIds.incrementAndGet() : "") + ".tmp");
+        var bytes = new ByteArrayOutputStream(8192);
+
+        try (FileChannel old = source != null && source.exists() ? FileChannel.open(source.toPath(), StandardOpenOption.READ) : null;
+             FileChannel fc = FileChannel.open(temp.toPath(), StandardOpenOption.WRITE, StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            long size = old == null ? 0 : old.size();
+            long end = HEADER_SIZE;
+            long run = 0;
+            long runLength = 0;
+            ByteBuffer[] records = new ByteBuffer[chunks.length()];
+            int count = 0;
+            fc.position(HEADER_SIZE);
+
+            for (int i = 0; i < chunks.length(); i++) {
+                MantleChunk chunk = seen[i] = chunks.get(i);
+
+                if (old != null && snapshotLengths[i] > 0 && (chunk == null || !chunk.isDirty())) {
+                    if (snapshotOffsets[i] + snapshotLengths[i] <= size) {
+                        if (runLength > 0 && snapshotOffsets[i] != run + runLength) {
+                            transferFully(old, run, runLength, fc);
+                            runLength = 0;
+                        }
+
+                        if (runLength == 0) {
+                            writeFully(fc, Arrays.copyOf(records, count));
+                            count = 0;
+                            run = snapshotOffsets[i];
+                        }
+
+                        runLength += snapshotLengths[i];
+                        offsets[i] = end;
+                        lengths[i] = snapshotLengths[i];
+                        end += snapshotLengths[i];
+                        continue;
+                    }
+
+                    Iris.error("Failed to copy the record of Chunk[" + i + "]" + (chunk == null ? ", dropping it." : ", rewriting it."));
+                }
+
+                if (chunk == null) continue;
+
+                if (runLength > 0) {
+                    transferFully(old, run, runLength, fc);
+                    runLength = 0;
+                }
+
+                byte[] record = record(chunk, bytes, written);
+                records[count++] = ByteBuffer.wrap(record);
+                offsets[i] = end;
+                lengths[i] = record.length;
+                end += record.length;
+            }
+
+            if (runLength > 0) {
+                transferFully(old, run, runLength, fc);
+            }
+
+            writeFully(fc, Arrays.copyOf(records, count));
+
+            ByteBuffer header = header(x, z, offsets, lengths);
+            while (header.hasRemaining()) {
+                fc.write(header, header.position());
+            }
+
+            if (durability == MantleDurability.SYNC) {
+                fc.force(true);
+            }
+        }
+
+        File stale;
+        synchronized (this) {
+            stale = pending != null ? this.file : null;
+            if (group) {
+                this.file = temp;
+                pending = file;
+            } else {
+                Files.move(temp.toPath(), file.toPath(), StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+                this.file = file;
+                pending = null;
+            }
+
+            garbage = 0;
+            apply(snapshotOffsets, snapshotLengths, offsets, lengths, seen);
+            indexed = true;
+            mapped = null;
+        }
+
+        if (durability == MantleDurability.SYNC) {
+            forceDirectory(file.getParentFile());
+        }
+
+        if (stale != null) {
+            Files.deleteIfExists(stale.toPath());
+        }
+    }
+
+    private static void transferFully(FileChannel from, long position, long length, FileChannel to) throws IOException {
+        long done = 0;
+        while (done < length) {
+            long transferred = from.transferTo(position + done, length - done, to);
+            if (transferred <= 0) {
+                throw new EOFException("Records are cut off at " + (position + done));
+            }
+
+            done += transferred;
+        }
+    }
+
+    /**
+     * Point the record table at the records of a save. Chunks that were deleted while the plate was saved
+     * keep their dropped record, the plate is still dirty for them
+     */
+    private void apply(long[] snapshotOffsets, int[] snapshotLengths, long[] offsets, int[] lengths, MantleChunk[] seen) {
+        for (int i = 0; i < offsets.length; i++) {
+            boolean written = offsets[i] != snapshotOffsets[i] || lengths[i] != snapshotLengths[i];
+
+            if (this.offsets.get(i) != snapshotOffsets[i] || this.lengths.get(i) != snapshotLengths[i]) {
+                garbage += written ? lengths[i] : 0;
+                continue;
+            }
+
+            if (seen[i] != null && chunks.get(i) != seen[i]) {
+                garbage += written ? lengths[i] : 0;
+                this.offsets.set(i, 0);
+                this.lengths.set(i, 0);
+                continue;
+            }
+
+            this.offsets.set(i, offsets[i]);
+            this.lengths.set(i, lengths[i]);
+        }
+    }
+
+    /**
+     * Check if this plate was saved to a temporary file that still waits for a group commit
+     *
+     * @return true if the last save is not published yet
+     */
+    public boolean isPending() {
+        return pending != null;
+    }
+
+    /**
+     * Flush the pending temporary file of this plate to the disk. A group commit flushes every pending
+     * plate before it publishes any of them, so no move can reach the disk before the data it names.
+     *
+     * @throws IOException shit happens
+     */
+    public void flush() throws IOException {
+        synchronized (saving) {
+            if (pending != null) {
+                force(file);
+                flushed = file;
+            }
+        }
+    }
+
+    /**
+     * Atomically move the temporary file that was flushed by {@link #flush()} over the plate file.
+     * If the plate was saved again since the flush, the newer temporary file is left for the next group commit
+     *
+     * @return true if nothing is left pending
+     * @throws IOException shit happens
+     */
+    public boolean publish() throws IOException {
+        synchronized (saving) {
+            synchronized (this) {
+                if (pending == null) {
+                    return true;
+                }
+
+                if (!file.equals(flushed)) {
+                    return false;
+                }
+
+                Files.move(file.toPath(), pending.toPath(), StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+                file = pending;
+                pending = null;
+                flushed = null;
+                return true;
             }
         }
     }
@@ -232,7 +836,7 @@ public class TectonicPlate {
         var bytes = new ByteArrayOutputStream(8192);
         var sub = new DataOutputStream(bytes);
         for (int i = 0; i < chunks.length(); i++) {
-            MantleChunk chunk = chunks.get(i);
+            MantleChunk chunk = load(i);
 
             if (chunk != null) {
                 try {
@@ -248,6 +852,99 @@ public class TectonicPlate {
         }
     }
 
+    /**
+     * Rewrite a plate file without loading the plate. Cleaned slices, empty sections and empty chunks
+     * are dropped, see {@link MantleChunk#compact(byte[], Predicate, IntPredicate)}. The new file is written next to the
+     * old one and atomically moved over it, plates in the old single-stream format are converted.
+     * The plate must not be loaded while it is compacted.
+     *
+     * @param file    the plate file
+     * @param cleaned    the canonical class names of the slice types removed by cleaning
+     * @param cleanedIds the slice ids of the slice types removed by cleaning
+     * @return the size of the compacted file or 0 if nothing was left and the file was deleted
+     * @throws IOException shit happens
+     */
+    public static long compact(File file, Predicate<String> cleaned, IntPredicate cleanedIds) throws IOException {
+        long[] offsets = new long[1024];
+        int[] lengths = new int[1024];
+        ByteBuffer[] records = new ByteBuffer[1024];
+        int count = 0;
+        long end = HEADER_SIZE;
+        byte[][] chunks = new byte[1024][];
+        int x;
+        int z;
+
+        try (FileChannel fc = FileChannel.open(file.toPath(), StandardOpenOption.READ)) {
+            ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE);
+            readFully(fc, header, 0);
+
+            if (!header.hasRemaining() && header.getInt(0) == MAGIC) {
+                x = header.getInt(4);
+                z = header.getInt(8);
+                header.position(12);
+
+                for (int i = 0; i < chunks.length; i++) {
+                    long offset = header.getLong();
+                    int length = header.getInt();
+
+                    if (length <= 0) continue;
+                    if (offset < HEADER_SIZE || offset + length > fc.size()) {
+                        throw new IOException("Invalid record for Chunk[" + i + "]");
+                    }
+
+                    ByteBuffer record = ByteBuffer.allocate(length);
+                    readFully(fc, record, offset);
+                    if (record.hasRemaining()) {
+                        throw new EOFException("Record of Chunk[" + i + "] is cut off at " + (offset + record.position()));
+                    }
+
+                    chunks[i] = decompressor.decompress(record.array());
+                }
+            } else {
+                DataInputStream din = new DataInputStream(new BufferedInputStream(new LZ4BlockInputStream(Channels.newInputStream(fc.position(0)))));
+                x = din.readInt();
+                z = din.readInt();
+
+                for (int i = 0; i < chunks.length; i++) {
+                    int size = din.readInt();
+                    if (size == 0) continue;
+
+                    chunks[i] = new byte[size];
+                    din.readFully(chunks[i]);
+                }
+            }
+        }
+
+        for (int i = 0; i < chunks.length; i++) {
+            if (chunks[i] == null) continue;
+
+            byte[] chunk = MantleChunk.compact(chunks[i], cleaned, cleanedIds);
+            chunks[i] = null;
+            if (chunk == null) continue;
+
+            byte[] record = compressor.compress(chunk);
+            records[count++] = ByteBuffer.wrap(record);
+            offsets[i] = end;
+            lengths[i] = record.length;
+            end += record.length;
+        }
+
+        if (count == 0) {
+            Files.delete(file.toPath());
+            return 0;
+        }
+
+        File temp = new File(file.getParentFile(), file.getName() + ".compact");
+        try (FileChannel fc = FileChannel.open(temp.toPath(), StandardOpenOption.WRITE, StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            writeFully(fc, new ByteBuffer[]{header(x, z, offsets, lengths)});
+            writeFully(fc, Arrays.copyOf(records, count));
+            fc.force(true);
+        }
+
+        Files.move(temp.toPath(), file.toPath(), StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        return end;
+    }
+
     public static void addError() {
         errors.add(Thread.currentThread());
     }
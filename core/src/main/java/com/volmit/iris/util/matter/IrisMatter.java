@@ -26,6 +26,8 @@ import com.volmit.iris.util.plugin.VolmitSender;
 import lombok.Getter;
 
 public class IrisMatter extends IrisRegistrant implements Matter {
+    private static final KMap<Class<?>, Integer> sliceIds = new KMap<>();
+    private static final KMap<Integer, Class<?>> sliceTypes = new KMap<>();
     protected static final KMap<Class<?>, MatterSlice<?>> slicers = buildSlicers();
 
     @Getter
@@ -60,11 +62,40 @@ public class IrisMatter extends IrisRegistrant implements Matter {
         for (Object i : Iris.initialize("com.volmit.iris.util.matter.slices", Sliced.class)) {
             MatterSlice<?> s = (MatterSlice<?>) i;
             c.put(s.getType(), s);
+
+            int id = s.getClass().getAnnotation(Sliced.class).id();
+
+            if (id <= 0 || sliceTypes.putIfAbsent(id, s.getType()) != null) {
+                Iris.error("Slice " + s.getClass().getSimpleName() + " has an invalid or duplicate id " + id + ", it will be written by name");
+                continue;
+            }
+
+            sliceIds.put(s.getType(), id);
         }
 
         return c;
     }
 
+    /**
+     * Get the registry id a slice type is written under
+     *
+     * @param type the slice type
+     * @return the id or 0 if the type has no id and must be written by name
+     */
+    public static int getSliceId(Class<?> type) {
+        return sliceIds.getOrDefault(type, 0);
+    }
+
+    /**
+     * Get the slice type registered under the given id
+     *
+     * @param id the id
+     * @return the slice type or null if no slice uses this id
+     */
+    public static Class<?> getSliceType(int id) {
+        return sliceTypes.get(id);
+    }
+
     @Override
     public <T> MatterSlice<T> createSlice(Class<T> type, Matter m) {
         MatterSlice<?> slice = slicers.get(type);
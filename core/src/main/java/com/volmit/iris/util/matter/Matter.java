@@ -21,7 +21,9 @@ package com.volmit.iris.util.matter;
 import com.volmit.iris.Iris;
 import com.volmit.iris.engine.object.IrisObject;
 import com.volmit.iris.engine.object.IrisPosition;
+import com.volmit.iris.util.collection.KList;
 import com.volmit.iris.util.collection.KSet;
+import com.volmit.iris.util.data.Varint;
 import com.volmit.iris.util.hunk.Hunk;
 import com.volmit.iris.util.io.CountingDataInputStream;
 import com.volmit.iris.util.mantle.TectonicPlate;
@@ -35,6 +37,8 @@ import java.io.*;
 import java.util.Map;
 import java.util.Set;
 import java.util.function.Function;
+import java.util.function.IntPredicate;
+import java.util.function.Predicate;
 
 /**
  * When Red Matter isn't enough
@@ -46,13 +50,20 @@ import java.util.function.Function;
  * UTF author
  * UVL createdAt
  * UVI version
- * UTF sliceType (canonical class name)
- * UVI nodeCount (for each slice)
- * UVI position [(z * w * h) + (y * w) + x]
- * ??? nodeData
+ * <p>
+ * For each slice
+ * INT sliceSize
+ * UVI sliceId (see {@link Sliced#id()}, 0 = followed by UTF sliceType)
+ * ??? palette
+ * UVI nodeCount
+ * UVI position delta [(z * w * h) + (y * w) + x], ascending
+ * ??? packed palette ids
+ * <p>
+ * Version 2 and older wrote the canonical class name instead of the slice id
+ * and a position + palette id pair per node, version 1 had no uniform palettes
  */
 public interface Matter {
-    int VERSION = 1;
+    int VERSION = 3;
 
     static long convert(File folder) {
         if (folder.isDirectory()) {
@@ -137,6 +148,7 @@ public interface Matter {
 
         matter.getHeader().read(din);
         Iris.addPanic("read.matter.header", matter.getHeader().toString());
+        int version = matter.getHeader().getVersion();
 
         for (int i = 0; i < sliceCount; i++) {
             long size = din.readInt();
@@ -145,12 +157,11 @@ public interface Matter {
 
             Iris.addPanic("read.matter.slice", i + "");
             try {
-                String cn = din.readUTF();
-                Iris.addPanic("read.matter.slice.class", cn);
+                Class<?> type = readSliceType(din, version);
+                Iris.addPanic("read.matter.slice.class", type.getCanonicalName());
 
-                Class<?> type = Class.forName(cn);
                 MatterSlice<?> slice = matter.createSlice(type, matter);
-                slice.read(din);
+                slice.readData(din, version);
                 matter.putSlice(type, slice);
             } catch (Throwable e) {
                 long end = start + size;
@@ -169,6 +180,77 @@ public interface Matter {
         return matter;
     }
 
+    private static Class<?> readSliceType(DataInputStream din, int version) throws IOException, ClassNotFoundException {
+        int id = version < 3 ? 0 : Varint.readUnsignedVarInt(din);
+
+        if (id == 0) {
+            return Class.forName(din.readUTF());
+        }
+
+        Class<?> type = IrisMatter.getSliceType(id);
+
+        if (type == null) {
+            throw new IOException("Unknown slice id " + id);
+        }
+
+        return type;
+    }
+
+    /**
+     * Rewrite a serialized matter object without reading its slices.
+     * Slices whose type matches the filter are left out
+     *
+     * @param data    the serialized matter
+     * @param drop    the canonical class names of the slice types to drop
+     * @param dropIds the ids of the slice types to drop
+     * @return the rewritten matter or null if no slices are left
+     * @throws IOException shit happens yo
+     */
+    static byte[] compact(byte[] data, Predicate<String> drop, IntPredicate dropIds) throws IOException {
+        DataInputStream din = new DataInputStream(new ByteArrayInputStream(data));
+        int width = din.readInt();
+        int height = din.readInt();
+        int depth = din.readInt();
+        int sliceCount = din.readByte();
+        MatterHeader header = new MatterHeader();
+        header.read(din);
+
+        KList<byte[]> slices = new KList<>();
+        for (int i = 0; i < sliceCount; i++) {
+            int size = din.readInt();
+            if (size == 0) continue;
+
+            byte[] slice = new byte[size];
+            din.readFully(slice);
+
+            DataInputStream type = new DataInputStream(new ByteArrayInputStream(slice));
+            int id = header.getVersion() < 3 ? 0 : Varint.readUnsignedVarInt(type);
+
+            if (id == 0 ? !drop.test(type.readUTF()) : !dropIds.test(id)) {
+                slices.add(slice);
+            }
+        }
+
+        if (slices.isEmpty()) {
+            return null;
+        }
+
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(data.length);
+        DataOutputStream dos = new DataOutputStream(bytes);
+        dos.writeInt(width);
+        dos.writeInt(height);
+        dos.writeInt(depth);
+        dos.writeByte(slices.size());
+        header.write(dos);
+
+        for (byte[] i : slices) {
+            dos.writeInt(i.length);
+            dos.write(i);
+        }
+
+        return bytes.toByteArray();
+    }
+
     default Matter copy() {
         Matter m = new IrisMatter(getWidth(), getHeight(), getDepth());
         getSliceMap().forEach((k, v) -> m.slice(k).forceInject(v));
@@ -427,13 +509,21 @@ public interface Matter {
         dos.writeInt(getHeight());
         dos.writeInt(getDepth());
         dos.writeByte(getSliceTypes().size());
+        getHeader().setVersion(VERSION);
         getHeader().write(dos);
 
         var bytes = new ByteArrayOutputStream(1024);
         var sub = new DataOutputStream(bytes);
         for (Class<?> i : getSliceTypes()) {
             try {
-                getSlice(i).write(sub);
+                int id = IrisMatter.getSliceId(i);
+                Varint.writeUnsignedVarInt(id, sub);
+
+                if (id == 0) {
+                    sub.writeUTF(i.getCanonicalName());
+                }
+
+                getSlice(i).writeData(sub);
                 dos.writeInt(bytes.size());
                 bytes.writeTo(dos);
             } finally {
@@ -442,6 +532,45 @@ public interface Matter {
         }
     }
 
+    /**
+     * Check if any slice was written to since this matter was read or last saved
+     *
+     * @return true if it has unsaved changes
+     */
+    default boolean isDirty() {
+        for (MatterSlice<?> i : getSliceMap().values()) {
+            if (i.isDirty()) {
+                return true;
+            }
+        }
+
+        return false;
+    }
+
+    /**
+     * Mark all slices as saved
+     */
+    default void markClean() {
+        for (MatterSlice<?> i : getSliceMap().values()) {
+            i.setDirty(false);
+        }
+    }
+
+    /**
+     * Roughly estimate the heap used by this matter and its slices
+     *
+     * @return the estimated size in bytes
+     */
+    default long estimateMemoryUsage() {
+        long size = 128;
+
+        for (MatterSlice<?> i : getSliceMap().values()) {
+            size += 48 + i.estimateMemoryUsage();
+        }
+
+        return size;
+    }
+
     default int getTotalCount() {
         int m = 0;
 
@@ -48,6 +48,18 @@ public class MatterPalette<T> implements IOAdapter<T> {
         return palette.get(Varint.readUnsignedVarInt(din));
     }
 
+    public int index(T t) {
+        return palette.getIndex(t);
+    }
+
+    public T get(int index) {
+        return palette.get(index);
+    }
+
+    public int size() {
+        return palette.getPalette().size();
+    }
+
     public void writePalette(DataOutputStream dos) throws IOException {
         palette.write(this, dos);
     }
@@ -23,7 +23,7 @@ import com.volmit.iris.util.data.Varint;
 import com.volmit.iris.util.data.palette.Palette;
 import com.volmit.iris.util.data.palette.PaletteType;
 import com.volmit.iris.util.hunk.Hunk;
-import com.volmit.iris.util.hunk.bits.DataContainer;
+import com.volmit.iris.util.hunk.bits.DataBits;
 import com.volmit.iris.util.hunk.bits.Writable;
 import com.volmit.iris.util.hunk.storage.PaletteOrHunk;
 import org.bukkit.Location;
@@ -35,12 +35,29 @@ import org.bukkit.util.BlockVector;
 import java.io.DataInputStream;
 import java.io.DataOutputStream;
 import java.io.IOException;
+import java.util.Arrays;
 
 public interface MatterSlice<T> extends Hunk<T>, PaletteType<T>, Writable<T> {
     Class<T> getType();
 
     Palette<T> getGlobalPalette();
 
+    /**
+     * Check if this slice was written to since it was read or last saved
+     *
+     * @return true if it has unsaved changes
+     */
+    boolean isDirty();
+
+    void setDirty(boolean dirty);
+
+    /**
+     * Roughly estimate the heap used by this slice
+     *
+     * @return the estimated size in bytes
+     */
+    long estimateMemoryUsage();
+
     @Override
     default void writePaletteNode(DataOutputStream dos, T s) throws IOException {
         writeNode(s, dos);
@@ -73,6 +90,20 @@ public interface MatterSlice<T> extends Hunk<T>, PaletteType<T>, Writable<T> {
         inject((MatterSlice<T>) slice);
     }
 
+    /**
+     * Take over the data of another slice of the same type. Slices that can share their storage
+     * do so until either of them is written to, the others copy the data
+     *
+     * @param slice the slice to share the data of
+     */
+    default void share(MatterSlice<T> slice) {
+        slice.iterateSync(this::set);
+    }
+
+    default void forceShare(MatterSlice<?> slice) {
+        share((MatterSlice<T>) slice);
+    }
+
     void writeNode(T b, DataOutputStream dos) throws IOException;
 
     T readNode(DataInputStream din) throws IOException;
@@ -157,35 +188,79 @@ public interface MatterSlice<T> extends Hunk<T>, PaletteType<T>, Writable<T> {
         return target;
     }
 
-    default void write(DataOutputStream dos) throws IOException {
-        dos.writeUTF(getType().getCanonicalName());
-
+    /**
+     * Write this slice in the current matter format. The slice type is not
+     * part of the data, it is written by the matter holding this slice
+     *
+     * @param dos the output
+     * @throws IOException shit happens yo
+     */
+    default void writeData(DataOutputStream dos) throws IOException {
         if ((this instanceof PaletteOrHunk f && f.isPalette())) {
-            f.palette().writeDos(dos);
+            f.writePalette(dos);
             return;
         }
 
         int w = getWidth();
         int h = getHeight();
         MatterPalette<T> palette = new MatterPalette<T>(this);
-        iterateSync((x, y, z, b) -> palette.assign(b));
+        int entries = Math.max(getEntryCount(), 16);
+        long[][] order = {new long[entries]};
+        Object[][] values = {new Object[entries]};
+        int[] count = {0};
+        iterateSync((x, y, z, b) -> {
+            int i = count[0]++;
+
+            if (i == order[0].length) {
+                order[0] = Arrays.copyOf(order[0], i * 2);
+                values[0] = Arrays.copyOf(values[0], i * 2);
+            }
+
+            order[0][i] = ((long) Cache.to1D(x, y, z, w, h) << 32) | i;
+            values[0][i] = b;
+        });
+
+        long[] sorted = order[0];
+        Object[] v = values[0];
+        int size = count[0];
+        Arrays.sort(sorted, 0, size);
+
+        for (int i = 0; i < size; i++) {
+            palette.assign((T) v[(int) sorted[i]]);
+        }
+
         palette.writePalette(dos);
-        dos.writeBoolean(isMapped());
-
-        if (isMapped()) {
-            Varint.writeUnsignedVarInt(getEntryCount(), dos);
-            iterateSyncIO((x, y, z, b) -> {
-                Varint.writeUnsignedVarInt(Cache.to1D(x, y, z, w, h), dos);
-                palette.writeNode(b, dos);
-            });
-        } else {
-            iterateSyncIO((x, y, z, b) -> palette.writeNode(b, dos));
+        dos.writeBoolean(true);
+        Varint.writeUnsignedVarInt(size, dos);
+
+        if (size == 0) {
+            return;
         }
+
+        DataBits ids = new DataBits(getIdBits(palette.size()), size);
+        int last = 0;
+
+        for (int i = 0; i < size; i++) {
+            int position = (int) (sorted[i] >>> 32);
+            Varint.writeUnsignedVarInt(position - last, dos);
+            ids.set(i, palette.index((T) v[(int) sorted[i]]));
+            last = position;
+        }
+
+        ids.write(dos);
     }
 
-    default void read(DataInputStream din) throws IOException {
+    /**
+     * Read this slice from the data written by {@link #writeData(DataOutputStream)}
+     * or by an older matter format
+     *
+     * @param din     the input
+     * @param version the matter version the data was written with
+     * @throws IOException shit happens yo
+     */
+    default void readData(DataInputStream din, int version) throws IOException {
         if ((this instanceof PaletteOrHunk f && f.isPalette())) {
-            f.setPalette(new DataContainer<>(din, this));
+            f.readPalette(din, version);
             return;
         }
 
@@ -196,15 +271,42 @@ public interface MatterSlice<T> extends Hunk<T>, PaletteType<T>, Writable<T> {
             int nodes = Varint.readUnsignedVarInt(din);
             int[] pos;
 
-            while (nodes-- > 0) {
-                pos = Cache.to3D(Varint.readUnsignedVarInt(din), w, h);
-                setRaw(pos[0], pos[1], pos[2], palette.readNode(din));
+            if (version < 3) {
+                while (nodes-- > 0) {
+                    pos = Cache.to3D(Varint.readUnsignedVarInt(din), w, h);
+                    setRaw(pos[0], pos[1], pos[2], palette.readNode(din));
+                }
+
+                return;
+            }
+
+            if (nodes == 0) {
+                return;
+            }
+
+            int[] positions = new int[nodes];
+            int last = 0;
+
+            for (int i = 0; i < nodes; i++) {
+                last += Varint.readUnsignedVarInt(din);
+                positions[i] = last;
+            }
+
+            DataBits ids = new DataBits(getIdBits(palette.size()), nodes, din);
+
+            for (int i = 0; i < nodes; i++) {
+                pos = Cache.to3D(positions[i], w, h);
+                setRaw(pos[0], pos[1], pos[2], palette.get(ids.get(i)));
             }
         } else {
             iterateSyncIO((x, y, z, b) -> setRaw(x, y, z, palette.readNode(din)));
         }
     }
 
+    private static int getIdBits(int paletteSize) {
+        return Math.max(1, 32 - Integer.numberOfLeadingZeros(paletteSize - 1));
+    }
+
     default void rotateSliceInto(Matter n, double x, double y, double z) {
         rotate(x, y, z, (_x, _y, _z) -> n.slice(getType()));
     }
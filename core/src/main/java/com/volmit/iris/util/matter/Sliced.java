@@ -23,5 +23,10 @@ import java.lang.annotation.RetentionPolicy;
 
 @Retention(RetentionPolicy.RUNTIME)
 public @interface Sliced {
-
+    /**
+     * The id this slice type is stored under. Ids are written to disk
+     * instead of class names, so they must be unique and never reused.
+     * 0 is reserved for slices written by name
+     */
+    int id();
 }
@@ -27,7 +27,7 @@ import java.io.DataInputStream;
 import java.io.DataOutputStream;
 import java.io.IOException;
 
-@Sliced
+@Sliced(id = 11)
 public class BiomeInjectMatter extends RawMatter<MatterBiomeInject> {
     public BiomeInjectMatter() {
         this(1, 1, 1);
@@ -0,0 +1,371 @@
+/*
+ * Iris is a World Generator for Minecraft Bukkit Servers
+ * Copyright (c) 2022 Arcane Arts (Volmit Software)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package com.volmit.iris.util.matter.slices;
+
+import com.volmit.iris.util.data.Varint;
+import com.volmit.iris.util.data.palette.Palette;
+import com.volmit.iris.util.function.Consumer4IO;
+import com.volmit.iris.util.function.IntConsumer4;
+import com.volmit.iris.util.hunk.Hunk;
+import com.volmit.iris.util.hunk.storage.StorageHunk;
+import com.volmit.iris.util.matter.MatterReader;
+import com.volmit.iris.util.matter.MatterSlice;
+import com.volmit.iris.util.matter.MatterWriter;
+import lombok.Getter;
+import lombok.Setter;
+
+import java.io.ByteArrayInputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.SequenceInputStream;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * A slice which tracks which voxels are set with a bitset and leaves the values to
+ * the implementation. Iteration only visits set bits and the on disk encoding only
+ * stores the set positions (sparse or dense, whichever is smaller) followed by the
+ * values written by the implementation.
+ * <p>
+ * Slices written by {@link RawMatter} are still readable, the encoding starts with a
+ * zero byte which neither the palette nor the mapped encoding can start with.
+ * <p>
+ * Slices can share their bits and values with a snapshot, the first write to a shared
+ * slice copies them before it goes through.
+ * <p>
+ * Writes are serialized on the slice, reads take no lock. A value is stored before
+ * its bit is set so a reader which sees the bit also sees the value.
+ *
+ * @param <T> the slice type
+ */
+public abstract class BitsetMatter<T> extends StorageHunk<T> implements MatterSlice<T> {
+    private static final int FORMAT = 0;
+    private static final int SPARSE = 0;
+    private static final int DENSE = 1;
+    @Getter
+    private final Class<T> type;
+    private volatile AtomicLongArray bits;
+    private volatile int count;
+    private boolean shared;
+    @Getter
+    @Setter
+    private volatile boolean dirty;
+
+    public BitsetMatter(int width, int height, int depth, Class<T> type) {
+        super(width, height, depth);
+        bits = new AtomicLongArray((width * height * depth + 63) >> 6);
+        this.type = type;
+    }
+
+    /**
+     * Get the value of a set voxel
+     *
+     * @param index the voxel index
+     * @return the value
+     */
+    protected abstract T getValue(int index);
+
+    /**
+     * Store the value of a voxel, the bit is set after this returns
+     *
+     * @param index the voxel index
+     * @param t     the value (never null)
+     */
+    protected abstract void setValue(int index, T t);
+
+    /**
+     * Called when the last set bit is cleared
+     */
+    protected abstract void clearValues();
+
+    /**
+     * Write the values of all set voxels in index order
+     *
+     * @param dos the output
+     * @throws IOException shit happens
+     */
+    protected abstract void writeValues(DataOutputStream dos) throws IOException;
+
+    /**
+     * Read the values of all set voxels in index order, the bits are already set
+     *
+     * @param din the input
+     * @throws IOException shit happens
+     */
+    protected abstract void readValues(DataInputStream din) throws IOException;
+
+    protected abstract long estimateValueMemory();
+
+    /**
+     * Take over the values of another slice of the same type without copying them
+     *
+     * @param slice the slice, locked by the caller
+     */
+    protected abstract void shareValues(BitsetMatter<T> slice);
+
+    /**
+     * Copy the values shared by {@link #shareValues(BitsetMatter)} before they are written to
+     */
+    protected abstract void copyValues();
+
+    @Override
+    public void share(MatterSlice<T> slice) {
+        if (!(slice instanceof BitsetMatter<T> b) || b.getClass() != getClass()) {
+            MatterSlice.super.share(slice);
+            return;
+        }
+
+        synchronized (b) {
+            synchronized (this) {
+                bits = b.bits;
+                count = b.count;
+                shareValues(b);
+                shared = true;
+                b.shared = true;
+            }
+        }
+    }
+
+    private void unshare() {
+        if (shared) {
+            AtomicLongArray b = bits;
+            AtomicLongArray c = new AtomicLongArray(b.length());
+
+            for (int i = 0; i < c.length(); i++) {
+                c.set(i, b.get(i));
+            }
+
+            bits = c;
+            copyValues();
+            shared = false;
+        }
+    }
+
+    private int index(int x, int y, int z) {
+        return (z * getWidth() * getHeight()) + (y * getWidth()) + x;
+    }
+
+    /**
+     * Find the next set voxel
+     *
+     * @param from the index to start from (inclusive)
+     * @return the index or -1 if there are no more set voxels
+     */
+    protected int nextSet(int from) {
+        AtomicLongArray bits = this.bits;
+        int word = from >> 6;
+
+        if (word >= bits.length()) {
+            return -1;
+        }
+
+        long w = bits.get(word) & (-1L << from);
+
+        while (true) {
+            if (w != 0) {
+                return (word << 6) + Long.numberOfTrailingZeros(w);
+            }
+
+            if (++word == bits.length()) {
+                return -1;
+            }
+
+            w = bits.get(word);
+        }
+    }
+
+    protected boolean isSet(int index) {
+        return (bits.get(index >> 6) & (1L << index)) != 0;
+    }
+
+    @Override
+    public synchronized void setRaw(int x, int y, int z, T t) {
+        unshare();
+        AtomicLongArray bits = this.bits;
+        int index = index(x, y, z);
+        int word = index >> 6;
+        long w = bits.get(word);
+        long bit = 1L << index;
+
+        if (t == null) {
+            if ((w & bit) != 0) {
+                bits.set(word, w & ~bit);
+
+                if (--count == 0) {
+                    clearValues();
+                }
+            }
+        } else {
+            setValue(index, t);
+
+            if ((w & bit) == 0) {
+                bits.set(word, w | bit);
+                count++;
+            }
+        }
+
+        if (!dirty) {
+            dirty = true;
+        }
+    }
+
+    @Override
+    public T getRaw(int x, int y, int z) {
+        int index = index(x, y, z);
+        return isSet(index) ? getValue(index) : null;
+    }
+
+    @Override
+    public int getEntryCount() {
+        return count;
+    }
+
+    @Override
+    public boolean isMapped() {
+        return true;
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return count == 0;
+    }
+
+    @Override
+    public synchronized Hunk<T> iterateSync(IntConsumer4<T> c) {
+        int w = getWidth();
+        int wh = w * getHeight();
+
+        for (int i = nextSet(0); i >= 0; i = nextSet(i + 1)) {
+            int r = i % wh;
+            c.accept(r % w, r / w, i / wh, getValue(i));
+        }
+
+        return this;
+    }
+
+    @Override
+    public synchronized Hunk<T> iterateSyncIO(Consumer4IO<Integer, Integer, Integer, T> c) throws IOException {
+        int w = getWidth();
+        int wh = w * getHeight();
+
+        for (int i = nextSet(0); i >= 0; i = nextSet(i + 1)) {
+            int r = i % wh;
+            c.accept(r % w, r / w, i / wh, getValue(i));
+        }
+
+        return this;
+    }
+
+    @Override
+    public Hunk<T> iterate(int parallelism, IntConsumer4<T> c) {
+        return iterateSync(c);
+    }
+
+    @Override
+    public synchronized long estimateMemoryUsage() {
+        return 48 + (bits.length() * 8L) + estimateValueMemory();
+    }
+
+    @Override
+    public synchronized void writeData(DataOutputStream dos) throws IOException {
+        dos.writeByte(FORMAT);
+        Varint.writeUnsignedVarInt(count, dos);
+
+        AtomicLongArray bits = this.bits;
+
+        if (count * 2 < bits.length() * 8) {
+            dos.writeByte(SPARSE);
+            int last = 0;
+
+            for (int i = nextSet(0); i >= 0; i = nextSet(i + 1)) {
+                Varint.writeUnsignedVarInt(i - last, dos);
+                last = i;
+            }
+        } else {
+            dos.writeByte(DENSE);
+
+            for (int i = 0; i < bits.length(); i++) {
+                dos.writeLong(bits.get(i));
+            }
+        }
+
+        writeValues(dos);
+    }
+
+    @Override
+    public synchronized void readData(DataInputStream din, int version) throws IOException {
+        unshare();
+        int format = din.readUnsignedByte();
+
+        if (format != FORMAT) {
+            readLegacy(new DataInputStream(new SequenceInputStream(new ByteArrayInputStream(new byte[]{(byte) format}), din)));
+            return;
+        }
+
+        AtomicLongArray bits = this.bits;
+        count = Varint.readUnsignedVarInt(din);
+
+        if (din.readUnsignedByte() == SPARSE) {
+            int index = 0;
+
+            for (int i = 0; i < count; i++) {
+                index += Varint.readUnsignedVarInt(din);
+                bits.set(index >> 6, bits.get(index >> 6) | 1L << index);
+            }
+        } else {
+            for (int i = 0; i < bits.length(); i++) {
+                bits.set(i, din.readLong());
+            }
+        }
+
+        readValues(din);
+    }
+
+    private void readLegacy(DataInputStream din) throws IOException {
+        RawMatter<T> legacy = new RawMatter<>(getWidth(), getHeight(), getDepth(), getType()) {
+            @Override
+            public Palette<T> getGlobalPalette() {
+                return BitsetMatter.this.getGlobalPalette();
+            }
+
+            @Override
+            public void writeNode(T b, DataOutputStream dos) throws IOException {
+                BitsetMatter.this.writeNode(b, dos);
+            }
+
+            @Override
+            public T readNode(DataInputStream din) throws IOException {
+                return BitsetMatter.this.readNode(din);
+            }
+        };
+
+        legacy.readData(din, 1);
+        legacy.iterateSync(this::setRaw);
+    }
+
+    @Override
+    public <W> MatterWriter<W, T> writeInto(Class<W> mediumType) {
+        return SliceInjectors.writer(getClass(), mediumType);
+    }
+
+    @Override
+    public <W> MatterReader<W, T> readFrom(Class<W> mediumType) {
+        return SliceInjectors.reader(getClass(), mediumType);
+    }
+}
@@ -30,27 +30,30 @@ import java.io.DataInputStream;
 import java.io.DataOutputStream;
 import java.io.IOException;
 
-@Sliced
+@Sliced(id = 1)
 public class BlockMatter extends RawMatter<BlockData> {
     public static final BlockData AIR = Material.AIR.createBlockData();
 
-    public BlockMatter() {
-        this(1, 1, 1);
-    }
-
-    public BlockMatter(int width, int height, int depth) {
-        super(width, height, depth, BlockData.class);
-        registerWriter(World.class, ((w, d, x, y, z) -> {
+    static {
+        registerWriter(BlockMatter.class, World.class, ((w, d, x, y, z) -> {
             if (d instanceof IrisCustomData c)
                 w.getBlockAt(x, y, z).setBlockData(c.getBase());
             else w.getBlockAt(x, y, z).setBlockData(d);
         }));
-        registerReader(World.class, (w, x, y, z) -> {
+        registerReader(BlockMatter.class, World.class, (w, x, y, z) -> {
             BlockData d = w.getBlockAt(x, y, z).getBlockData();
             return d.getMaterial().isAir() ? null : d;
         });
     }
 
+    public BlockMatter() {
+        this(1, 1, 1);
+    }
+
+    public BlockMatter(int width, int height, int depth) {
+        super(width, height, depth, BlockData.class);
+    }
+
     @Override
     public Palette<BlockData> getGlobalPalette() {
         return null;
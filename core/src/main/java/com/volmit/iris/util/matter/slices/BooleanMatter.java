@@ -25,8 +25,8 @@ import java.io.DataInputStream;
 import java.io.DataOutputStream;
 import java.io.IOException;
 
-@Sliced
-public class BooleanMatter extends RawMatter<Boolean> {
+@Sliced(id = 5)
+public class BooleanMatter extends FlagMatter<Boolean> {
     public BooleanMatter() {
         this(1, 1, 1);
     }
@@ -35,6 +35,16 @@ public class BooleanMatter extends RawMatter<Boolean> {
         super(width, height, depth, Boolean.class);
     }
 
+    @Override
+    protected Boolean of(boolean flag) {
+        return flag;
+    }
+
+    @Override
+    protected boolean is(Boolean b) {
+        return b;
+    }
+
     @Override
     public Palette<Boolean> getGlobalPalette() {
         return null;
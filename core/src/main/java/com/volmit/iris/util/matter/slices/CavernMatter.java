@@ -18,18 +18,37 @@
 
 package com.volmit.iris.util.matter.slices;
 
+import com.volmit.iris.util.collection.KList;
+import com.volmit.iris.util.collection.KMap;
+import com.volmit.iris.util.data.Varint;
 import com.volmit.iris.util.data.palette.Palette;
+import com.volmit.iris.util.hunk.bits.DataBits;
 import com.volmit.iris.util.matter.MatterCavern;
 import com.volmit.iris.util.matter.Sliced;
 
 import java.io.DataInputStream;
 import java.io.DataOutputStream;
 import java.io.IOException;
+import java.util.Arrays;
 
-@Sliced
-public class CavernMatter extends RawMatter<MatterCavern> {
-    public static final MatterCavern EMPTY = new MatterCavern(false, "", (byte) 0);
-    public static final MatterCavern BASIC = new MatterCavern(true, "", (byte) 0);
+/**
+ * Caverns are stored as a presence bitset plus a small palette of cavern states. The
+ * per voxel palette ids are only allocated once a section holds more than one state.
+ * States (and with them the custom biome strings) are interned so every section
+ * shares the same instances, up to a fixed number of distinct states.
+ * <p>
+ * The palette is replaced rather than changed when a state is added and ids are
+ * written before the bit is set, so values can be read without locking.
+ */
+@Sliced(id = 3)
+public class CavernMatter extends BitsetMatter<MatterCavern> {
+    private static final int MAX_STATES = 4096;
+    private static final MatterCavern[] NONE = new MatterCavern[0];
+    private static final KMap<MatterCavern, MatterCavern> STATES = new KMap<>();
+    public static final MatterCavern EMPTY = intern(new MatterCavern(false, "", (byte) 0));
+    public static final MatterCavern BASIC = intern(new MatterCavern(true, "", (byte) 0));
+    private volatile MatterCavern[] palette;
+    private volatile DataBits ids;
 
     public CavernMatter() {
         this(1, 1, 1);
@@ -37,10 +56,178 @@ public class CavernMatter extends RawMatter<MatterCavern> {
 
     public CavernMatter(int width, int height, int depth) {
         super(width, height, depth, MatterCavern.class);
+        palette = NONE;
     }
 
     public static MatterCavern get(String customBiome, int liquid) {
-        return new MatterCavern(true, customBiome, (byte) liquid);
+        return intern(new MatterCavern(true, customBiome, (byte) liquid));
+    }
+
+    /**
+     * Get the shared instance of a state. Once the table is full new states are used as they are,
+     * so packs generating many custom biomes can't grow it without bound
+     */
+    private static MatterCavern intern(MatterCavern cavern) {
+        MatterCavern c = STATES.get(cavern);
+
+        if (c != null) {
+            return c;
+        }
+
+        if (STATES.size() >= MAX_STATES) {
+            return cavern;
+        }
+
+        c = STATES.putIfAbsent(cavern, cavern);
+        return c == null ? cavern : c;
+    }
+
+    private static int bits(int size) {
+        return Math.max(1, 32 - Integer.numberOfLeadingZeros(size - 1));
+    }
+
+    @Override
+    protected MatterCavern getValue(int index) {
+        DataBits i = ids;
+        int id = i == null ? 0 : i.get(index);
+        MatterCavern[] p = palette;
+        return id < p.length ? p[id] : null;
+    }
+
+    @Override
+    protected void setValue(int index, MatterCavern t) {
+        MatterCavern[] p = palette;
+        int id = indexOf(p, t);
+
+        if (id == -1) {
+            id = p.length;
+            p = Arrays.copyOf(p, id + 1);
+            p[id] = intern(t);
+            palette = p;
+        }
+
+        if (p.length > 1) {
+            int bits = bits(p.length);
+            DataBits i = ids;
+
+            if (i == null) {
+                i = new DataBits(bits, volume());
+                ids = i;
+            } else if (i.getBits() < bits) {
+                i = i.setBits(bits);
+                ids = i;
+            }
+
+            i.set(index, id);
+        }
+    }
+
+    private static int indexOf(MatterCavern[] palette, MatterCavern t) {
+        for (int i = 0; i < palette.length; i++) {
+            if (palette[i].equals(t)) {
+                return i;
+            }
+        }
+
+        return -1;
+    }
+
+    @Override
+    protected void clearValues() {
+        palette = NONE;
+        ids = null;
+    }
+
+    @Override
+    protected void writeValues(DataOutputStream dos) throws IOException {
+        MatterCavern[] palette = this.palette;
+        DataBits ids = this.ids;
+        int[] remap = new int[palette.length];
+        KList<MatterCavern> used = new KList<>();
+
+        if (ids == null) {
+            if (palette.length > 0 && nextSet(0) >= 0) {
+                used.add(palette[0]);
+            }
+        } else {
+            Arrays.fill(remap, -1);
+
+            for (int i = nextSet(0); i >= 0; i = nextSet(i + 1)) {
+                int id = ids.get(i);
+
+                if (remap[id] == -1) {
+                    remap[id] = used.size();
+                    used.add(palette[id]);
+                }
+            }
+        }
+
+        KList<String> strings = new KList<>();
+        for (MatterCavern i : used) {
+            strings.addIfMissing(i.getCustomBiome());
+        }
+
+        Varint.writeUnsignedVarInt(strings.size(), dos);
+        for (String i : strings) {
+            dos.writeUTF(i);
+        }
+
+        Varint.writeUnsignedVarInt(used.size(), dos);
+        for (MatterCavern i : used) {
+            dos.writeByte((i.isCavern() ? 1 : 0) | (i.getLiquid() << 1));
+            Varint.writeUnsignedVarInt(strings.indexOf(i.getCustomBiome()), dos);
+        }
+
+        if (used.size() > 1) {
+            for (int i = nextSet(0); i >= 0; i = nextSet(i + 1)) {
+                Varint.writeUnsignedVarInt(remap[ids.get(i)], dos);
+            }
+        }
+    }
+
+    @Override
+    protected void readValues(DataInputStream din) throws IOException {
+        String[] strings = new String[Varint.readUnsignedVarInt(din)];
+        for (int i = 0; i < strings.length; i++) {
+            strings[i] = din.readUTF();
+        }
+
+        MatterCavern[] palette = new MatterCavern[Varint.readUnsignedVarInt(din)];
+        for (int i = 0; i < palette.length; i++) {
+            int flags = din.readUnsignedByte();
+            palette[i] = intern(new MatterCavern((flags & 1) != 0, strings[Varint.readUnsignedVarInt(din)], (byte) (flags >> 1)));
+        }
+
+        if (palette.length > 1) {
+            DataBits ids = new DataBits(bits(palette.length), volume());
+
+            for (int i = nextSet(0); i >= 0; i = nextSet(i + 1)) {
+                ids.set(i, Varint.readUnsignedVarInt(din));
+            }
+
+            this.ids = ids;
+        }
+
+        this.palette = palette;
+    }
+
+    @Override
+    protected void shareValues(BitsetMatter<MatterCavern> slice) {
+        CavernMatter c = (CavernMatter) slice;
+        palette = c.palette;
+        ids = c.ids;
+    }
+
+    @Override
+    protected void copyValues() {
+        DataBits i = ids;
+        ids = i == null ? null : i.copy();
+    }
+
+    @Override
+    protected long estimateValueMemory() {
+        DataBits i = ids;
+        return 32 + (palette.length * 8L) + (i == null ? 0 : 16 + i.getRaw().length() * 8L);
     }
 
     @Override
@@ -21,7 +21,7 @@ package com.volmit.iris.util.matter.slices;
 import com.volmit.iris.util.matter.Sliced;
 import com.volmit.iris.util.nbt.tag.CompoundTag;
 
-@Sliced
+@Sliced(id = 13)
 public class CompoundMatter extends NBTMatter<CompoundTag> {
     public static final CompoundTag EMPTY = new CompoundTag();
 
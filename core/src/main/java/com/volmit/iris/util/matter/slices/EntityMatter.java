@@ -39,10 +39,19 @@ import java.io.DataInputStream;
 import java.io.DataOutputStream;
 import java.io.IOException;
 
-@Sliced
+@Sliced(id = 8)
 public class EntityMatter extends RawMatter<MatterEntityGroup> {
     public static final MatterEntityGroup EMPTY = new MatterEntityGroup();
-    private transient KMap<IrisPosition, KList<Entity>> entityCache = new KMap<>();
+    private transient KMap<IrisPosition, KList<Entity>> entityCache;
+
+    static {
+        registerWriter(EntityMatter.class, World.class, ((w, d, x, y, z) -> {
+            for (MatterEntity i : d.getEntities()) {
+                Location realPosition = new Location(w, x + i.getXOff(), y + i.getYOff(), z + i.getZOff());
+                INMS.get().deserializeEntity(i.getEntityData(), realPosition);
+            }
+        }));
+    }
 
     public EntityMatter() {
         this(1, 1, 1);
@@ -50,31 +59,39 @@ public class EntityMatter extends RawMatter<MatterEntityGroup> {
 
     public EntityMatter(int width, int height, int depth) {
         super(width, height, depth, MatterEntityGroup.class);
-        registerWriter(World.class, ((w, d, x, y, z) -> {
-            for (MatterEntity i : d.getEntities()) {
-                Location realPosition = new Location(w, x + i.getXOff(), y + i.getYOff(), z + i.getZOff());
-                INMS.get().deserializeEntity(i.getEntityData(), realPosition);
-            }
-        }));
-        registerReader(World.class, (w, x, y, z) -> {
-            IrisPosition pos = new IrisPosition(x, y, z);
-            KList<Entity> entities = entityCache.get(pos);
-            MatterEntityGroup g = new MatterEntityGroup();
-            if (entities != null) {
-                for (Entity i : entities) {
-                    g.getEntities().add(new MatterEntity(
-                            Math.abs(i.getLocation().getX()) - Math.abs(i.getLocation().getBlockX()),
-                            Math.abs(i.getLocation().getY()) - Math.abs(i.getLocation().getBlockY()),
-                            Math.abs(i.getLocation().getZ()) - Math.abs(i.getLocation().getBlockZ()),
-                            INMS.get().serializeEntity(i)
-                    ));
-                }
-
-                return g;
+    }
+
+    private MatterEntityGroup readEntities(int x, int y, int z) {
+        IrisPosition pos = new IrisPosition(x, y, z);
+        KList<Entity> entities = entityCache == null ? null : entityCache.get(pos);
+        MatterEntityGroup g = new MatterEntityGroup();
+        if (entities != null) {
+            for (Entity i : entities) {
+                g.getEntities().add(new MatterEntity(
+                        Math.abs(i.getLocation().getX()) - Math.abs(i.getLocation().getBlockX()),
+                        Math.abs(i.getLocation().getY()) - Math.abs(i.getLocation().getBlockY()),
+                        Math.abs(i.getLocation().getZ()) - Math.abs(i.getLocation().getBlockZ()),
+                        INMS.get().serializeEntity(i)
+                ));
             }
 
-            return null;
-        });
+            return g;
+        }
+
+        return null;
+    }
+
+    /**
+     * The entity reader works off the entity cache of this slice, so unlike the writer
+     * it can't be shared through the class registry
+     */
+    @Override
+    public <W> MatterReader<W, MatterEntityGroup> readFrom(Class<W> mediumType) {
+        if (mediumType != World.class) {
+            return super.readFrom(mediumType);
+        }
+
+        return (w, x, y, z) -> readEntities(x, y, z);
     }
 
     @Override
@@ -0,0 +1,120 @@
+/*
+ * Iris is a World Generator for Minecraft Bukkit Servers
+ * Copyright (c) 2022 Arcane Arts (Volmit Software)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package com.volmit.iris.util.matter.slices;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * A two state slice stored as two bitsets, one for presence and one for the value.
+ *
+ * @param <T> the slice type
+ */
+public abstract class FlagMatter<T> extends BitsetMatter<T> {
+    private volatile AtomicLongArray values;
+
+    public FlagMatter(int width, int height, int depth, Class<T> type) {
+        super(width, height, depth, type);
+        values = new AtomicLongArray((width * height * depth + 63) >> 6);
+    }
+
+    protected abstract T of(boolean flag);
+
+    protected abstract boolean is(T t);
+
+    @Override
+    protected T getValue(int index) {
+        return of((values.get(index >> 6) & (1L << index)) != 0);
+    }
+
+    @Override
+    protected void setValue(int index, T t) {
+        AtomicLongArray values = this.values;
+        long w = values.get(index >> 6);
+        values.set(index >> 6, is(t) ? w | 1L << index : w & ~(1L << index));
+    }
+
+    @Override
+    protected void clearValues() {
+        values = new AtomicLongArray(values.length());
+    }
+
+    @Override
+    protected void writeValues(DataOutputStream dos) throws IOException {
+        int b = 0;
+        int n = 0;
+
+        for (int i = nextSet(0); i >= 0; i = nextSet(i + 1)) {
+            if ((values.get(i >> 6) & (1L << i)) != 0) {
+                b |= 1 << n;
+            }
+
+            if (++n == 8) {
+                dos.writeByte(b);
+                b = 0;
+                n = 0;
+            }
+        }
+
+        if (n > 0) {
+            dos.writeByte(b);
+        }
+    }
+
+    @Override
+    protected void readValues(DataInputStream din) throws IOException {
+        int b = 0;
+        int n = 8;
+
+        for (int i = nextSet(0); i >= 0; i = nextSet(i + 1)) {
+            if (n == 8) {
+                b = din.readUnsignedByte();
+                n = 0;
+            }
+
+            if ((b & (1 << n++)) != 0) {
+                values.set(i >> 6, values.get(i >> 6) | 1L << i);
+            }
+        }
+    }
+
+    @Override
+    protected void shareValues(BitsetMatter<T> slice) {
+        values = ((FlagMatter<T>) slice).values;
+    }
+
+    @Override
+    protected void copyValues() {
+        AtomicLongArray v = values;
+        AtomicLongArray c = new AtomicLongArray(v.length());
+
+        for (int i = 0; i < c.length(); i++) {
+            c.set(i, v.get(i));
+        }
+
+        values = c;
+    }
+
+    @Override
+    protected long estimateValueMemory() {
+        return 16 + (values.length() * 8L);
+    }
+}
@@ -8,7 +8,7 @@ import java.io.DataInputStream;
 import java.io.DataOutputStream;
 import java.io.IOException;
 
-@Sliced
+@Sliced(id = 14)
 public class IdentifierMatter extends RawMatter<Identifier> {
 
 	public IdentifierMatter() {
@@ -26,7 +26,7 @@ import java.io.DataInputStream;
 import java.io.DataOutputStream;
 import java.io.IOException;
 
-@Sliced
+@Sliced(id = 6)
 public class IntMatter extends RawMatter<Integer> {
     public IntMatter() {
         this(1, 1, 1);
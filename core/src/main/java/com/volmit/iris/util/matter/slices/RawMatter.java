@@ -18,47 +18,84 @@
 
 package com.volmit.iris.util.matter.slices;
 
-import com.volmit.iris.util.collection.KMap;
 import com.volmit.iris.util.hunk.storage.MappedHunk;
 import com.volmit.iris.util.hunk.storage.PaletteOrHunk;
 import com.volmit.iris.util.matter.MatterReader;
 import com.volmit.iris.util.matter.MatterSlice;
 import com.volmit.iris.util.matter.MatterWriter;
 import lombok.Getter;
+import lombok.Setter;
 
 import java.io.DataInputStream;
 import java.io.DataOutputStream;
 import java.io.IOException;
 
 public abstract class RawMatter<T> extends PaletteOrHunk<T> implements MatterSlice<T> {
-    protected final KMap<Class<?>, MatterWriter<?, T>> writers;
-    protected final KMap<Class<?>, MatterReader<?, T>> readers;
     @Getter
     private final Class<T> type;
+    @Getter
+    @Setter
+    private volatile boolean dirty;
 
     public RawMatter(int width, int height, int depth, Class<T> type) {
         super(width, height, depth, true, () -> new MappedHunk<>(width, height, depth));
-        writers = new KMap<>();
-        readers = new KMap<>();
         this.type = type;
     }
 
-    protected <W> void registerWriter(Class<W> mediumType, MatterWriter<W, T> injector) {
-        writers.put(mediumType, injector);
+    @Override
+    public void setRaw(int x, int y, int z, T t) {
+        super.setRaw(x, y, z, t);
+        if (!dirty) {
+            dirty = true;
+        }
+    }
+
+    @Override
+    public void empty(T b) {
+        super.empty(b);
+        dirty = true;
+    }
+
+    @Override
+    public void share(MatterSlice<T> slice) {
+        if (slice instanceof RawMatter<T> r && r.getClass() == getClass()) {
+            shareStorage(r);
+            return;
+        }
+
+        MatterSlice.super.share(slice);
+    }
+
+    /**
+     * Register a writer for every slice of the given type, call this from a static initializer
+     *
+     * @param slice      the slice type
+     * @param mediumType the medium written into
+     * @param injector   the writer
+     */
+    protected static <W, T> void registerWriter(Class<? extends RawMatter<T>> slice, Class<W> mediumType, MatterWriter<W, T> injector) {
+        SliceInjectors.registerWriter(slice, mediumType, injector);
     }
 
-    protected <W> void registerReader(Class<W> mediumType, MatterReader<W, T> injector) {
-        readers.put(mediumType, injector);
+    /**
+     * Register a reader for every slice of the given type, call this from a static initializer
+     *
+     * @param slice      the slice type
+     * @param mediumType the medium read from
+     * @param injector   the reader
+     */
+    protected static <W, T> void registerReader(Class<? extends RawMatter<T>> slice, Class<W> mediumType, MatterReader<W, T> injector) {
+        SliceInjectors.registerReader(slice, mediumType, injector);
     }
 
     @Override
     public <W> MatterWriter<W, T> writeInto(Class<W> mediumType) {
-        return (MatterWriter<W, T>) writers.get(mediumType);
+        return SliceInjectors.writer(getClass(), mediumType);
     }
 
     @Override
     public <W> MatterReader<W, T> readFrom(Class<W> mediumType) {
-        return (MatterReader<W, T>) readers.get(mediumType);
+        return SliceInjectors.reader(getClass(), mediumType);
     }
 
     @Override
@@ -0,0 +1,67 @@
+/*
+ * Iris is a World Generator for Minecraft Bukkit Servers
+ * Copyright (c) 2022 Arcane Arts (Volmit Software)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package com.volmit.iris.util.matter.slices;
+
+import com.volmit.iris.util.collection.KMap;
+import com.volmit.iris.util.matter.MatterReader;
+import com.volmit.iris.util.matter.MatterSlice;
+import com.volmit.iris.util.matter.MatterWriter;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Class level writer & reader registries for slice types. Slices register their injectors
+ * once in a static initializer instead of on every instance, so a section does not carry
+ * maps of its own.
+ */
+final class SliceInjectors {
+    private static final KMap<Class<?>, Map<Class<?>, MatterWriter<?, ?>>> WRITERS = new KMap<>();
+    private static final KMap<Class<?>, Map<Class<?>, MatterReader<?, ?>>> READERS = new KMap<>();
+
+    private SliceInjectors() {
+
+    }
+
+    static <W, T> void registerWriter(Class<? extends MatterSlice<T>> slice, Class<W> mediumType, MatterWriter<W, T> injector) {
+        WRITERS.compute(slice, (k, v) -> with(v, mediumType, injector));
+    }
+
+    static <W, T> void registerReader(Class<? extends MatterSlice<T>> slice, Class<W> mediumType, MatterReader<W, T> injector) {
+        READERS.compute(slice, (k, v) -> with(v, mediumType, injector));
+    }
+
+    @SuppressWarnings("unchecked")
+    static <W, T> MatterWriter<W, T> writer(Class<?> slice, Class<W> mediumType) {
+        Map<Class<?>, MatterWriter<?, ?>> writers = WRITERS.get(slice);
+        return writers == null ? null : (MatterWriter<W, T>) writers.get(mediumType);
+    }
+
+    @SuppressWarnings("unchecked")
+    static <W, T> MatterReader<W, T> reader(Class<?> slice, Class<W> mediumType) {
+        Map<Class<?>, MatterReader<?, ?>> readers = READERS.get(slice);
+        return readers == null ? null : (MatterReader<W, T>) readers.get(mediumType);
+    }
+
+    private static <V> Map<Class<?>, V> with(Map<Class<?>, V> map, Class<?> key, V value) {
+        Map<Class<?>, V> m = map == null ? new HashMap<>() : new HashMap<>(map);
+        m.put(key, value);
+        return Map.copyOf(m);
+    }
+}
@@ -25,7 +25,7 @@ import java.io.DataInputStream;
 import java.io.DataOutputStream;
 import java.io.IOException;
 
-@Sliced
+@Sliced(id = 2)
 public class StringMatter extends RawMatter<String> {
     public StringMatter() {
         this(1, 1, 1);
@@ -30,17 +30,20 @@ import java.io.DataOutputStream;
 import java.io.IOException;
 
 @SuppressWarnings("rawtypes")
-@Sliced
+@Sliced(id = 9)
 public class TileMatter extends RawMatter<TileWrapper> {
 
+    static {
+        registerWriter(TileMatter.class, World.class, (w, d, x, y, z) -> TileData.setTileState(w.getBlockAt(new Location(w, x, y, z)), d.getData()));
+        registerReader(TileMatter.class, World.class, (w, x, y, z) -> new TileWrapper(TileData.getTileState(w.getBlockAt(new Location(w, x, y, z)), false)));
+    }
+
     public TileMatter() {
         this(1, 1, 1);
     }
 
     public TileMatter(int width, int height, int depth) {
         super(width, height, depth, TileWrapper.class);
-        registerWriter(World.class, (w, d, x, y, z) -> TileData.setTileState(w.getBlockAt(new Location(w, x, y, z)), d.getData()));
-        registerReader(World.class, (w, x, y, z) -> new TileWrapper(TileData.getTileState(w.getBlockAt(new Location(w, x, y, z)), false)));
     }
 
     @Override
@@ -27,8 +27,8 @@ import java.io.DataInputStream;
 import java.io.DataOutputStream;
 import java.io.IOException;
 
-@Sliced
-public class UpdateMatter extends RawMatter<MatterUpdate> {
+@Sliced(id = 4)
+public class UpdateMatter extends FlagMatter<MatterUpdate> {
     public static final MatterUpdate ON = new MatterUpdate(true);
     public static final MatterUpdate OFF = new MatterUpdate(false);
     private static final Palette<MatterUpdate> GLOBAL = new GlobalPalette<>(OFF, ON);
@@ -41,6 +41,16 @@ public class UpdateMatter extends RawMatter<MatterUpdate> {
         super(width, height, depth, MatterUpdate.class);
     }
 
+    @Override
+    protected MatterUpdate of(boolean flag) {
+        return flag ? ON : OFF;
+    }
+
+    @Override
+    protected boolean is(MatterUpdate u) {
+        return u.isUpdate();
+    }
+
     @Override
     public Palette<MatterUpdate> getGlobalPalette() {
         return GLOBAL;
@@ -28,8 +28,8 @@ import com.volmit.iris.util.function.NoiseInjector;
 import com.volmit.iris.util.interpolation.IrisInterpolation;
 import com.volmit.iris.util.math.RNG;
 import com.volmit.iris.util.scheduling.PrecisionStopwatch;
+import com.volmit.iris.util.stream.DoubleStream;
 import com.volmit.iris.util.stream.ProceduralStream;
-import com.volmit.iris.util.stream.arithmetic.FittedStream;
 import com.volmit.iris.util.stream.sources.CNGStream;
 import lombok.Data;
 
@@ -285,12 +285,12 @@ public class CNG {
         return generator;
     }
 
-    public ProceduralStream<Double> stream() {
+    public DoubleStream stream() {
         return new CNGStream(this);
     }
 
-    public ProceduralStream<Double> stream(double min, double max) {
-        return new FittedStream<>(stream(), min, max);
+    public DoubleStream stream(double min, double max) {
+        return stream().fit(min, max);
     }
 
     public CNG bake() {
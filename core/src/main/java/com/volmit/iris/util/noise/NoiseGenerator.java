@@ -18,8 +18,7 @@
 
 package com.volmit.iris.util.noise;
 
-import com.volmit.iris.util.stream.ProceduralStream;
-import com.volmit.iris.util.stream.interpolation.Interpolated;
+import com.volmit.iris.util.stream.DoubleStream;
 
 public interface NoiseGenerator {
     double noise(double x);
@@ -36,7 +35,7 @@ public interface NoiseGenerator {
         return false;
     }
 
-    default ProceduralStream<Double> stream() {
-        return ProceduralStream.of(this::noise, this::noise, Interpolated.DOUBLE);
+    default DoubleStream stream() {
+        return DoubleStream.of(this::noise, this::noise);
     }
 }
@@ -18,7 +18,6 @@
 
 package com.volmit.iris.util.parallel;
 
-import com.googlecode.concurrentlinkedhashmap.ConcurrentLinkedHashMap;
 import com.volmit.iris.Iris;
 import com.volmit.iris.engine.data.cache.Cache;
 import com.volmit.iris.util.function.NastyRunnable;
@@ -29,10 +28,15 @@ import java.util.concurrent.TimeUnit;
 import java.util.concurrent.locks.ReentrantLock;
 import java.util.function.Supplier;
 
+/**
+ * Locks keyed by x/z coordinates. Keys are hashed onto a fixed table of locks so the
+ * same key always maps to the same lock, without allocating or evicting on the lock path.
+ * Different keys may share a lock, so never hold the lock of one key while locking another.
+ */
 public class HyperLock {
-    private final ConcurrentLinkedHashMap<Long, ReentrantLock> locks;
+    private final ReentrantLock[] locks;
+    private final int mask;
     private boolean enabled = true;
-    private boolean fair = false;
 
     public HyperLock() {
         this(1024, false);
@@ -43,68 +47,57 @@ public class HyperLock {
     }
 
     public HyperLock(int capacity, boolean fair) {
-        this.fair = fair;
-        locks = new ConcurrentLinkedHashMap.Builder<Long, ReentrantLock>()
-                .initialCapacity(capacity)
-                .maximumWeightedCapacity(capacity)
-                .listener((k, v) -> {
-                    if (v.isLocked() || v.isHeldByCurrentThread()) {
-                        Iris.warn("InfiniLock Eviction of " + k + " still has locks on it!");
-                    }
-                })
-                .concurrencyLevel(32)
-                .build();
+        int size = 1;
+        while (size < capacity) {
+            size <<= 1;
+        }
+
+        locks = new ReentrantLock[size];
+        mask = size - 1;
+
+        for (int i = 0; i < size; i++) {
+            locks[i] = new ReentrantLock(fair);
+        }
     }
 
     public void with(int x, int z, Runnable r) {
         lock(x, z);
-        r.run();
-        unlock(x, z);
+        try {
+            r.run();
+        } finally {
+            unlock(x, z);
+        }
     }
 
     public void withLong(long k, Runnable r) {
-        lock(Cache.keyX(k), Cache.keyZ(k));
-        r.run();
-        unlock(Cache.keyX(k), Cache.keyZ(k));
+        with(Cache.keyX(k), Cache.keyZ(k), r);
     }
 
     public void withNasty(int x, int z, NastyRunnable r) throws Throwable {
         lock(x, z);
-        Throwable ee = null;
         try {
             r.run();
-        } catch (Throwable e) {
-            ee = e;
         } finally {
             unlock(x, z);
-
-            if (ee != null) {
-                throw ee;
-            }
         }
     }
 
     public void withIO(int x, int z, IORunnable r) throws IOException {
         lock(x, z);
-        IOException ee = null;
         try {
             r.run();
-        } catch (IOException e) {
-            ee = e;
         } finally {
             unlock(x, z);
-
-            if (ee != null) {
-                throw ee;
-            }
         }
     }
 
     public <T> T withResult(int x, int z, Supplier<T> r) {
         lock(x, z);
-        T t = r.get();
-        unlock(x, z);
-        return t;
+        try {
+            return r.get();
+        } finally {
+            unlock(x, z);
+        }
     }
 
     public boolean tryLock(int x, int z) {
@@ -122,7 +115,8 @@ public class HyperLock {
     }
 
     private ReentrantLock getLock(int x, int z) {
-        return locks.computeIfAbsent(Cache.key(x, z), k -> new ReentrantLock(fair));
+        long h = Cache.key(x, z) * 0x9E3779B97F4A7C15L;
+        return locks[(int) (h ^ (h >>> 32)) & mask];
     }
 
     public void lock(int x, int z) {
@@ -0,0 +1,260 @@
+/*
+ * Iris is a World Generator for Minecraft Bukkit Servers
+ * Copyright (c) 2022 Arcane Arts (Volmit Software)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package com.volmit.iris.util.stream;
+
+import com.volmit.iris.engine.framework.Engine;
+import com.volmit.iris.util.context.ChunkContext;
+import com.volmit.iris.util.function.Function2;
+import com.volmit.iris.util.function.Function3;
+import com.volmit.iris.util.function.NoiseProvider;
+import com.volmit.iris.util.function.NoiseProvider3;
+import com.volmit.iris.util.stream.arithmetic.*;
+import com.volmit.iris.util.stream.convert.ForceDoubleStream;
+import com.volmit.iris.util.stream.sources.DoubleFunctionStream;
+import com.volmit.iris.util.stream.utility.CachedDoubleStream2D;
+import com.volmit.iris.util.stream.utility.DoubleContextInjectingStream;
+
+/**
+ * A numeric stream sampled as primitive doubles. The arithmetic nodes of a double stream stay primitive,
+ * values are only boxed when sampled through {@link #get(double, double)} or converted to another type.
+ */
+public interface DoubleStream extends ProceduralStream<Double> {
+    static DoubleStream of(NoiseProvider f) {
+        return of(f, (x, y, z) -> f.noise(x, z));
+    }
+
+    static DoubleStream of(NoiseProvider3 f) {
+        return of((x, z) -> f.noise(x, 0D, z), f);
+    }
+
+    static DoubleStream of(NoiseProvider f, NoiseProvider3 f3) {
+        return new DoubleFunctionStream(f, f3);
+    }
+
+    /**
+     * Sample any stream as a double stream
+     *
+     * @param stream the stream
+     * @return the stream itself if it already is a double stream
+     */
+    static DoubleStream from(ProceduralStream<?> stream) {
+        return stream instanceof DoubleStream d ? d : new ForceDoubleStream(stream);
+    }
+
+    @Override
+    double getDouble(double x, double z);
+
+    @Override
+    double getDouble(double x, double y, double z);
+
+    @Override
+    default Double get(double x, double z) {
+        return getDouble(x, z);
+    }
+
+    @Override
+    default Double get(double x, double y, double z) {
+        return getDouble(x, y, z);
+    }
+
+    @Override
+    default double toDouble(Double t) {
+        return t;
+    }
+
+    @Override
+    default Double fromDouble(double d) {
+        return d;
+    }
+
+    @Override
+    default DoubleStream forceDouble() {
+        return this;
+    }
+
+    @Override
+    default DoubleStream waste(String name) {
+        return this;
+    }
+
+    @Override
+    default DoubleStream contextInjecting(Function3<ChunkContext, Integer, Integer, Double> contextAccessor) {
+        return new DoubleContextInjectingStream(this, contextAccessor);
+    }
+
+    @Override
+    default DoubleStream cache2D(String name, Engine engine, int size) {
+        return new CachedDoubleStream2D(name, engine, this, size);
+    }
+
+    @Override
+    default DoubleStream add(double a) {
+        return DoubleAddingStream.of(this, (x, y, z) -> a);
+    }
+
+    @Override
+    default DoubleStream add(ProceduralStream<Double> a) {
+        DoubleStream d = from(a);
+        return DoubleAddingStream.of(this, (x, y, z) -> d.getDouble(x, z));
+    }
+
+    @Override
+    default DoubleStream add(Function3<Double, Double, Double, Double> a) {
+        return DoubleAddingStream.of(this, a::apply);
+    }
+
+    @Override
+    default DoubleStream add(Function2<Double, Double, Double> a) {
+        return add2D(a);
+    }
+
+    @Override
+    default DoubleStream add2D(Function2<Double, Double, Double> a) {
+        return DoubleAddingStream.of(this, (x, y, z) -> a.apply(x, z));
+    }
+
+    @Override
+    default DoubleStream subtract(double a) {
+        return new DoubleSubtractingStream(this, (x, y, z) -> a);
+    }
+
+    @Override
+    default DoubleStream subtract(ProceduralStream<Double> a) {
+        DoubleStream d = from(a);
+        return new DoubleSubtractingStream(this, (x, y, z) -> d.getDouble(x, z));
+    }
+
+    @Override
+    default DoubleStream subtract(Function3<Double, Double, Double, Double> a) {
+        return new DoubleSubtractingStream(this, a::apply);
+    }
+
+    @Override
+    default DoubleStream subtract(Function2<Double, Double, Double> a) {
+        return subtract2D(a);
+    }
+
+    @Override
+    default DoubleStream subtract2D(Function2<Double, Double, Double> a) {
+        return new DoubleSubtractingStream(this, (x, y, z) -> a.apply(x, z));
+    }
+
+    @Override
+    default DoubleStream multiply(double a) {
+        if (a == 1) {
+            return this;
+        }
+
+        return DoubleMultiplyingStream.of(this, (x, y, z) -> a);
+    }
+
+    @Override
+    default DoubleStream multiply(Function3<Double, Double, Double, Double> a) {
+        return DoubleMultiplyingStream.of(this, a::apply);
+    }
+
+    @Override
+    default DoubleStream multiply(Function2<Double, Double, Double> a) {
+        return DoubleMultiplyingStream.of(this, (x, y, z) -> a.apply(x, z));
+    }
+
+    @Override
+    default DoubleStream max(double a) {
+        return new DoubleMaxingStream(this, (x, y, z) -> a);
+    }
+
+    @Override
+    default DoubleStream max(Function3<Double, Double, Double, Double> a) {
+        return new DoubleMaxingStream(this, a::apply);
+    }
+
+    @Override
+    default DoubleStream max(Function2<Double, Double, Double> a) {
+        return new DoubleMaxingStream(this, (x, y, z) -> a.apply(x, z));
+    }
+
+    @Override
+    default DoubleStream min(double a) {
+        return new DoubleMinningStream(this, (x, y, z) -> a);
+    }
+
+    @Override
+    default DoubleStream min(Function3<Double, Double, Double, Double> a) {
+        return new DoubleMinningStream(this, a::apply);
+    }
+
+    @Override
+    default DoubleStream min(Function2<Double, Double, Double> a) {
+        return new DoubleMinningStream(this, (x, y, z) -> a.apply(x, z));
+    }
+
+    @Override
+    default DoubleStream clamp(double min, double max) {
+        return new DoubleClampedStream(this, min, max);
+    }
+
+    @Override
+    default DoubleStream fit(double min, double max) {
+        return new DoubleFittedStream(this, min, max);
+    }
+
+    @Override
+    default DoubleStream fit(double inMin, double inMax, double min, double max) {
+        return new DoubleFittedStream(this, inMin, inMax, min, max);
+    }
+
+    @Override
+    default DoubleStream slope() {
+        return slope(1);
+    }
+
+    @Override
+    default DoubleStream slope(int range) {
+        return new DoubleSlopeStream(this, range);
+    }
+
+    @Override
+    default DoubleStream offset(double x, double y, double z) {
+        return DoubleOffsetStream.of(this, x, y, z);
+    }
+
+    @Override
+    default DoubleStream offset(double x, double z) {
+        return DoubleOffsetStream.of(this, x, 0, z);
+    }
+
+    @Override
+    default DoubleStream zoom(double x, double y, double z) {
+        if (x == 1 && y == 1 && z == 1) {
+            return this;
+        }
+
+        return DoubleZoomStream.of(this, x, y, z);
+    }
+
+    @Override
+    default DoubleStream zoom(double x, double z) {
+        return zoom(x, 1, z);
+    }
+
+    @Override
+    default DoubleStream zoom(double all) {
+        return zoom(all, all, all);
+    }
+}
@@ -45,9 +45,9 @@ import java.util.function.Function;
 
 @SuppressWarnings("ALL")
 public interface ProceduralStream<T> extends ProceduralLayer, Interpolated<T> {
-    static ProceduralStream<Double> ofDouble(Function2<Double, Double, Double> f) {
+    static DoubleStream ofDouble(Function2<Double, Double, Double> f) {
         try {
-            return of(f, Interpolated.DOUBLE);
+            return DoubleStream.of(f::apply);
         } catch (IncompatibleClassChangeError e) {
             Iris.warn(f.toString());
             Iris.reportError(e);
@@ -56,8 +56,8 @@ public interface ProceduralStream<T> extends ProceduralLayer, Interpolated<T> {
         }
     }
 
-    static ProceduralStream<Double> ofDouble(Function3<Double, Double, Double, Double> f) {
-        return of(f, Interpolated.DOUBLE);
+    static DoubleStream ofDouble(Function3<Double, Double, Double, Double> f) {
+        return DoubleStream.of(f::apply);
     }
 
     static <T> ProceduralStream<T> of(Function2<Double, Double, T> f, Interpolated<T> helper) {
@@ -263,8 +263,8 @@ public interface ProceduralStream<T> extends ProceduralLayer, Interpolated<T> {
         return new RoundingDoubleStream(this);
     }
 
-    default ProceduralStream<Double> forceDouble() {
-        return new ForceDoubleStream(this);
+    default DoubleStream forceDouble() {
+        return DoubleStream.from(this);
     }
 
     default ProceduralStream<Significance<T>> significance(double radius, int checks) {
@@ -275,7 +275,7 @@ public interface ProceduralStream<T> extends ProceduralLayer, Interpolated<T> {
         return new To3DStream<T>(this);
     }
 
-    default CachedStream2D<T> cache2D(String name, Engine engine, int size) {
+    default ProceduralStream<T> cache2D(String name, Engine engine, int size) {
         return new CachedStream2D<T>(name, engine, this, size);
     }
 
@@ -555,6 +555,65 @@ public interface ProceduralStream<T> extends ProceduralLayer, Interpolated<T> {
         return toDouble(get(x, y, z));
     }
 
+    /**
+     * Fills a w by h tile of samples starting at (x0, z0), spaced by step. The result is row major on z, so the sample
+     * at (x0 + i * step, z0 + j * step) lands in out[j * w + i].
+     */
+    default void fill(T[] out, double x0, double z0, int w, int h, double step) {
+        fill(out, axis(x0, w, step), axis(z0, h, step));
+    }
+
+    /**
+     * Fills the grid spanned by the given x and z axes into out[j * xs.length + i]. Nodes override this to process
+     * their upstream tile in one pass. Every sample must match what {@link #get(double, double)} returns for the same
+     * coordinates.
+     */
+    @SuppressWarnings("unchecked")
+    default void fill(T[] out, double[] xs, double[] zs) {
+        int w = xs.length;
+
+        if (this instanceof DoubleStream) {
+            double[] d = new double[w * zs.length];
+            fill(d, xs, zs);
+
+            for (int i = 0; i < d.length; i++) {
+                out[i] = (T) Double.valueOf(d[i]);
+            }
+
+            return;
+        }
+
+        for (int j = 0; j < zs.length; j++) {
+            for (int i = 0; i < w; i++) {
+                out[(j * w) + i] = get(xs[i], zs[j]);
+            }
+        }
+    }
+
+    default void fill(double[] out, double x0, double z0, int w, int h, double step) {
+        fill(out, axis(x0, w, step), axis(z0, h, step));
+    }
+
+    default void fill(double[] out, double[] xs, double[] zs) {
+        int w = xs.length;
+
+        for (int j = 0; j < zs.length; j++) {
+            for (int i = 0; i < w; i++) {
+                out[(j * w) + i] = getDouble(xs[i], zs[j]);
+            }
+        }
+    }
+
+    static double[] axis(double origin, int size, double step) {
+        double[] a = new double[size];
+
+        for (int i = 0; i < size; i++) {
+            a[i] = origin + (i * step);
+        }
+
+        return a;
+    }
+
     ProceduralStream<T> getTypedSource();
 
     ProceduralStream<?> getSource();
@@ -0,0 +1,91 @@
+/*
+ * Iris is a World Generator for Minecraft Bukkit Servers
+ * Copyright (c) 2022 Arcane Arts (Volmit Software)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package com.volmit.iris.util.stream;
+
+import com.volmit.iris.util.collection.KList;
+import com.volmit.iris.util.stream.arithmetic.DoubleAddingStream;
+import com.volmit.iris.util.stream.arithmetic.DoubleMultiplyingStream;
+import com.volmit.iris.util.stream.arithmetic.DoubleOffsetStream;
+import com.volmit.iris.util.stream.arithmetic.DoubleZoomStream;
+import lombok.Getter;
+
+import java.util.IdentityHashMap;
+import java.util.Map;
+
+/**
+ * A printable view of a stream graph. Each node is numbered the first time it is reached; reaching it again from
+ * another root is printed as a reference to that number, so shared subgraphs show up once.
+ */
+public class StreamGraph {
+    private final Map<ProceduralStream<?>, Integer> ids = new IdentityHashMap<>();
+    @Getter
+    private final KList<String> lines = new KList<>();
+    @Getter
+    private int shared = 0;
+
+    public StreamGraph add(String name, ProceduralStream<?> root) {
+        lines.add(name);
+        walk(root, 1);
+        return this;
+    }
+
+    public int getNodeCount() {
+        return ids.size();
+    }
+
+    private void walk(ProceduralStream<?> stream, int depth) {
+        String indent = "  ".repeat(depth);
+
+        while (stream != null) {
+            Integer id = ids.get(stream);
+
+            if (id != null) {
+                shared++;
+                lines.add(indent + "-> #" + id + " " + describe(stream));
+                return;
+            }
+
+            id = ids.size() + 1;
+            ids.put(stream, id);
+            lines.add(indent + "#" + id + " " + describe(stream));
+            stream = stream.getSource();
+            indent += "  ";
+        }
+    }
+
+    private static String describe(ProceduralStream<?> stream) {
+        String name = stream.getClass().getSimpleName();
+
+        if (name.isEmpty()) {
+            name = stream.getClass().getName();
+        }
+
+        if (stream instanceof DoubleZoomStream s && s.getStepCount() > 1) {
+            return name + " (" + s.getStepCount() + " fused)";
+        } else if (stream instanceof DoubleOffsetStream s && s.getStepCount() > 1) {
+            return name + " (" + s.getStepCount() + " fused)";
+        } else if (stream instanceof DoubleAddingStream s && s.getOperandCount() > 1) {
+            return name + " (" + s.getOperandCount() + " fused)";
+        } else if (stream instanceof DoubleMultiplyingStream s && s.getOperandCount() > 1) {
+            return name + " (" + s.getOperandCount() + " fused)";
+        }
+
+        return name;
+    }
+}
@@ -0,0 +1,93 @@
+/*
+ * Iris is a World Generator for Minecraft Bukkit Servers
+ * Copyright (c) 2022 Arcane Arts (Volmit Software)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package com.volmit.iris.util.stream.arithmetic;
+
+import com.volmit.iris.util.function.NoiseProvider3;
+import com.volmit.iris.util.stream.BasicDoubleStream;
+import com.volmit.iris.util.stream.DoubleStream;
+
+import java.util.Arrays;
+
+/**
+ * Adds one or more operands to its source, in the order they were chained. Consecutive add() calls collapse into
+ * this one node instead of stacking a node per operand.
+ */
+public class DoubleAddingStream extends BasicDoubleStream {
+    private final NoiseProvider3[] operands;
+
+    public DoubleAddingStream(DoubleStream stream, NoiseProvider3 add) {
+        this(stream, new NoiseProvider3[]{add});
+    }
+
+    private DoubleAddingStream(DoubleStream stream, NoiseProvider3[] operands) {
+        super(stream);
+        this.operands = operands;
+    }
+
+    public static DoubleStream of(DoubleStream stream, NoiseProvider3 operand) {
+        if (stream instanceof DoubleAddingStream s) {
+            NoiseProvider3[] operands = Arrays.copyOf(s.operands, s.operands.length + 1);
+            operands[s.operands.length] = operand;
+            return new DoubleAddingStream(s.getTypedSource(), operands);
+        }
+
+        return new DoubleAddingStream(stream, operand);
+    }
+
+    public int getOperandCount() {
+        return operands.length;
+    }
+
+    @Override
+    public double getDouble(double x, double z) {
+        double v = getTypedSource().getDouble(x, z);
+
+        for (NoiseProvider3 i : operands) {
+            v = v + i.noise(x, 0D, z);
+        }
+
+        return v;
+    }
+
+    @Override
+    public double getDouble(double x, double y, double z) {
+        double v = getTypedSource().getDouble(x, y, z);
+
+        for (NoiseProvider3 i : operands) {
+            v = v + i.noise(x, y, z);
+        }
+
+        return v;
+    }
+
+    @Override
+    public void fill(double[] out, double[] xs, double[] zs) {
+        getTypedSource().fill(out, xs, zs);
+        int w = xs.length;
+
+        for (NoiseProvider3 o : operands) {
+            for (int j = 0; j < zs.length; j++) {
+                for (int i = 0; i < w; i++) {
+                    int k = (j * w) + i;
+                    out[k] = out[k] + o.noise(xs[i], 0D, zs[j]);
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,55 @@
+/*
+ * Iris is a World Generator for Minecraft Bukkit Servers
+ * Copyright (c) 2022 Arcane Arts (Volmit Software)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package com.volmit.iris.util.stream.arithmetic;
+
+import com.volmit.iris.util.function.NoiseProvider3;
+import com.volmit.iris.util.stream.BasicDoubleStream;
+import com.volmit.iris.util.stream.DoubleStream;
+
+public class DoubleSubtractingStream extends BasicDoubleStream {
+    private final NoiseProvider3 add;
+
+    public DoubleSubtractingStream(DoubleStream stream, NoiseProvider3 add) {
+        super(stream);
+        this.add = add;
+    }
+
+    @Override
+    public double getDouble(double x, double z) {
+        return getTypedSource().getDouble(x, z) - add.noise(x, 0D, z);
+    }
+
+    @Override
+    public double getDouble(double x, double y, double z) {
+        return getTypedSource().getDouble(x, y, z) - add.noise(x, y, z);
+    }
+
+    @Override
+    public void fill(double[] out, double[] xs, double[] zs) {
+        getTypedSource().fill(out, xs, zs);
+        int w = xs.length;
+
+        for (int j = 0; j < zs.length; j++) {
+            for (int i = 0; i < w; i++) {
+                int k = (j * w) + i;
+                out[k] = out[k] - add.noise(xs[i], 0D, zs[j]);
+            }
+        }
+    }
+}
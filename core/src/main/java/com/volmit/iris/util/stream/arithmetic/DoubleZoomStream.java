@@ -0,0 +1,97 @@
+/*
+ * Iris is a World Generator for Minecraft Bukkit Servers
+ * Copyright (c) 2022 Arcane Arts (Volmit Software)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package com.volmit.iris.util.stream.arithmetic;
+
+import com.volmit.iris.util.stream.BasicDoubleStream;
+import com.volmit.iris.util.stream.DoubleStream;
+
+import java.util.Arrays;
+
+/**
+ * Divides the sampled coordinates by one or more zoom factors. Chained zooms fuse into a single node that still divides
+ * by each factor in order rather than by their product, so the result is bit-identical to the unfused chain.
+ */
+public class DoubleZoomStream extends BasicDoubleStream {
+    private final double[] ox;
+    private final double[] oy;
+    private final double[] oz;
+
+    public DoubleZoomStream(DoubleStream stream, double x, double y, double z) {
+        this(stream, new double[]{x}, new double[]{y}, new double[]{z});
+    }
+
+    private DoubleZoomStream(DoubleStream stream, double[] ox, double[] oy, double[] oz) {
+        super(stream);
+        this.ox = ox;
+        this.oy = oy;
+        this.oz = oz;
+    }
+
+    public static DoubleStream of(DoubleStream stream, double x, double y, double z) {
+        if (stream instanceof DoubleZoomStream s) {
+            return new DoubleZoomStream(s.getTypedSource(), append(s.ox, x), append(s.oy, y), append(s.oz, z));
+        }
+
+        return new DoubleZoomStream(stream, x, y, z);
+    }
+
+    private static double[] append(double[] a, double v) {
+        double[] b = Arrays.copyOf(a, a.length + 1);
+        b[a.length] = v;
+        return b;
+    }
+
+    private static double apply(double v, double[] o) {
+        for (double i : o) {
+            v = v / i;
+        }
+
+        return v;
+    }
+
+    public int getStepCount() {
+        return ox.length;
+    }
+
+    @Override
+    public double getDouble(double x, double z) {
+        return getTypedSource().getDouble(apply(x, ox), apply(z, oz));
+    }
+
+    @Override
+    public double getDouble(double x, double y, double z) {
+        return getTypedSource().getDouble(apply(x, ox), apply(y, oy), apply(z, oz));
+    }
+
+    @Override
+    public void fill(double[] out, double[] xs, double[] zs) {
+        double[] sx = new double[xs.length];
+        double[] sz = new double[zs.length];
+
+        for (int i = 0; i < sx.length; i++) {
+            sx[i] = apply(xs[i], ox);
+        }
+
+        for (int i = 0; i < sz.length; i++) {
+            sz[i] = apply(zs[i], oz);
+        }
+
+        getTypedSource().fill(out, sx, sz);
+    }
+}
@@ -60,4 +60,19 @@ public class AwareConversionStream2D<T, V> extends BasicStream<V> {
     public V get(double x, double y, double z) {
         return converter.apply(stream.get(x, y, z), x, z);
     }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public void fill(V[] out, double[] xs, double[] zs) {
+        T[] in = (T[]) new Object[out.length];
+        stream.fill(in, xs, zs);
+        int w = xs.length;
+
+        for (int j = 0; j < zs.length; j++) {
+            for (int i = 0; i < w; i++) {
+                int k = (j * w) + i;
+                out[k] = converter.apply(in[k], xs[i], zs[j]);
+            }
+        }
+    }
 }
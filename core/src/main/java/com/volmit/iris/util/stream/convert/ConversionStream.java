@@ -54,7 +54,7 @@ public class ConversionStream<T, V> extends BasicLayer implements ProceduralStre
 
     @Override
     public ProceduralStream<?> getSource() {
-        return null;
+        return stream;
     }
 
     @Override
@@ -66,4 +66,15 @@ public class ConversionStream<T, V> extends BasicLayer implements ProceduralStre
     public V get(double x, double y, double z) {
         return converter.apply(stream.get(x, y, z));
     }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public void fill(V[] out, double[] xs, double[] zs) {
+        T[] in = (T[]) new Object[out.length];
+        stream.fill(in, xs, zs);
+
+        for (int i = 0; i < xs.length * zs.length; i++) {
+            out[i] = converter.apply(in[i]);
+        }
+    }
 }
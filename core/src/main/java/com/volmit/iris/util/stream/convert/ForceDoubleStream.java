@@ -18,10 +18,10 @@
 
 package com.volmit.iris.util.stream.convert;
 
-import com.volmit.iris.util.stream.BasicStream;
+import com.volmit.iris.util.stream.BasicDoubleStream;
 import com.volmit.iris.util.stream.ProceduralStream;
 
-public class ForceDoubleStream extends BasicStream<Double> {
+public class ForceDoubleStream extends BasicDoubleStream {
     private final ProceduralStream<?> stream;
 
     public ForceDoubleStream(ProceduralStream<?> stream) {
@@ -30,23 +30,22 @@ public class ForceDoubleStream extends BasicStream<Double> {
     }
 
     @Override
-    public double toDouble(Double t) {
-        return t;
+    public ProceduralStream<?> getSource() {
+        return stream;
     }
 
     @Override
-    public Double fromDouble(double d) {
-        return d;
-    }
-
-    @Override
-    public Double get(double x, double z) {
+    public double getDouble(double x, double z) {
         return stream.getDouble(x, z);
     }
 
     @Override
-    public Double get(double x, double y, double z) {
+    public double getDouble(double x, double y, double z) {
         return stream.getDouble(x, y, z);
     }
 
+    @Override
+    public void fill(double[] out, double[] xs, double[] zs) {
+        stream.fill(out, xs, zs);
+    }
 }
@@ -43,6 +43,11 @@ public class RoundingStream extends BasicStream<Integer> {
         return (int) Math.round(v);
     }
 
+    @Override
+    public ProceduralStream<?> getSource() {
+        return stream;
+    }
+
     @Override
     public Integer get(double x, double z) {
         return round(stream.getDouble(x, z));
@@ -52,4 +57,13 @@ public class RoundingStream extends BasicStream<Integer> {
     public Integer get(double x, double y, double z) {
         return round(stream.getDouble(x, y, z));
     }
+
+    @Override
+    public void fill(double[] out, double[] xs, double[] zs) {
+        stream.fill(out, xs, zs);
+
+        for (int i = 0; i < xs.length * zs.length; i++) {
+            out[i] = round(out[i]);
+        }
+    }
 }
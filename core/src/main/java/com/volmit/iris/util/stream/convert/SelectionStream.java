@@ -21,6 +21,7 @@ package com.volmit.iris.util.stream.convert;
 import com.volmit.iris.util.stream.BasicStream;
 import com.volmit.iris.util.stream.ProceduralStream;
 
+import java.util.Arrays;
 import java.util.List;
 
 public class SelectionStream<T> extends BasicStream<T> {
@@ -48,6 +49,11 @@ public class SelectionStream<T> extends BasicStream<T> {
         throw new UnsupportedOperationException();
     }
 
+    @Override
+    public ProceduralStream<?> getSource() {
+        return stream;
+    }
+
     @Override
     public T get(double x, double z) {
         if (options.length == 0) {
@@ -66,4 +72,18 @@ public class SelectionStream<T> extends BasicStream<T> {
         return options[stream.get(x, y, z)];
     }
 
+    @Override
+    public void fill(T[] out, double[] xs, double[] zs) {
+        if (options.length == 0) {
+            Arrays.fill(out, 0, xs.length * zs.length, null);
+            return;
+        }
+
+        double[] in = new double[xs.length * zs.length];
+        stream.fill(in, xs, zs);
+
+        for (int i = 0; i < in.length; i++) {
+            out[i] = options[(int) in[i]];
+        }
+    }
 }
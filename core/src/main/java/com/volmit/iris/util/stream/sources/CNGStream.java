@@ -20,9 +20,10 @@ package com.volmit.iris.util.stream.sources;
 
 import com.volmit.iris.util.noise.CNG;
 import com.volmit.iris.util.stream.BasicLayer;
+import com.volmit.iris.util.stream.DoubleStream;
 import com.volmit.iris.util.stream.ProceduralStream;
 
-public class CNGStream extends BasicLayer implements ProceduralStream<Double> {
+public class CNGStream extends BasicLayer implements DoubleStream {
     private final CNG cng;
 
     public CNGStream(CNG cng) {
@@ -39,16 +40,6 @@ public class CNGStream extends BasicLayer implements ProceduralStream<Double> {
         this.cng = cng;
     }
 
-    @Override
-    public double toDouble(Double t) {
-        return t;
-    }
-
-    @Override
-    public Double fromDouble(double d) {
-        return d;
-    }
-
     @Override
     public ProceduralStream<Double> getTypedSource() {
         return null;
@@ -60,13 +51,32 @@ public class CNGStream extends BasicLayer implements ProceduralStream<Double> {
     }
 
     @Override
-    public Double get(double x, double z) {
+    public double getDouble(double x, double z) {
         return cng.noise((x + getOffsetX()) / getZoom(), (z + getOffsetZ()) / getZoom());
     }
 
     @Override
-    public Double get(double x, double y, double z) {
+    public double getDouble(double x, double y, double z) {
         return cng.noise((x + getOffsetX()) / getZoom(), (y + getOffsetY()) / getZoom(), (z + getOffsetZ()) * getZoom());
     }
 
+    @Override
+    public void fill(double[] out, double[] xs, double[] zs) {
+        double[] nx = new double[xs.length];
+        double[] nz = new double[zs.length];
+
+        for (int i = 0; i < nx.length; i++) {
+            nx[i] = (xs[i] + getOffsetX()) / getZoom();
+        }
+
+        for (int i = 0; i < nz.length; i++) {
+            nz[i] = (zs[i] + getOffsetZ()) / getZoom();
+        }
+
+        for (int j = 0; j < nz.length; j++) {
+            for (int i = 0; i < nx.length; i++) {
+                out[(j * nx.length) + i] = cng.noise(nx[i], nz[j]);
+            }
+        }
+    }
 }
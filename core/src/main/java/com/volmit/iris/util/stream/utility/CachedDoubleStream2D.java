@@ -0,0 +1,90 @@
+/*
+ * Iris is a World Generator for Minecraft Bukkit Servers
+ * Copyright (c) 2022 Arcane Arts (Volmit Software)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package com.volmit.iris.util.stream.utility;
+
+import com.volmit.iris.Iris;
+import com.volmit.iris.core.service.PreservationSVC;
+import com.volmit.iris.engine.framework.Engine;
+import com.volmit.iris.engine.framework.MeteredCache;
+import com.volmit.iris.util.cache.DoubleTileCache2D;
+import com.volmit.iris.util.data.KCache;
+import com.volmit.iris.util.stream.BasicDoubleStream;
+import com.volmit.iris.util.stream.DoubleStream;
+
+public class CachedDoubleStream2D extends BasicDoubleStream implements MeteredCache {
+    private final DoubleTileCache2D cache;
+    private final Engine engine;
+
+    public CachedDoubleStream2D(String name, Engine engine, DoubleStream stream, int size) {
+        super(stream);
+        this.engine = engine;
+        cache = new DoubleTileCache2D(size, (tile, x, z) -> stream.fill(tile, x, z, 16, 16, 1));
+        Iris.service(PreservationSVC.class).registerCache(this);
+    }
+
+    @Override
+    public double getDouble(double x, double z) {
+        return cache.get((int) x, (int) z);
+    }
+
+    @Override
+    public double getDouble(double x, double y, double z) {
+        return getTypedSource().getDouble(x, y, z);
+    }
+
+    @Override
+    public long getSize() {
+        return cache.getSize();
+    }
+
+    @Override
+    public KCache<?, ?> getRawCache() {
+        return null;
+    }
+
+    @Override
+    public long getMaxSize() {
+        return cache.getMaxSize();
+    }
+
+    @Override
+    public long getHits() {
+        return cache.getHits();
+    }
+
+    @Override
+    public long getMisses() {
+        return cache.getMisses();
+    }
+
+    @Override
+    public long getEvictions() {
+        return cache.getEvictions();
+    }
+
+    @Override
+    public boolean isClosed() {
+        return engine.isClosed();
+    }
+
+    @Override
+    public void fill(double[] out, double[] xs, double[] zs) {
+        cache.fill(out, xs, zs);
+    }
+}
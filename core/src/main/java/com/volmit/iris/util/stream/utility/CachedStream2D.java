@@ -22,14 +22,14 @@ import com.volmit.iris.Iris;
 import com.volmit.iris.core.service.PreservationSVC;
 import com.volmit.iris.engine.framework.Engine;
 import com.volmit.iris.engine.framework.MeteredCache;
-import com.volmit.iris.util.cache.WorldCache2D;
+import com.volmit.iris.util.cache.TileCache2D;
 import com.volmit.iris.util.data.KCache;
 import com.volmit.iris.util.stream.BasicStream;
 import com.volmit.iris.util.stream.ProceduralStream;
 
 public class CachedStream2D<T> extends BasicStream<T> implements ProceduralStream<T>, MeteredCache {
     private final ProceduralStream<T> stream;
-    private final WorldCache2D<T> cache;
+    private final TileCache2D<T> cache;
     private final Engine engine;
     private final boolean chunked = true;
 
@@ -37,7 +37,7 @@ public class CachedStream2D<T> extends BasicStream<T> implements ProceduralStrea
         super();
         this.stream = stream;
         this.engine = engine;
-        cache = new WorldCache2D<>(stream::get);
+        cache = new TileCache2D<>(size, (tile, x, z) -> stream.fill(tile, x, z, 16, 16, 1));
         Iris.service(PreservationSVC.class).registerCache(this);
     }
 
@@ -51,6 +51,11 @@ public class CachedStream2D<T> extends BasicStream<T> implements ProceduralStrea
         return stream.fromDouble(d);
     }
 
+    @Override
+    public ProceduralStream<?> getSource() {
+        return stream;
+    }
+
     @Override
     public T get(double x, double z) {
         //return stream.get(x, z);
@@ -74,11 +79,31 @@ public class CachedStream2D<T> extends BasicStream<T> implements ProceduralStrea
 
     @Override
     public long getMaxSize() {
-        return 256 * 32;
+        return cache.getMaxSize();
+    }
+
+    @Override
+    public long getHits() {
+        return cache.getHits();
+    }
+
+    @Override
+    public long getMisses() {
+        return cache.getMisses();
+    }
+
+    @Override
+    public long getEvictions() {
+        return cache.getEvictions();
     }
 
     @Override
     public boolean isClosed() {
         return engine.isClosed();
     }
+
+    @Override
+    public void fill(T[] out, double[] xs, double[] zs) {
+        cache.fill(out, xs, zs);
+    }
 }
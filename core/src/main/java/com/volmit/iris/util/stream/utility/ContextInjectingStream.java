@@ -21,8 +21,8 @@ public class ContextInjectingStream<T> extends BasicStream<T> {
         if (context != null) {
             ChunkContext chunkContext = context.getChunkContext();
 
-            if (chunkContext != null && (int) x >> 4 == chunkContext.getX() >> 4 && (int) z >> 4 == chunkContext.getZ() >> 4) {
-                T t = contextAccessor.apply(chunkContext, (int) x & 15, (int) z & 15);
+            if (chunkContext != null && chunkContext.contains((int) x, (int) z)) {
+                T t = contextAccessor.apply(chunkContext, (int) x - chunkContext.getX(), (int) z - chunkContext.getZ());
 
                 if (t != null) {
                     return t;
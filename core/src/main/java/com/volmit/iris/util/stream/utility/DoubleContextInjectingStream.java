@@ -0,0 +1,58 @@
+/*
+ * Iris is a World Generator for Minecraft Bukkit Servers
+ * Copyright (c) 2022 Arcane Arts (Volmit Software)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package com.volmit.iris.util.stream.utility;
+
+import com.volmit.iris.util.context.ChunkContext;
+import com.volmit.iris.util.context.IrisContext;
+import com.volmit.iris.util.function.Function3;
+import com.volmit.iris.util.stream.BasicDoubleStream;
+import com.volmit.iris.util.stream.DoubleStream;
+
+public class DoubleContextInjectingStream extends BasicDoubleStream {
+    private final Function3<ChunkContext, Integer, Integer, Double> contextAccessor;
+
+    public DoubleContextInjectingStream(DoubleStream stream, Function3<ChunkContext, Integer, Integer, Double> contextAccessor) {
+        super(stream);
+        this.contextAccessor = contextAccessor;
+    }
+
+    @Override
+    public double getDouble(double x, double z) {
+        IrisContext context = IrisContext.get();
+
+        if (context != null) {
+            ChunkContext chunkContext = context.getChunkContext();
+
+            if (chunkContext != null && chunkContext.contains((int) x, (int) z)) {
+                Double t = contextAccessor.apply(chunkContext, (int) x - chunkContext.getX(), (int) z - chunkContext.getZ());
+
+                if (t != null) {
+                    return t;
+                }
+            }
+        }
+
+        return getTypedSource().getDouble(x, z);
+    }
+
+    @Override
+    public double getDouble(double x, double y, double z) {
+        return getTypedSource().getDouble(x, y, z);
+    }
+}
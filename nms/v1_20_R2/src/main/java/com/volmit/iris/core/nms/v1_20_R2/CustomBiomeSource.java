@@ -7,7 +7,7 @@ import com.volmit.iris.engine.framework.Engine;
 import com.volmit.iris.engine.object.IrisBiome;
 import com.volmit.iris.engine.object.IrisBiomeCustom;
 import com.volmit.iris.util.collection.KMap;
-import com.volmit.iris.util.math.RNG;
+import com.volmit.iris.util.matter.MatterBiomeInject;
 import net.minecraft.core.Holder;
 import net.minecraft.core.Registry;
 import net.minecraft.core.RegistryAccess;
@@ -35,15 +35,13 @@ public class CustomBiomeSource extends BiomeSource {
     private final Registry<Biome> biomeCustomRegistry;
     private final Registry<Biome> biomeRegistry;
     private final AtomicCache<RegistryAccess> registryAccess = new AtomicCache<>();
-    private final RNG rng;
-    private final KMap<String, Holder<Biome>> customBiomes;
+    private final KMap<Integer, Holder<Biome>> customBiomes;
 
     public CustomBiomeSource(long seed, Engine engine, World world) {
         this.engine = engine;
         this.seed = seed;
         this.biomeCustomRegistry = registry().registry(Registries.BIOME).orElse(null);
         this.biomeRegistry = ((RegistryAccess) getFor(RegistryAccess.Frozen.class, ((CraftServer) Bukkit.getServer()).getHandle().getServer())).registry(Registries.BIOME).orElse(null);
-        this.rng = new RNG(engine.getSeedManager().getBiome());
         this.customBiomes = fillCustomBiomes(biomeCustomRegistry, engine);
     }
 
@@ -118,8 +116,8 @@ public class CustomBiomeSource extends BiomeSource {
                 ((CraftWorld) engine.getWorld().realWorld()).getHandle().registryAccess().registry(Registries.BIOME).orElse(null),
                 engine).stream();
     }
-    private KMap<String, Holder<Biome>> fillCustomBiomes(Registry<Biome> customRegistry, Engine engine) {
-        KMap<String, Holder<Biome>> m = new KMap<>();
+    private KMap<Integer, Holder<Biome>> fillCustomBiomes(Registry<Biome> customRegistry, Engine engine) {
+        KMap<Integer, Holder<Biome>> m = new KMap<>();
 
         for (IrisBiome i : engine.getAllBiomes()) {
             if (i.isCustom()) {
@@ -137,7 +135,7 @@ public class CustomBiomeSource extends BiomeSource {
                         Iris.error("Cannot find reference to biome " + biomeKey + " for engine " + engine.getName());
                         continue;
                     }
-                    m.put(j.getId(), optionalReferenceHolder.get());
+                    m.put(customRegistry.getId(biome), optionalReferenceHolder.get());
                 }
             }
         }
@@ -156,13 +154,11 @@ public class CustomBiomeSource extends BiomeSource {
 
     @Override
     public Holder<Biome> getNoiseBiome(int x, int y, int z, Climate.Sampler sampler) {
-        int m = (y - engine.getMinHeight()) << 2;
-        IrisBiome ib = engine.getComplex().getTrueBiomeStream().get(x << 2, z << 2);
-        if (ib.isCustom()) {
-            return customBiomes.get(ib.getCustomBiome(rng, x << 2, m, z << 2).getId());
+        MatterBiomeInject biome = engine.getComplex().getBiomeCache().get(x, y - (engine.getMinHeight() >> 2), z);
+        if (biome.isCustom()) {
+            return customBiomes.get(biome.getBiomeId());
         } else {
-            org.bukkit.block.Biome v = ib.getSkyBiome(rng, x << 2, m, z << 2);
-            return NMSBinding.biomeToBiomeBase(biomeRegistry, v);
+            return NMSBinding.biomeToBiomeBase(biomeRegistry, biome.getBiome());
         }
     }
 }
\ No newline at end of file